@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.LongCollector;
+import one.util.streamex.LongStreamEx;
+import one.util.streamex.MoreCollectors;
+
+/**
+ * HyperLogLog-based {@code approxDistinctCount} compared to the exact
+ * {@code distinctCount} which builds the {@code HashSet} of all the keys.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApproxDistinctCountBenchmark {
+    @Param({ "1000000" })
+    public int size;
+
+    @Param({ "1000", "1000000" })
+    public int distinct;
+
+    @Param({ "12", "16" })
+    public int precision;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    private long[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new Random(1).longs(size, 0, distinct).toArray();
+    }
+
+    private LongStreamEx stream() {
+        LongStreamEx stream = LongStreamEx.of(data);
+        return parallel ? stream.parallel() : stream.sequential();
+    }
+
+    @Benchmark
+    public int distinctCount() {
+        return stream().boxed().collect(MoreCollectors.distinctCount(x -> x));
+    }
+
+    @Benchmark
+    public long approxDistinctCount() {
+        return stream().boxed().collect(MoreCollectors.approxDistinctCount(x -> x, precision));
+    }
+
+    @Benchmark
+    public long approxDistinctCountPrimitive() {
+        return stream().collect(LongCollector.approxDistinctCount(precision));
+    }
+}
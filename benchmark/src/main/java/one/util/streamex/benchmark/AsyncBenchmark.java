@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.IntStreamEx;
+import one.util.streamex.StreamEx;
+
+/**
+ * Read-parse-write pipeline: the upstream simulates the blocking read and the
+ * parsing, the downstream simulates CPU-bound processing. Sequential pipeline
+ * versus the pipeline decoupled via {@code async(bufferSize)}; the empty
+ * stages measure the pure handoff cost.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsyncBenchmark {
+    @Param({ "10000" })
+    public int size;
+
+    @Param({ "16", "1024" })
+    public int bufferSize;
+
+    private List<String> input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = IntStreamEx.range(size).mapToObj(i -> "line " + i).toList();
+    }
+
+    private String read(String line) {
+        if (line.hashCode() % 100 == 0)
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+        return line;
+    }
+
+    private static long work(String line) {
+        long h = 0;
+        for (int i = 0; i < 200; i++) {
+            h = h * 31 + line.charAt(i % line.length());
+        }
+        return h;
+    }
+
+    @Benchmark
+    public long sequential() {
+        return StreamEx.of(input).map(this::read).mapToLong(AsyncBenchmark::work).sum();
+    }
+
+    @Benchmark
+    public long async() {
+        return StreamEx.of(input).map(this::read).async(bufferSize).mapToLong(AsyncBenchmark::work).sum();
+    }
+
+    @Benchmark
+    public long handoffSequential() {
+        return StreamEx.of(input).mapToLong(String::length).sum();
+    }
+
+    @Benchmark
+    public long handoffAsync() {
+        return StreamEx.of(input).async(bufferSize).mapToLong(String::length).sum();
+    }
+}
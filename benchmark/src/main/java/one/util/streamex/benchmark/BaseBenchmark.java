@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.StreamEx;
+
+/**
+ * Common state for the benchmarks which compare StreamEx operation with the
+ * equivalent JDK pipeline. Every benchmark is run for each combination of
+ * input size, source kind and parallelism. Parallelism 0 means sequential
+ * stream, otherwise the stream is executed in the dedicated
+ * {@link ForkJoinPool} of given parallelism (for both StreamEx and JDK
+ * pipelines to make the results comparable).
+ *
+ * <p>
+ * Subclasses may override {@link #value(int)} to produce the data which is
+ * meaningful for the tested operation.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public abstract class BaseBenchmark {
+    @Param({ "100", "10000", "1000000", "100000000" })
+    public int size;
+
+    @Param({ "ARRAY_LIST", "ARRAY", "ITERATOR" })
+    public Source source;
+
+    @Param({ "0", "1", "4", "16" })
+    public int parallelism;
+
+    protected List<Integer> list;
+    protected Integer[] array;
+    protected ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(value(i));
+        }
+        array = list.toArray(new Integer[size]);
+        pool = parallelism == 0 ? null : new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        list = null;
+        array = null;
+    }
+
+    /**
+     * Returns the value of the input element at given position.
+     *
+     * @param i position of the element
+     * @return the element value
+     */
+    protected int value(int i) {
+        return i;
+    }
+
+    protected <R> R streamEx(Function<StreamEx<Integer>, R> pipeline) {
+        StreamEx<Integer> stream = source.streamEx(list, array);
+        return pipeline.apply(pool == null ? stream : stream.parallel(pool));
+    }
+
+    protected <R> R jdk(Function<Stream<Integer>, R> pipeline) {
+        return inPool(() -> pipeline.apply(mode(source.jdk(list, array))));
+    }
+
+    /**
+     * Switches the JDK stream to the benchmarked execution mode. The terminal
+     * operation must be launched via {@link #inPool(Supplier)}.
+     *
+     * @param <S> type of the stream
+     * @param stream stream to configure
+     * @return the configured stream
+     */
+    protected <S extends BaseStream<?, S>> S mode(S stream) {
+        return pool == null ? stream.sequential() : stream.parallel();
+    }
+
+    protected <R> R inPool(Supplier<R> action) {
+        if (pool == null)
+            return action.get();
+        return pool.submit(action::get).join();
+    }
+}
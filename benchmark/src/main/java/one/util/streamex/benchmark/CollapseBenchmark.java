@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Benchmarks for {@code collapse}, {@code groupRuns} and {@code runLengths}
+ * operations (backed by {@code CollapseSpliterator}). The input is sorted and
+ * consists of runs of 10 equal elements, so collapsing equal adjacent elements
+ * is equivalent to JDK {@code distinct()} and the number of runs is equivalent
+ * to the number of JDK {@code groupingBy()} groups.
+ *
+ * @author Tagir Valeev
+ */
+public class CollapseBenchmark extends BaseBenchmark {
+    @Override
+    protected int value(int i) {
+        return i / 10;
+    }
+
+    @Benchmark
+    public long streamExCollapse() {
+        return streamEx(s -> s.collapse(Objects::equals).count());
+    }
+
+    @Benchmark
+    public long jdkDistinct() {
+        return jdk(s -> s.distinct().count());
+    }
+
+    @Benchmark
+    public long streamExGroupRuns() {
+        return streamEx(s -> s.groupRuns(Objects::equals).count());
+    }
+
+    @Benchmark
+    public long streamExRunLengths() {
+        return streamEx(s -> s.runLengths().count());
+    }
+
+    @Benchmark
+    public long jdkGroupingBy() {
+        return jdk(s -> (long) s.collect(Collectors.groupingBy(Function.identity(), Collectors.counting())).size());
+    }
+}
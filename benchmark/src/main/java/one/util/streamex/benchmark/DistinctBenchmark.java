@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Benchmarks for {@code distinct(atLeast)} operation (backed by
+ * {@code DistinctSpliterator}) against counting occurrences with JDK
+ * {@code groupingBy()}. Every value appears in the input about four times.
+ *
+ * @author Tagir Valeev
+ */
+public class DistinctBenchmark extends BaseBenchmark {
+    @Override
+    protected int value(int i) {
+        return (int) ((i * 0x9E3779B9L) % (size / 4 + 1));
+    }
+
+    @Benchmark
+    public long streamExDistinct2() {
+        return streamEx(s -> s.distinct(2).count());
+    }
+
+    @Benchmark
+    public long streamExIntDistinct2() {
+        return streamEx(s -> s.mapToInt(Integer::intValue).distinct(2).count());
+    }
+
+    @Benchmark
+    public long jdkDistinct2() {
+        return jdk(s -> s.collect(Collectors.groupingBy(Function.identity(), Collectors.counting())).values()
+                .stream().filter(c -> c >= 2).count());
+    }
+}
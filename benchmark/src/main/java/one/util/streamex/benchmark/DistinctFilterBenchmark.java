@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.DistinctFilter;
+import one.util.streamex.StreamEx;
+
+/**
+ * Deduplication of the several consecutive batches of keys by the shared
+ * {@code DistinctFilter} compared to the hand-made shared set collected
+ * between the batches.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistinctFilterBenchmark {
+    private static final int BATCHES = 10;
+
+    @Param({ "100000" })
+    public int batchSize;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    private Integer[][] batches;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random r = new Random(1);
+        batches = new Integer[BATCHES][];
+        for (int i = 0; i < BATCHES; i++) {
+            batches[i] = r.ints(batchSize, 0, batchSize * 3).boxed().toArray(Integer[]::new);
+        }
+    }
+
+    private long run(DistinctFilter<Object> filter) {
+        long count = 0;
+        for (Integer[] batch : batches) {
+            StreamEx<Integer> stream = StreamEx.of(batch);
+            count += (parallel ? stream.parallel() : stream).distinct(filter).count();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long unbounded() {
+        return run(DistinctFilter.unbounded());
+    }
+
+    @Benchmark
+    public long lru() {
+        return run(DistinctFilter.lru(batchSize));
+    }
+
+    @Benchmark
+    public long lruSegmented() {
+        return run(DistinctFilter.lru(batchSize, 16));
+    }
+
+    @Benchmark
+    public long expireAfter() {
+        return run(DistinctFilter.expireAfter(1, TimeUnit.HOURS));
+    }
+
+    @Benchmark
+    public long sharedSet() {
+        Set<Integer> seen = new HashSet<>();
+        long count = 0;
+        for (Integer[] batch : batches) {
+            StreamEx<Integer> stream = StreamEx.of(batch);
+            Set<Integer> distinct = (parallel ? stream.parallel() : stream).remove(seen::contains).toSet();
+            seen.addAll(distinct);
+            count += distinct.size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.IntStreamEx;
+import one.util.streamex.StreamEx;
+
+/**
+ * Scalability of parallel {@code distinct(atLeast)} across thread counts.
+ * All the splits count the elements in the shared table; iterator-backed
+ * source has unknown size and is split into batches, while {@code ArrayList}
+ * source is split evenly. Small number of distinct keys means high contention
+ * on the same counters. Primitive source shares the table of {@code long} keys
+ * and {@code AtomicLongArray} counters, so compare {@code streamExPrimitive}
+ * with {@code streamExSized} under {@code -prof gc} to see the boxing gone.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DistinctScalabilityBenchmark {
+    @Param({ "1000000" })
+    public int size;
+
+    @Param({ "100", "250000" })
+    public int distinctKeys;
+
+    @Param({ "1", "2", "4", "8", "16", "32", "64" })
+    public int parallelism;
+
+    private List<Integer> list;
+    private int[] array;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = new ArrayList<>(size);
+        array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = (int) ((i * 0x9E3779B9L) % distinctKeys);
+            list.add(array[i]);
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long streamExUnsized() {
+        return StreamEx.of(list.iterator()).parallel(pool).distinct(2).count();
+    }
+
+    @Benchmark
+    public long streamExSized() {
+        return StreamEx.of(list).parallel(pool).distinct(2).count();
+    }
+
+    @Benchmark
+    public long streamExPrimitive() {
+        return IntStreamEx.of(array).parallel(pool).distinct(2).count();
+    }
+
+    @Benchmark
+    public long jdkGroupingByConcurrent() {
+        return pool.submit(() -> list.parallelStream().collect(
+            Collectors.groupingByConcurrent(Function.identity(), Collectors.counting())).values().stream().filter(
+            c -> c >= 2).count()).join();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import one.util.streamex.IntStreamEx;
+import one.util.streamex.StreamEx;
+
+/**
+ * Traversal of the random dependency-like DAG (every node depends on up to
+ * four nodes of the next level, about half of the nodes are shared) by {@code StreamEx.ofGraph} and
+ * {@code StreamEx.ofGraphBreadthFirst} with CPU-bound work per node.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+    @Param({ "1000000" })
+    public int size;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    @Param({ "10" })
+    public int work;
+
+    private int[][] edges;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random r = new Random(1);
+        edges = new int[size][];
+        for (int i = 0; i < size; i++) {
+            // binary tree edges make every node reachable from the node 0,
+            // extra edges to the next level make the nodes shared
+            int from = 2 * i + 1;
+            edges[i] = IntStreamEx.of(from, from + 1).append(r.ints(r.nextInt(3), from, from * 2 + 2)).filter(
+                n -> n < size).toArray();
+        }
+    }
+
+    private Stream<Integer> neighbors(int node) {
+        return IntStreamEx.of(edges[node]).boxed();
+    }
+
+    private long count(StreamEx<Integer> stream) {
+        return (parallel ? stream.parallel() : stream).peek(n -> Blackhole.consumeCPU(work)).count();
+    }
+
+    @Benchmark
+    public long depthFirst() {
+        return count(StreamEx.ofGraph(0, this::neighbors));
+    }
+
+    @Benchmark
+    public long breadthFirst() {
+        return count(StreamEx.ofGraphBreadthFirst(0, this::neighbors));
+    }
+}
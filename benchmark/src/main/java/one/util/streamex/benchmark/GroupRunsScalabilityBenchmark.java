@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.StreamEx;
+
+/**
+ * Scalability of parallel {@code groupRuns}, {@code collapse} and
+ * {@code runLengths} (backed by {@code CollapseSpliterator}) across thread
+ * counts. The input is the sorted {@code ArrayList}: short runs produce many
+ * groups inside every split, while long runs make most of the groups cross the
+ * split boundaries, so the boundary hand-off dominates.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GroupRunsScalabilityBenchmark {
+    @Param({ "10000000" })
+    public int size;
+
+    @Param({ "2", "100000" })
+    public int runLength;
+
+    @Param({ "1", "2", "4", "8", "16", "32", "64" })
+    public int parallelism;
+
+    private List<Integer> list;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i / runLength);
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long groupRuns() {
+        return StreamEx.of(list).parallel(pool).groupRuns(Objects::equals).count();
+    }
+
+    @Benchmark
+    public long collapse() {
+        return StreamEx.of(list).parallel(pool).collapse(Objects::equals).count();
+    }
+
+    @Benchmark
+    public long runLengths() {
+        return StreamEx.of(list).parallel(pool).runLengths().count();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import one.util.streamex.MoreCollectors;
+
+/**
+ * Benchmarks for {@code MoreCollectors.groupingByEnum()} which stores the
+ * groups in the array indexed by ordinal, compared to JDK
+ * {@code groupingBy} into {@code EnumMap}. The short-circuiting variants
+ * stop as soon as every group is finished.
+ *
+ * @author Tagir Valeev
+ */
+public class GroupingByEnumBenchmark extends BaseBenchmark {
+    private static final TimeUnit[] UNITS = TimeUnit.values();
+
+    private static TimeUnit unit(Integer i) {
+        return UNITS[i % UNITS.length];
+    }
+
+    @Benchmark
+    public EnumMap<TimeUnit, Long> streamExCounting() {
+        return streamEx(s -> s.collect(MoreCollectors.groupingByEnum(TimeUnit.class, GroupingByEnumBenchmark::unit,
+            Collectors.counting())));
+    }
+
+    @Benchmark
+    public EnumMap<TimeUnit, Long> jdkCounting() {
+        return jdk(s -> s.collect(Collectors.groupingBy(GroupingByEnumBenchmark::unit,
+            () -> new EnumMap<>(TimeUnit.class), Collectors.counting())));
+    }
+
+    @Benchmark
+    public EnumMap<TimeUnit, Optional<Integer>> streamExFirst() {
+        return streamEx(s -> s.collect(MoreCollectors.groupingByEnum(TimeUnit.class, GroupingByEnumBenchmark::unit,
+            MoreCollectors.first())));
+    }
+
+    @Benchmark
+    public EnumMap<TimeUnit, List<Integer>> streamExHead() {
+        return streamEx(s -> s.collect(MoreCollectors.groupingByEnum(TimeUnit.class, GroupingByEnumBenchmark::unit,
+            MoreCollectors.head(100))));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.IntCollector;
+import one.util.streamex.IntStreamEx;
+
+/**
+ * Histogram of int values: {@code IntCollector.groupingByInt} with unboxed
+ * keys compared to {@code IntCollector.groupingBy} which stores the groups in
+ * the {@code HashMap} with {@code Integer} keys. Small bucket counts use the
+ * dense array, large ones use the hash table.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupingByIntBenchmark {
+    @Param({ "10000", "1000000" })
+    public int size;
+
+    @Param({ "10", "1000", "100000" })
+    public int buckets;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    private int[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new Random(1).ints(size, 0, Integer.MAX_VALUE).toArray();
+    }
+
+    private IntStreamEx stream() {
+        IntStreamEx stream = IntStreamEx.of(data);
+        return parallel ? stream.parallel() : stream;
+    }
+
+    @Benchmark
+    public Map<Integer, Long> groupingByInt() {
+        int width = Integer.MAX_VALUE / buckets + 1;
+        return stream().collect(IntCollector.groupingByInt(x -> x / width, IntCollector.counting()));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> groupingByBoxed() {
+        int width = Integer.MAX_VALUE / buckets + 1;
+        return stream().collect(IntCollector.groupingBy(x -> x / width, IntCollector.counting()));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.IntStreamEx;
+
+/**
+ * Throughput of the byte streams conversion: {@code IntStreamEx.of(InputStream)}
+ * and {@code IntStreamEx.asByteInputStream()} read via the bulk
+ * {@code read(byte[])} method. Unlike other benchmarks these are sequential
+ * only and work on the byte array.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputStreamBenchmark {
+    @Param({ "10000", "10000000" })
+    public int size;
+
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new byte[size];
+        new Random(1).nextBytes(data);
+    }
+
+    @Benchmark
+    public int ofInputStream() {
+        return IntStreamEx.of(new ByteArrayInputStream(data)).sum();
+    }
+
+    @Benchmark
+    public long asByteInputStream() throws IOException {
+        long total = 0;
+        byte[] buf = new byte[8192];
+        try (InputStream is = IntStreamEx.of(data).asByteInputStream()) {
+            int n;
+            while ((n = is.read(buf)) != -1) {
+                total += n;
+            }
+        }
+        return total;
+    }
+}
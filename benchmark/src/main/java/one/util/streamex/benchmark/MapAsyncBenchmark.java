@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.IntStreamEx;
+import one.util.streamex.StreamEx;
+
+/**
+ * Mapping with the simulated blocking I/O call of fixed latency: sequential
+ * {@code map}, parallel {@code map} in the common pool and {@code mapAsync}
+ * with the executor of {@code maxInFlight} threads.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapAsyncBenchmark {
+    @Param({ "1000" })
+    public int size;
+
+    @Param({ "100" })
+    public int latencyMicros;
+
+    @Param({ "16", "64" })
+    public int maxInFlight;
+
+    private List<Integer> input;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = IntStreamEx.range(size).boxed().toList();
+        executor = Executors.newFixedThreadPool(maxInFlight);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    private Integer call(Integer x) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+        return x * 2;
+    }
+
+    @Benchmark
+    public long sequential() {
+        return StreamEx.of(input).map(this::call).mapToInt(x -> x).sum();
+    }
+
+    @Benchmark
+    public long parallel() {
+        return StreamEx.of(input).parallel().map(this::call).mapToInt(x -> x).sum();
+    }
+
+    @Benchmark
+    public long mapAsync() {
+        return StreamEx.of(input).mapAsync(this::call, maxInFlight, executor).mapToInt(x -> x).sum();
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Benchmarks for {@code pairMap} operation (backed by
+ * {@code PairSpliterator}). The JDK has no adjacent-pairs operation, so the
+ * JDK pipeline uses the index-based access to the materialized input, which
+ * is the best one can do for random-access sources.
+ *
+ * @author Tagir Valeev
+ */
+public class PairMapBenchmark extends BaseBenchmark {
+    @Override
+    protected int value(int i) {
+        return i * 31 % 1000;
+    }
+
+    @Benchmark
+    public long streamExPairMap() {
+        return streamEx(s -> s.pairMap((a, b) -> b - a).mapToLong(Integer::longValue).sum());
+    }
+
+    @Benchmark
+    public long jdkIndexed() {
+        return inPool(() -> mode(IntStream.range(1, size)).mapToLong(i -> array[i] - array[i - 1]).sum());
+    }
+}
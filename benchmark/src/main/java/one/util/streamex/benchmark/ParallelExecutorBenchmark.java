@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.IntStreamEx;
+import one.util.streamex.StreamEx;
+
+/**
+ * Parallel map-reduce in the common pool, in the custom {@code ForkJoinPool}
+ * (called from outside and from inside of the pool) and in the fixed thread
+ * pool via {@code parallel(Executor)}.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelExecutorBenchmark {
+    @Param({ "1000", "1000000" })
+    public int size;
+
+    private List<Integer> input;
+    private ForkJoinPool pool;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = IntStreamEx.range(size).boxed().toList();
+        int threads = Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+        executor.shutdown();
+    }
+
+    private long sum(StreamEx<Integer> stream) {
+        return stream.map(x -> x * 31 + 7).filter(x -> x % 3 != 0).reduce(0L, (acc, x) -> acc + x, Long::sum);
+    }
+
+    @Benchmark
+    public long commonPool() {
+        return sum(StreamEx.of(input).parallel());
+    }
+
+    @Benchmark
+    public long customPool() {
+        return sum(StreamEx.of(input).parallel(pool));
+    }
+
+    @Benchmark
+    public long customPoolNested() {
+        return pool.submit(() -> sum(StreamEx.of(input).parallel(pool))).join();
+    }
+
+    @Benchmark
+    public long executor() {
+        return sum(StreamEx.of(input).parallel(executor));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.IntStreamEx;
+
+/**
+ * Parallel {@code IntStreamEx.prefix} over the array (two-pass scan) compared
+ * to the lazy left-to-right prefix of the non-array source and to
+ * {@link Arrays#parallelPrefix(int[], java.util.function.IntBinaryOperator)}
+ * across thread counts.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelPrefixBenchmark {
+    @Param({ "100000000" })
+    public int size;
+
+    @Param({ "1", "2", "4", "8", "16" })
+    public int parallelism;
+
+    private int[] data;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new Random(1).ints(size, 0, 100).toArray();
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[] array() {
+        return IntStreamEx.of(data).parallel(pool).prefix(Integer::sum).toArray();
+    }
+
+    @Benchmark
+    public int[] lazy() {
+        return IntStreamEx.of(data).parallel(pool).map(x -> x).prefix(Integer::sum).toArray();
+    }
+
+    @Benchmark
+    public int[] parallelPrefix() {
+        return pool.submit(() -> {
+            int[] copy = data.clone();
+            Arrays.parallelPrefix(copy, Integer::sum);
+            return copy;
+        }).join();
+    }
+}
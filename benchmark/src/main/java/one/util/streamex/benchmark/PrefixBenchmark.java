@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.Arrays;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Benchmarks for {@code prefix} operation (backed by {@code PrefixOps}). The
+ * JDK has no stream prefix operation, so the JDK pipeline collects the stream
+ * to the array and runs {@link Arrays#parallelPrefix(Object[], java.util.function.BinaryOperator)}
+ * (or the plain loop in sequential mode) on it.
+ *
+ * @author Tagir Valeev
+ */
+public class PrefixBenchmark extends BaseBenchmark {
+    @Benchmark
+    public long streamExPrefix() {
+        return streamEx(s -> s.prefix(Integer::sum).mapToLong(Integer::longValue).sum());
+    }
+
+    @Benchmark
+    public long jdkPrefix() {
+        return jdk(s -> {
+            Integer[] data = s.toArray(Integer[]::new);
+            if (pool == null) {
+                for (int i = 1; i < data.length; i++) {
+                    data[i] = data[i - 1] + data[i];
+                }
+            } else {
+                Arrays.parallelPrefix(data, Integer::sum);
+            }
+            return mode(Arrays.stream(data)).mapToLong(Integer::longValue).sum();
+        });
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.IntStreamEx;
+
+/**
+ * Primitive {@code collapse}, {@code runLengths} and {@code groupRuns} of
+ * {@code IntStreamEx} compared to the same operations over the boxed stream.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveCollapseBenchmark {
+    @Param({ "1000000" })
+    public int size;
+
+    @Param({ "1", "10", "1000" })
+    public int runLength;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    private int[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = IntStreamEx.range(size).map(i -> i / runLength).toArray();
+    }
+
+    private IntStreamEx stream() {
+        IntStreamEx stream = IntStreamEx.of(data);
+        return parallel ? stream.parallel() : stream.sequential();
+    }
+
+    @Benchmark
+    public long collapse() {
+        return stream().collapse((a, b) -> a == b, Integer::sum).sum();
+    }
+
+    @Benchmark
+    public long collapseBoxed() {
+        return stream().boxed().collapse(Integer::equals, Integer::sum).mapToInt(Integer::intValue).sum();
+    }
+
+    @Benchmark
+    public long runLengths() {
+        return stream().runLengths().values().mapToLong(Long::longValue).max().getAsLong();
+    }
+
+    @Benchmark
+    public long runLengthsBoxed() {
+        return stream().boxed().runLengths().values().mapToLong(Long::longValue).max().getAsLong();
+    }
+
+    @Benchmark
+    public long groupRuns() {
+        return stream().groupRuns((a, b) -> a == b).mapToInt(a -> a.length).max().getAsInt();
+    }
+
+    @Benchmark
+    public long groupRunsBoxed() {
+        return stream().boxed().groupRuns(Integer::equals).mapToInt(l -> l.size()).max().getAsInt();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.LongStreamEx;
+
+/**
+ * Inter-arrival times over the {@code long[]} of timestamps via
+ * {@code LongStreamEx.pairMap}. The array-backed stream reads the adjacent
+ * pairs directly from the array, while the identity {@code map} in front of
+ * {@code pairMap} hides the array and forces the generic
+ * {@code PairSpliterator} path.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitivePairMapBenchmark {
+    @Param({ "1000", "1000000" })
+    public int size;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    private long[] timestamps;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random r = new Random(1);
+        timestamps = new long[size];
+        for (int i = 1; i < size; i++) {
+            timestamps[i] = timestamps[i - 1] + r.nextInt(1000);
+        }
+    }
+
+    private LongStreamEx stream() {
+        LongStreamEx stream = LongStreamEx.of(timestamps);
+        return parallel ? stream.parallel() : stream.sequential();
+    }
+
+    @Benchmark
+    public long array() {
+        return stream().pairMap((a, b) -> b - a).max().getAsLong();
+    }
+
+    @Benchmark
+    public long pairSpliterator() {
+        return stream().map(x -> x).pairMap((a, b) -> b - a).max().getAsLong();
+    }
+
+    @Benchmark
+    public long[] arrayToArray() {
+        return stream().pairMap((a, b) -> b - a).toArray();
+    }
+
+    @Benchmark
+    public long[] pairSpliteratorToArray() {
+        return stream().map(x -> x).pairMap((a, b) -> b - a).toArray();
+    }
+}
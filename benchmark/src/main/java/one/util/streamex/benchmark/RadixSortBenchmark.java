@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Benchmarks for the radix sort ({@code IntStreamEx.radixSorted()} and
+ * {@code StreamEx.radixSortedByInt()}) against the comparison sort used by
+ * {@code sorted()} and {@code sortedByInt()}. The input is pseudo-random.
+ *
+ * @author Tagir Valeev
+ */
+public class RadixSortBenchmark extends BaseBenchmark {
+    @Override
+    protected int value(int i) {
+        return (int) (i * 0x9E3779B9L);
+    }
+
+    @Benchmark
+    public int[] streamExIntSorted() {
+        return streamEx(s -> s.mapToInt(x -> x).sorted().toArray());
+    }
+
+    @Benchmark
+    public int[] streamExIntRadixSorted() {
+        return streamEx(s -> s.mapToInt(x -> x).radixSorted().toArray());
+    }
+
+    @Benchmark
+    public List<Integer> streamExSortedByInt() {
+        return streamEx(s -> s.sortedByInt(x -> x).toList());
+    }
+
+    @Benchmark
+    public List<Integer> streamExRadixSortedByInt() {
+        return streamEx(s -> s.radixSortedByInt(x -> x).toList());
+    }
+}
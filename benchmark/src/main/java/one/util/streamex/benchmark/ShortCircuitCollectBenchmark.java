@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.IntStreamEx;
+import one.util.streamex.MoreCollectors;
+import one.util.streamex.StreamEx;
+
+/**
+ * Many tiny sequential short-circuiting collections like
+ * {@code MoreCollectors.first()} or {@code MoreCollectors.head(n)}. The
+ * {@code throwing*} benchmarks reproduce the former implementation which
+ * stopped the {@code forEachRemaining} traversal by throwing a stackless
+ * exception.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortCircuitCollectBenchmark {
+    @Param({ "1", "10", "100" })
+    public int limit;
+
+    @Param({ "false", "true" })
+    public boolean mapped;
+
+    private Integer[] data;
+
+    @SuppressWarnings("serial")
+    private static class CancelException extends Error {
+        CancelException() {
+            super(null, null, false, false);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = IntStreamEx.range(1000).boxed().toArray(Integer[]::new);
+    }
+
+    private StreamEx<Integer> stream() {
+        StreamEx<Integer> stream = StreamEx.of(data);
+        return mapped ? stream.map(x -> x + 1) : stream;
+    }
+
+    @Benchmark
+    public Optional<Integer> first() {
+        return stream().collect(MoreCollectors.first());
+    }
+
+    @Benchmark
+    public Optional<Integer> throwingFirst() {
+        Spliterator<Integer> spliterator = stream().spliterator();
+        Integer[] box = new Integer[1];
+        try {
+            spliterator.forEachRemaining(t -> {
+                box[0] = t;
+                throw new CancelException();
+            });
+        } catch (CancelException ex) {
+            // ignore
+        }
+        return Optional.ofNullable(box[0]);
+    }
+
+    @Benchmark
+    public List<Integer> head() {
+        return stream().collect(MoreCollectors.head(limit));
+    }
+
+    @Benchmark
+    public List<Integer> throwingHead() {
+        Spliterator<Integer> spliterator = stream().spliterator();
+        List<Integer> list = new ArrayList<>();
+        try {
+            spliterator.forEachRemaining(t -> {
+                list.add(t);
+                if (list.size() == limit)
+                    throw new CancelException();
+            });
+        } catch (CancelException ex) {
+            // ignore
+        }
+        return list;
+    }
+}
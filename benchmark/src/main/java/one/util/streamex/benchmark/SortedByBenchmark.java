@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Benchmarks for {@code sortedBy()} and {@code sortedByInt()} (keys are
+ * extracted once per element) against JDK {@code sorted()} with key-extracting
+ * comparator. The key function parses the string representation of the
+ * element, so it's relatively expensive.
+ *
+ * @author Tagir Valeev
+ */
+public class SortedByBenchmark extends BaseBenchmark {
+    @Override
+    protected int value(int i) {
+        return (int) (i * 0x9E3779B9L);
+    }
+
+    private static int key(Integer i) {
+        return Integer.parseInt(Integer.toString(i >>> 8));
+    }
+
+    @Benchmark
+    public List<Integer> streamExSortedByInt() {
+        return streamEx(s -> s.sortedByInt(SortedByBenchmark::key).toList());
+    }
+
+    @Benchmark
+    public List<Integer> streamExSortedBy() {
+        return streamEx(s -> s.sortedBy(SortedByBenchmark::key).toList());
+    }
+
+    @Benchmark
+    public List<Integer> jdkSortedComparingInt() {
+        return jdk(s -> s.sorted(Comparator.comparingInt(SortedByBenchmark::key)).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import one.util.streamex.StreamEx;
+
+/**
+ * Kinds of stream sources the benchmarks are run against. The same data is
+ * exposed as {@code ArrayList}, as an array and as a plain iterator which has
+ * no size information and splits poorly.
+ *
+ * @author Tagir Valeev
+ */
+public enum Source {
+    ARRAY_LIST {
+        @Override
+        <T> Stream<T> jdk(List<T> list, T[] array) {
+            return list.stream();
+        }
+
+        @Override
+        <T> StreamEx<T> streamEx(List<T> list, T[] array) {
+            return StreamEx.of(list);
+        }
+    },
+    ARRAY {
+        @Override
+        <T> Stream<T> jdk(List<T> list, T[] array) {
+            return Arrays.stream(array);
+        }
+
+        @Override
+        <T> StreamEx<T> streamEx(List<T> list, T[] array) {
+            return StreamEx.of(array);
+        }
+    },
+    ITERATOR {
+        @Override
+        <T> Stream<T> jdk(List<T> list, T[] array) {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(list.iterator(), Spliterator.ORDERED),
+                false);
+        }
+
+        @Override
+        <T> StreamEx<T> streamEx(List<T> list, T[] array) {
+            return StreamEx.of(list.iterator());
+        }
+    };
+
+    abstract <T> Stream<T> jdk(List<T> list, T[] array);
+
+    abstract <T> StreamEx<T> streamEx(List<T> list, T[] array);
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Benchmarks for {@code append} and {@code prepend} operations (backed by
+ * {@code TailConcatSpliterator}) against JDK {@code Stream.concat()}. The
+ * input is concatenated with itself, so twice as many elements are processed.
+ *
+ * @author Tagir Valeev
+ */
+public class TailConcatBenchmark extends BaseBenchmark {
+    @Benchmark
+    public long streamExAppend() {
+        return streamEx(s -> s.append(source.streamEx(list, array)).mapToLong(Integer::longValue).sum());
+    }
+
+    @Benchmark
+    public long streamExPrepend() {
+        return streamEx(s -> s.prepend(source.streamEx(list, array)).mapToLong(Integer::longValue).sum());
+    }
+
+    @Benchmark
+    public long jdkConcat() {
+        return jdk(s -> Stream.concat(s, source.jdk(list, array)).mapToLong(Integer::longValue).sum());
+    }
+}
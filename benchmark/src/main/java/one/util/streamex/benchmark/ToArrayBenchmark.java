@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Benchmarks for primitive {@code toArray()} of the streams which size is
+ * unknown (due to filtering) against JDK {@code toArray()}. Run with
+ * {@code -prof gc} to see the allocation rate: in parallel mode StreamEx
+ * fills the segment lists and copies the elements only once into the
+ * resulting array.
+ *
+ * @author Tagir Valeev
+ */
+public class ToArrayBenchmark extends BaseBenchmark {
+    @Benchmark
+    public int[] streamExToArray() {
+        return streamEx(s -> s.mapToInt(x -> x).filter(x -> x % 3 != 0).toArray());
+    }
+
+    @Benchmark
+    public int[] jdkToArray() {
+        return jdk(s -> s.mapToInt(x -> x).filter(x -> x % 3 != 0).toArray());
+    }
+
+    @Benchmark
+    public long[] streamExToLongArray() {
+        return streamEx(s -> s.mapToLong(x -> x).filter(x -> x % 3 != 0).toArray());
+    }
+
+    @Benchmark
+    public long[] jdkToLongArray() {
+        return jdk(s -> s.mapToLong(x -> x).filter(x -> x % 3 != 0).toArray());
+    }
+
+    @Benchmark
+    public byte[] streamExToByteArray() {
+        return streamEx(s -> s.mapToInt(x -> x).filter(x -> x % 3 != 0).toByteArray());
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import one.util.streamex.IntCollector;
+import one.util.streamex.MoreCollectors;
+
+/**
+ * Benchmarks for {@code MoreCollectors.least()} (backed by {@code Limiter})
+ * and its unboxed counterpart {@code IntCollector.least()} against JDK
+ * {@code sorted().limit()}. The input is pseudo-random.
+ *
+ * @author Tagir Valeev
+ */
+public class TopKBenchmark extends BaseBenchmark {
+    @Param({ "10", "1000" })
+    public int k;
+
+    @Override
+    protected int value(int i) {
+        return (int) (i * 0x9E3779B9L);
+    }
+
+    @Benchmark
+    public List<Integer> streamExLeast() {
+        return streamEx(s -> s.collect(MoreCollectors.least(k)));
+    }
+
+    @Benchmark
+    public int[] streamExIntLeast() {
+        return streamEx(s -> s.mapToInt(x -> x).collect(IntCollector.least(k)));
+    }
+
+    @Benchmark
+    public List<Integer> jdkSortedLimit() {
+        return jdk(s -> s.sorted().limit(k).collect(Collectors.toList()));
+    }
+}
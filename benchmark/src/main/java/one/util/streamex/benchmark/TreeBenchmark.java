@@ -0,0 +1,125 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import one.util.streamex.StreamEx;
+
+/**
+ * Parallel traversal of {@code StreamEx.ofTree} with CPU-bound work per node
+ * on differently shaped trees of about the same size: balanced, skewed (a
+ * single huge subtree under a chain of single-child nodes) and linked list
+ * (every node has a single child).
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeBenchmark {
+    static final class Node {
+        final List<Node> children = new ArrayList<>();
+
+        Stream<Node> children() {
+            return children.isEmpty() ? null : children.stream();
+        }
+    }
+
+    public enum Shape {
+        BALANCED, SKEWED, LINKED_LIST
+    }
+
+    @Param
+    public Shape shape;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    @Param({ "100" })
+    public int work;
+
+    private Node root;
+
+    private static Node balanced(int depth, int width) {
+        Node node = new Node();
+        if (depth > 0) {
+            for (int i = 0; i < width; i++) {
+                node.children.add(balanced(depth - 1, width));
+            }
+        }
+        return node;
+    }
+
+    private static Node chain(int length, Node last) {
+        Node node = last;
+        for (int i = 0; i < length; i++) {
+            Node parent = new Node();
+            parent.children.add(node);
+            node = parent;
+        }
+        return node;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (shape) {
+        case BALANCED:
+            // 4^7 + ... + 1 = 21845 nodes
+            root = balanced(7, 4);
+            break;
+        case SKEWED:
+            // a few tiny siblings next to the chain leading to the huge subtree
+            root = new Node();
+            root.children.add(chain(10, balanced(7, 4)));
+            root.children.addAll(Collections.nCopies(3, new Node()));
+            break;
+        case LINKED_LIST:
+            // deeper lists overflow the stack in the recursive traversal
+            root = chain(1000, new Node());
+            break;
+        default:
+            throw new InternalError();
+        }
+    }
+
+    @Benchmark
+    public long ofTree() {
+        StreamEx<Node> stream = StreamEx.ofTree(root, Node::children);
+        return (parallel ? stream.parallel() : stream).peek(n -> Blackhole.consumeCPU(work)).count();
+    }
+}
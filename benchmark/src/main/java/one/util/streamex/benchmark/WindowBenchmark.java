@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import one.util.streamex.DoubleStreamEx;
+import one.util.streamex.StreamEx;
+
+/**
+ * Moving sum and maximum of {@code DoubleStreamEx} computed incrementally by
+ * {@code windowSum}/{@code windowMax} compared to the recomputation of every
+ * window over {@code StreamEx.ofSubLists} of the boxed list.
+ *
+ * @author Tagir Valeev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WindowBenchmark {
+    @Param({ "100000" })
+    public int size;
+
+    @Param({ "10", "1000" })
+    public int width;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    private double[] data;
+    private List<Double> list;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new Random(1).doubles(size).toArray();
+        list = DoubleStreamEx.of(data).boxed().toList();
+    }
+
+    private DoubleStreamEx stream() {
+        DoubleStreamEx stream = DoubleStreamEx.of(data);
+        return parallel ? stream.parallel() : stream.sequential();
+    }
+
+    private StreamEx<List<Double>> subLists() {
+        StreamEx<List<Double>> stream = StreamEx.ofSubLists(list, width, 1).limit(size - width + 1);
+        return parallel ? stream.parallel() : stream.sequential();
+    }
+
+    @Benchmark
+    public double windowSum() {
+        return stream().windowSum(width).max().getAsDouble();
+    }
+
+    @Benchmark
+    public double subListsSum() {
+        return subLists().mapToDouble(l -> DoubleStreamEx.of(l).sum()).max().getAsDouble();
+    }
+
+    @Benchmark
+    public double windowMax() {
+        return stream().windowMax(width).sum();
+    }
+
+    @Benchmark
+    public double subListsMax() {
+        return subLists().mapToDouble(l -> DoubleStreamEx.of(l).max().getAsDouble()).sum();
+    }
+}
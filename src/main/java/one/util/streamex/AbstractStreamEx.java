@@ -28,6 +28,7 @@ import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.Spliterators.AbstractSpliterator;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -171,7 +172,14 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
         }
     }
 
+    ExecutorEvaluator<T> evaluator() {
+        return new ExecutorEvaluator<>(context.executor, spliterator());
+    }
+
     <R, A> R rawCollect(Collector<? super T, A, R> collector) {
+        if (context.executor != null)
+            return collector.finisher().apply(
+                evaluator().collect(collector.supplier(), collector.accumulator(), collector.combiner()));
         if (context.fjp != null)
             return context.terminate(collector, stream()::collect);
         return stream().collect(collector);
@@ -232,6 +240,52 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
         return (S) super.parallel(fjp);
     }
 
+    /**
+     * Returns an equivalent stream that is parallel and bound to the supplied
+     * {@link Executor}.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     * 
+     * <p>
+     * The terminal operation of this stream or any derived stream (except the
+     * streams created via {@link #parallel()} or {@link #sequential()} methods)
+     * will be executed by the tasks submitted to the supplied executor: the
+     * stream source is split recursively by these tasks and the partial results
+     * are combined in the encounter order as soon as they are ready. The tasks
+     * never wait for each other, so any executor can be used including the
+     * fixed-size thread pools or the executor which creates a new thread for
+     * every task. The current thread waits till calculation finishes, thus it
+     * should not be the only thread of the supplied executor.
+     * 
+     * <p>
+     * If the supplied executor is a {@link ForkJoinPool}, this method is
+     * equivalent to {@link #parallel(ForkJoinPool)}.
+     * 
+     * <p>
+     * The {@link #forEachOrdered(Consumer)} operation passes the elements of
+     * the leftmost part to the action as soon as they are traversed. The
+     * elements of any other part are buffered until all the parts to the left
+     * of it are processed.
+     * 
+     * <p>
+     * The stateful intermediate operations like {@link #sorted()} and
+     * {@link #distinct()} as well as the terminal operations of the primitive
+     * streams derived from this stream (e.g. via {@link #mapToInt(ToIntFunction)})
+     * are executed in the common {@code ForkJoinPool}.
+     *
+     * @param executor an {@code Executor} to submit the stream operation to.
+     * @return a parallel stream bound to the supplied {@code Executor}
+     * @since 0.6.2
+     */
+    @SuppressWarnings("unchecked")
+    public S parallel(Executor executor) {
+        parallel();
+        context = context.parallel(executor);
+        return (S) this;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public S unordered() {
@@ -317,6 +371,60 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
         return supply(stream().map(t -> new PairBox<>(t, keyExtractor.apply(t))).distinct().map(box -> box.a));
     }
 
+    /**
+     * Returns a stream consisting of the elements of this stream which were
+     * not seen by the supplied {@link DistinctFilter} yet. The filter
+     * remembers the elements, so they are also skipped by the subsequent
+     * streams which use the same filter.
+     *
+     * <p>
+     * For sequential ordered streams the element appearing first in the
+     * encounter order is preserved. For parallel streams the element which is
+     * preserved among the duplicates is unspecified, though exactly one of them
+     * is preserved unless the filter forgets it in between.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>. The supplied filter is updated when the elements are
+     * consumed.
+     *
+     * @param filter a filter which remembers the already seen elements
+     * @return the new stream
+     * @see #distinct(Function, DistinctFilter)
+     * @since 0.6.2
+     */
+    public S distinct(DistinctFilter<? super T> filter) {
+        return supply(stream().filter(filter::add));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream which keys
+     * (the results of applying the given function) were not seen by the
+     * supplied {@link DistinctFilter} yet. The filter remembers the keys, so
+     * the elements having these keys are also skipped by the subsequent
+     * streams which use the same filter.
+     *
+     * <p>
+     * For sequential ordered streams the element appearing first in the
+     * encounter order is preserved. For parallel streams the element which is
+     * preserved among the elements having the same key is unspecified.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>. The supplied filter is updated when the elements are
+     * consumed.
+     *
+     * @param <K> the type of the keys
+     * @param keyExtractor a non-interfering, stateless function which
+     *        classifies input elements.
+     * @param filter a filter which remembers the already seen keys
+     * @return the new stream
+     * @since 0.6.2
+     */
+    public <K> S distinct(Function<? super T, ? extends K> keyExtractor, DistinctFilter<? super K> filter) {
+        return supply(stream().filter(t -> filter.add(keyExtractor.apply(t))));
+    }
+
     @Override
     public S sorted() {
         return supply(stream().sorted());
@@ -347,7 +455,9 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
         if (spliterator != null && !isParallel()) {
             spliterator().forEachRemaining(action);
         } else {
-            if (context.fjp != null)
+            if (context.executor != null)
+                evaluator().forEach(action);
+            else if (context.fjp != null)
                 context.terminate(() -> {
                     stream().forEach(action);
                     return null;
@@ -363,7 +473,9 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
         if (spliterator != null && !isParallel()) {
             spliterator().forEachRemaining(action);
         } else {
-            if (context.fjp != null)
+            if (context.executor != null)
+                evaluator().forEachOrdered(action);
+            else if (context.fjp != null)
                 context.terminate(() -> {
                     stream().forEachOrdered(action);
                     return null;
@@ -381,6 +493,10 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
 
     @Override
     public <A> A[] toArray(IntFunction<A[]> generator) {
+        if (context.executor != null) {
+            List<T> list = evaluator().toList();
+            return list.toArray(generator.apply(list.size()));
+        }
         if (context.fjp != null)
             return context.terminate(generator, stream()::toArray);
         return stream().toArray(generator);
@@ -388,6 +504,8 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
 
     @Override
     public T reduce(T identity, BinaryOperator<T> accumulator) {
+        if (context.executor != null)
+            return evaluator().reduce(identity, accumulator, accumulator);
         if (context.fjp != null)
             return context.terminate(() -> stream().reduce(identity, accumulator));
         return stream().reduce(identity, accumulator);
@@ -395,6 +513,8 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
 
     @Override
     public Optional<T> reduce(BinaryOperator<T> accumulator) {
+        if (context.executor != null)
+            return evaluator().reduce(accumulator);
         if (context.fjp != null)
             return context.terminate(accumulator, stream()::reduce);
         return stream().reduce(accumulator);
@@ -402,6 +522,8 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
 
     @Override
     public <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
+        if (context.executor != null)
+            return evaluator().reduce(identity, accumulator, combiner);
         if (context.fjp != null)
             return context.terminate(() -> stream().reduce(identity, accumulator, combiner));
         return stream().reduce(identity, accumulator, combiner);
@@ -409,6 +531,11 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
 
     @Override
     public <R> R collect(Supplier<R> supplier, BiConsumer<R, ? super T> accumulator, BiConsumer<R, R> combiner) {
+        if (context.executor != null)
+            return evaluator().collect(supplier, accumulator, (a, b) -> {
+                combiner.accept(a, b);
+                return a;
+            });
         if (context.fjp != null)
             return context.terminate(() -> stream().collect(supplier, accumulator, combiner));
         return stream().collect(supplier, accumulator, combiner);
@@ -428,21 +555,35 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
         if (finished != null) {
             BiConsumer<A, ? super T> acc = collector.accumulator();
             BinaryOperator<A> combiner = collector.combiner();
+            // no intermediate operations: the source spliterator is used as is
+            boolean direct = this.spliterator != null;
             Spliterator<T> spliterator = spliterator();
             if (!isParallel()) {
                 A a = collector.supplier().get();
                 if (!finished.test(a)) {
-                    try {
-                        // forEachRemaining can be much faster
-                        // and take much less memory than tryAdvance for certain
-                        // spliterators
-                        spliterator.forEachRemaining(e -> {
-                            acc.accept(a, e);
-                            if (finished.test(a))
-                                throw new CancelException();
-                        });
-                    } catch (CancelException ex) {
-                        // ignore
+                    if (direct || spliterator.hasCharacteristics(Spliterator.SIZED)) {
+                        // Source spliterator or pipeline of known size (thus
+                        // without flatMap or filter) advances element by
+                        // element without buffering, so checking the
+                        // predicate after every element is cheaper than
+                        // unwinding the stack via exception
+                        Consumer<T> action = e -> acc.accept(a, e);
+                        while (spliterator.tryAdvance(action) && !finished.test(a)) {
+                            // continue
+                        }
+                    } else {
+                        try {
+                            // forEachRemaining can be much faster
+                            // and take much less memory than tryAdvance for certain
+                            // spliterators
+                            spliterator.forEachRemaining(e -> {
+                                acc.accept(a, e);
+                                if (finished.test(a))
+                                    throw new CancelException();
+                            });
+                        } catch (CancelException ex) {
+                            // ignore
+                        }
                     }
                 }
                 return collector.finisher().apply(a);
@@ -458,6 +599,8 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
             return collector.finisher().apply(
                 new StreamEx<>(StreamSupport.stream(spltr, true), context).findFirst().get());
         }
+        if (isParallel())
+            return rawCollect(Limiter.forParallel(collector));
         return rawCollect(collector);
     }
 
@@ -473,6 +616,8 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
 
     @Override
     public long count() {
+        if (context.executor != null)
+            return evaluator().count();
         if (context.fjp != null)
             return context.terminate(stream()::count);
         return stream().count();
@@ -480,6 +625,8 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
 
     @Override
     public boolean anyMatch(Predicate<? super T> predicate) {
+        if (context.executor != null)
+            return evaluator().anyMatch(predicate);
         if (context.fjp != null)
             return context.terminate(predicate, stream()::anyMatch);
         return stream().anyMatch(predicate);
@@ -487,6 +634,8 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
 
     @Override
     public boolean allMatch(Predicate<? super T> predicate) {
+        if (context.executor != null)
+            return !evaluator().anyMatch(predicate.negate());
         if (context.fjp != null)
             return context.terminate(predicate, stream()::allMatch);
         return stream().allMatch(predicate);
@@ -499,6 +648,8 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
 
     @Override
     public Optional<T> findFirst() {
+        if (context.executor != null)
+            return evaluator().findFirst();
         if (context.fjp != null)
             return context.terminate(stream()::findFirst);
         return stream().findFirst();
@@ -506,6 +657,8 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
 
     @Override
     public Optional<T> findAny() {
+        if (context.executor != null)
+            return evaluator().findAny();
         if (context.fjp != null)
             return context.terminate(stream()::findAny);
         return stream().findAny();
@@ -728,7 +881,8 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * @return the new stream
      */
     public <V extends Comparable<? super V>> S sortedBy(Function<? super T, ? extends V> keyExtractor) {
-        return sorted(Comparator.comparing(keyExtractor));
+        return supply(stream().map(t -> new PairBox<T, V>(t, keyExtractor.apply(t))).sorted(
+            (b1, b2) -> b1.b.compareTo(b2.b)).map(box -> box.a));
     }
 
     /**
@@ -750,7 +904,7 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * @return the new stream
      */
     public S sortedByInt(ToIntFunction<? super T> keyExtractor) {
-        return sorted(Comparator.comparingInt(keyExtractor));
+        return supply(new KeySortSpliterator<>(spliterator(), keyExtractor::applyAsInt, true, false));
     }
 
     /**
@@ -772,7 +926,7 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * @return the new stream
      */
     public S sortedByLong(ToLongFunction<? super T> keyExtractor) {
-        return sorted(Comparator.comparingLong(keyExtractor));
+        return supply(new KeySortSpliterator<>(spliterator(), keyExtractor, false, false));
     }
 
     /**
@@ -794,7 +948,66 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * @return the new stream
      */
     public S sortedByDouble(ToDoubleFunction<? super T> keyExtractor) {
-        return sorted(Comparator.comparingDouble(keyExtractor));
+        return supply(new KeySortSpliterator<>(spliterator(), t -> sortableBits(keyExtractor.applyAsDouble(t)), false,
+                false));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream, sorted
+     * according to the int values extracted by provided function. The result
+     * is the same as for {@link #sortedByInt(ToIntFunction)}, but the big
+     * inputs are sorted using the radix sort which is usually several times
+     * faster than the comparison sort, though requires more temporary memory.
+     * If the stream is parallel, the most significant digit is processed first
+     * and the resulting buckets are sorted in parallel.
+     *
+     * <p>
+     * For ordered streams, the sort is stable. For unordered streams, no
+     * stability guarantees are made.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">stateful intermediate
+     * operation</a>.
+     *
+     * @param keyExtractor a <a
+     *        href="package-summary.html#NonInterference">non-interfering </a>,
+     *        <a href="package-summary.html#Statelessness">stateless</a>
+     *        function to be used to extract sorting keys
+     * @return the new stream
+     * @see #sortedByInt(ToIntFunction)
+     * @since 0.6.2
+     */
+    public S radixSortedByInt(ToIntFunction<? super T> keyExtractor) {
+        return supply(new KeySortSpliterator<>(spliterator(), keyExtractor::applyAsInt, true, true));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream, sorted
+     * according to the long values extracted by provided function. The result
+     * is the same as for {@link #sortedByLong(ToLongFunction)}, but the big
+     * inputs are sorted using the radix sort which is usually several times
+     * faster than the comparison sort, though requires more temporary memory.
+     * If the stream is parallel, the most significant digit is processed first
+     * and the resulting buckets are sorted in parallel.
+     *
+     * <p>
+     * For ordered streams, the sort is stable. For unordered streams, no
+     * stability guarantees are made.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">stateful intermediate
+     * operation</a>.
+     *
+     * @param keyExtractor a <a
+     *        href="package-summary.html#NonInterference">non-interfering </a>,
+     *        <a href="package-summary.html#Statelessness">stateless</a>
+     *        function to be used to extract sorting keys
+     * @return the new stream
+     * @see #sortedByLong(ToLongFunction)
+     * @since 0.6.2
+     */
+    public S radixSortedByLong(ToLongFunction<? super T> keyExtractor) {
+        return supply(new KeySortSpliterator<>(spliterator(), keyExtractor, false, true));
     }
 
     /**
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * Iterator over the elements which are produced by the source spliterator
+ * traversed in the background task.
+ *
+ * <p>
+ * The elements are handed over via the bounded single-producer
+ * single-consumer ring buffer. Both sides keep the private copies of the
+ * indices and access the shared ones only when the private view is exhausted:
+ * the consumer drains all the elements published so far without touching the
+ * shared tail and publishes its head once per batch, while the producer
+ * re-reads the shared head only when the buffer looks full. The waiting side
+ * spins for a while, then parks until notified.
+ *
+ * <p>
+ * The producer stops when the consumer is cancelled (the stream is closed)
+ * or becomes unreachable, so abandoned streams do not block the producer
+ * threads forever.
+ *
+ * @author Tagir Valeev
+ * @param <T> the type of the elements
+ */
+/* package */final class AsyncIterator<T> implements Iterator<T> {
+    static final int MAX_BUFFER_SIZE = 1 << 30;
+    static final Executor NEW_THREAD = r -> {
+        Thread thread = new Thread(r, "StreamEx-async");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    private static final int SPINS = 1 << 6;
+    // bounds the wake-up latency should the notification be missed
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Channel<T> channel;
+    private final Executor executor;
+    private boolean started;
+    private long head, tail, publishedHead;
+
+    AsyncIterator(Spliterator<T> source, int bufferSize, Executor executor) {
+        this.channel = new Channel<>(source, bufferSize, this);
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return head != tail || await();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        return take();
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        while (head != tail || await()) {
+            action.accept(take());
+        }
+    }
+
+    void cancel() {
+        channel.cancelled = true;
+        unpark(channel.producerWaiting);
+    }
+
+    private T take() {
+        Channel<T> c = channel;
+        int i = (int) head & c.mask;
+        @SuppressWarnings("unchecked")
+        T t = (T) c.items[i];
+        c.items[i] = null;
+        if (++head - publishedHead >= c.batch) {
+            c.head.lazySet(publishedHead = head);
+            unpark(c.producerWaiting);
+        }
+        return t;
+    }
+
+    private boolean await() {
+        Channel<T> c = channel;
+        if (!started) {
+            executor.execute(c);
+            started = true;
+        }
+        if (publishedHead != head) {
+            c.head.set(publishedHead = head);
+            unpark(c.producerWaiting);
+        }
+        for (int spins = 0;; spins++) {
+            long t = c.tail.get();
+            if (t != head) {
+                tail = t;
+                return true;
+            }
+            if (c.done) {
+                t = c.tail.get();
+                if (t != head) {
+                    tail = t;
+                    return true;
+                }
+                Throwable error = c.error;
+                if (error == null)
+                    return false;
+                if (error instanceof RuntimeException)
+                    throw (RuntimeException) error;
+                if (error instanceof Error)
+                    throw (Error) error;
+                throw new CompletionException(error);
+            }
+            if (spins < SPINS) {
+                Thread.yield();
+            } else {
+                c.consumerWaiting = Thread.currentThread();
+                if (c.tail.get() == head && !c.done)
+                    LockSupport.parkNanos(c, PARK_NANOS);
+                c.consumerWaiting = null;
+            }
+        }
+    }
+
+    static void unpark(Thread thread) {
+        if (thread != null)
+            LockSupport.unpark(thread);
+    }
+
+    /**
+     * Shared state of the ring buffer and the producer task. Must not refer
+     * to the consumer iterator to detect when it becomes unreachable.
+     */
+    static final class Channel<T> implements Runnable, Consumer<T> {
+        final Object[] items;
+        final int mask, capacity, batch;
+        final AtomicLong head = new AtomicLong(), tail = new AtomicLong();
+        final WeakReference<AsyncIterator<T>> owner;
+        volatile boolean done, cancelled;
+        volatile Throwable error;
+        volatile Thread consumerWaiting, producerWaiting;
+        private Spliterator<T> source;
+        // producer-local view of the indices
+        private long next, cachedHead;
+
+        Channel(Spliterator<T> source, int bufferSize, AsyncIterator<T> owner) {
+            this.source = source;
+            this.owner = new WeakReference<>(owner);
+            this.capacity = bufferSize;
+            this.items = new Object[bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1];
+            this.mask = items.length - 1;
+            this.batch = Math.max(1, bufferSize >> 2);
+        }
+
+        @Override
+        public void run() {
+            Spliterator<T> s = source;
+            source = null;
+            try {
+                if (!cancelled)
+                    s.forEachRemaining(this);
+            } catch (CancelException ex) {
+                // ignore
+            } catch (Throwable t) {
+                if (!cancelled)
+                    error = t;
+            } finally {
+                done = true;
+                unpark(consumerWaiting);
+            }
+        }
+
+        @Override
+        public void accept(T t) {
+            if (cancelled)
+                throw new CancelException();
+            long n = next;
+            if (n - cachedHead == capacity)
+                awaitSpace(n);
+            items[(int) n & mask] = t;
+            tail.lazySet(next = n + 1);
+            unpark(consumerWaiting);
+        }
+
+        private void awaitSpace(long n) {
+            for (int spins = 0; n - (cachedHead = head.get()) == capacity; spins++) {
+                if (cancelled)
+                    throw new CancelException();
+                if (spins < SPINS) {
+                    Thread.yield();
+                } else {
+                    producerWaiting = Thread.currentThread();
+                    if (n - head.get() == capacity && !cancelled) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                        if (owner.get() == null)
+                            cancelled = true;
+                    }
+                    producerWaiting = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Spliterator which maps the source elements to the {@link CompletableFuture}
+ * results keeping at most {@code maxInFlight} of them uncompleted. The
+ * futures are queued in the encounter order; the head future is awaited only
+ * after the queue is refilled from the source, so the source is consumed as
+ * the results are consumed while up to {@code maxInFlight} of them are
+ * computed concurrently.
+ *
+ * @author Tagir Valeev
+ */
+/* package */final class AsyncMapSpliterator<T, R> implements Spliterator<R>, Consumer<T> {
+    private final Spliterator<T> source;
+    private final Function<? super T, ? extends CompletableFuture<? extends R>> mapper;
+    private final int maxInFlight;
+    private final ArrayDeque<CompletableFuture<? extends R>> inFlight = new ArrayDeque<>();
+    private boolean exhausted;
+
+    AsyncMapSpliterator(Spliterator<T> source, Function<? super T, ? extends CompletableFuture<? extends R>> mapper,
+            int maxInFlight) {
+        this.source = source;
+        this.mapper = mapper;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void accept(T t) {
+        CompletableFuture<? extends R> future = mapper.apply(t);
+        if (future == null)
+            throw new NullPointerException("mapper returned null future");
+        inFlight.add(future);
+    }
+
+    private CompletableFuture<? extends R> next() {
+        while (!exhausted && inFlight.size() < maxInFlight) {
+            exhausted = !source.tryAdvance(this);
+        }
+        return inFlight.poll();
+    }
+
+    private static <R> R await(CompletableFuture<? extends R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        CompletableFuture<? extends R> future = next();
+        if (future == null)
+            return false;
+        action.accept(await(future));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super R> action) {
+        CompletableFuture<? extends R> future;
+        while ((future = next()) != null) {
+            action.accept(await(future));
+        }
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = exhausted ? 0 : source.estimateSize();
+        return size == Long.MAX_VALUE ? size : size + inFlight.size();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & (ORDERED | SIZED);
+    }
+
+    /**
+     * Cancels the futures which results were not consumed.
+     */
+    void cancel() {
+        CompletableFuture<? extends R> future;
+        while ((future = inFlight.poll()) != null) {
+            future.cancel(true);
+        }
+    }
+}
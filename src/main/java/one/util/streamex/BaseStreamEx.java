@@ -84,9 +84,10 @@ import java.util.stream.BaseStream;
      * {@inheritDoc}
      * 
      * <p>
-     * If this stream was created using {@link #parallel(ForkJoinPool)}, the new
-     * stream forgets about supplied custom {@link ForkJoinPool} and its
-     * terminal operation will be executed in common pool.
+     * If this stream was created using {@link #parallel(ForkJoinPool)} (or
+     * {@code parallel(Executor)}), the new stream forgets about supplied custom
+     * {@link ForkJoinPool} (or executor) and its terminal operation will be
+     * executed in common pool.
      */
     @SuppressWarnings("unchecked")
     @Override
@@ -110,7 +111,8 @@ import java.util.stream.BaseStream;
      * streams created via {@link #parallel()} or {@link #sequential()} methods)
      * will be executed inside the supplied {@code ForkJoinPool}. If current
      * thread does not belong to that pool, it will wait till calculation
-     * finishes.
+     * finishes. Otherwise the terminal operation is executed directly in the
+     * current thread without additional task submission.
      *
      * @param fjp a {@code ForkJoinPool} to submit the stream operation to.
      * @return a parallel stream bound to the supplied {@code ForkJoinPool}
@@ -119,6 +121,8 @@ import java.util.stream.BaseStream;
     @SuppressWarnings("unchecked")
     public S parallel(ForkJoinPool fjp) {
         context = context.parallel(fjp);
+        if (stream != null)
+            stream = stream.parallel();
         return (S) this;
     }
 
@@ -24,9 +24,23 @@ import java.util.function.Function;
 
 import static one.util.streamex.StreamExInternals.*;
 
+/**
+ * Spliterator which merges the adjacent elements of the source.
+ *
+ * <p>
+ * Adjacent splits are linked via {@code Connector} objects which hold the
+ * partial group crossing the split boundary. Every connector is used as the
+ * lock for its own fields and for the {@code left}/{@code right} fields of the
+ * spliterators which currently point to it, so the boundaries are handed off
+ * independently. When both connectors of the spliterator are necessary, the
+ * left one is always locked first, so no deadlock may occur. As the connector
+ * field may be changed by the neighbor until the lock is taken, it's read
+ * again under the lock and the operation is retried if it was changed.
+ *
+ * @author Tagir Valeev
+ */
 /* package */final class CollapseSpliterator<T, R> extends Box<T> implements Spliterator<R> {
     private final Spliterator<T> source;
-    private final CollapseSpliterator<T, R> root; // used as lock
     private R acc;
     volatile Connector<T, R> left;
     volatile Connector<T, R> right;
@@ -71,18 +85,16 @@ import static one.util.streamex.StreamExInternals.*;
         this.mapper = mapper;
         this.accumulator = accumulator;
         this.combiner = combiner;
-        this.root = this;
     }
 
-    private CollapseSpliterator(CollapseSpliterator<T, R> root, Spliterator<T> source, Connector<T, R> left,
+    private CollapseSpliterator(CollapseSpliterator<T, R> parent, Spliterator<T> source, Connector<T, R> left,
             Connector<T, R> right) {
         super(none());
         this.source = source;
-        this.root = root;
-        this.mergeable = root.mergeable;
-        this.mapper = root.mapper;
-        this.accumulator = root.accumulator;
-        this.combiner = root.combiner;
+        this.mergeable = parent.mergeable;
+        this.mapper = parent.mapper;
+        this.accumulator = parent.accumulator;
+        this.combiner = parent.combiner;
         this.left = left;
         this.right = right;
         if (left != null)
@@ -154,14 +166,19 @@ import static one.util.streamex.StreamExInternals.*;
     }
 
     private R handleLeft() {
-        synchronized (root) {
+        while (true) {
             Connector<T, R> l = left;
             if (l == null) {
                 return none();
             }
-            if (l.left == NONE && l.right == NONE && l.acc != NONE) {
-                return l.drain();
+            synchronized (l) {
+                if (l != left)
+                    continue;
+                if (l.left == NONE && l.right == NONE && l.acc != NONE) {
+                    return l.drain();
+                }
             }
+            break;
         }
         if (source.tryAdvance(this)) {
             T first = this.a;
@@ -181,156 +198,184 @@ import static one.util.streamex.StreamExInternals.*;
 
     // l + <first|acc|?>
     private R pushLeft(T first, R acc) {
-        synchronized (root) {
+        while (true) {
             Connector<T, R> l = left;
             if (l == null)
                 return acc;
-            left = null;
-            l.rhs = null;
-            T laright = l.right;
-            l.right = none();
-            if (l.acc == NONE) {
-                l.acc = acc;
-                l.left = first;
-                return none();
-            }
-            if (this.mergeable.test(laright, first)) {
-                l.acc = this.combiner.apply(l.acc, acc);
-                return l.drainLeft();
-            }
-            if (l.left == NONE) {
-                left = new Connector<>(null, acc, this);
-                return l.drain();
+            synchronized (l) {
+                if (l != left)
+                    continue;
+                left = null;
+                l.rhs = null;
+                T laright = l.right;
+                l.right = none();
+                if (l.acc == NONE) {
+                    l.acc = acc;
+                    l.left = first;
+                    return none();
+                }
+                if (this.mergeable.test(laright, first)) {
+                    l.acc = this.combiner.apply(l.acc, acc);
+                    return l.drainLeft();
+                }
+                if (l.left == NONE) {
+                    left = new Connector<>(null, acc, this);
+                    return l.drain();
+                }
             }
+            return acc;
         }
-        return acc;
     }
 
     // <?|acc|last> + r
     private R pushRight(R acc, T last) {
         a = none();
-        if (right == null)
-            return acc;
-        synchronized (root) {
+        while (true) {
             Connector<T, R> r = right;
             if (r == null)
                 return acc;
-            right = null;
-            r.lhs = null;
-            T raleft = r.left;
-            r.left = none();
-            if (r.acc == NONE) {
+            synchronized (r) {
+                if (r != right)
+                    continue;
+                right = null;
+                r.lhs = null;
+                T raleft = r.left;
+                r.left = none();
+                if (r.acc == NONE) {
+                    if (acc == NONE) {
+                        r.drain();
+                    } else {
+                        r.acc = acc;
+                        r.right = last;
+                    }
+                    return none();
+                }
                 if (acc == NONE) {
-                    r.drain();
-                } else {
-                    r.acc = acc;
-                    r.right = last;
+                    return r.drainRight();
                 }
-                return none();
-            }
-            if (acc == NONE) {
-                return r.drainRight();
-            }
-            if (mergeable.test(last, raleft)) {
-                r.acc = combiner.apply(acc, r.acc);
-                return r.drainRight();
+                if (mergeable.test(last, raleft)) {
+                    r.acc = combiner.apply(acc, r.acc);
+                    return r.drainRight();
+                }
+                if (r.right == NONE)
+                    right = new Connector<>(this, r.drain(), null);
+                return acc;
             }
-            if (r.right == NONE)
-                right = new Connector<>(this, r.drain(), null);
-            return acc;
         }
     }
 
     // l + <first|acc|last> + r
     private R connectOne(T first, R acc, T last) {
-        synchronized (root) {
+        while (true) {
             Connector<T, R> l = left;
             if (l == null) {
                 return pushRight(acc, last);
             }
-            if (l.acc == NONE) {
-                l.acc = acc;
-                l.left = first;
-                l.right = last;
-                return connectEmpty();
-            }
-            T laright = l.right;
-            if (mergeable.test(laright, first)) {
-                l.acc = combiner.apply(l.acc, acc);
-                l.right = last;
-                return connectEmpty();
-            }
-            left = null;
-            l.rhs = null;
-            l.right = none();
-            if (l.left != NONE) {
-                return pushRight(acc, last);
+            synchronized (l) {
+                if (l != left)
+                    continue;
+                if (l.acc == NONE) {
+                    l.acc = acc;
+                    l.left = first;
+                    l.right = last;
+                    return connectEmpty();
+                }
+                T laright = l.right;
+                if (mergeable.test(laright, first)) {
+                    l.acc = combiner.apply(l.acc, acc);
+                    l.right = last;
+                    return connectEmpty();
+                }
+                left = null;
+                l.rhs = null;
+                l.right = none();
+                if (l.left != NONE) {
+                    return pushRight(acc, last);
+                }
+                acc = pushRight(acc, last);
+                if (acc != NONE)
+                    left = new Connector<>(null, acc, this);
+                return l.drain();
             }
-            acc = pushRight(acc, last);
-            if (acc != NONE)
-                left = new Connector<>(null, acc, this);
-            return l.drain();
         }
     }
 
     // l + r
     private R connectEmpty() {
-        synchronized (root) {
-            Connector<T, R> l = left, r = right;
+        while (true) {
+            Connector<T, R> l = left;
             if (l == null) {
                 return pushRight(none(), none());
             }
-            left = right = null;
-            l.rhs = null;
-            T laright = l.right;
-            l.right = none();
-            if (l.acc == NONE) {
-                if (r == null)
-                    l.drain();
-                else {
-                    if (l.lhs != null) {
-                        l.lhs.right = r;
-                        r.lhs = l.lhs;
+            synchronized (l) {
+                if (l != left)
+                    continue;
+                while (true) {
+                    Connector<T, R> r = right;
+                    if (r == null)
+                        return connectEmpty(l, null);
+                    synchronized (r) {
+                        if (r != right)
+                            continue;
+                        return connectEmpty(l, r);
                     }
                 }
-                return none();
-            }
-            if (r == null) {
-                return l.drainLeft();
             }
-            r.lhs = null;
-            if (r.acc == NONE) {
-                if (r.rhs != null) {
-                    r.rhs.left = l;
-                    l.rhs = r.rhs;
-                    l.right = laright;
+        }
+    }
+
+    // called when both l and r (if not null) are locked
+    private R connectEmpty(Connector<T, R> l, Connector<T, R> r) {
+        left = right = null;
+        l.rhs = null;
+        T laright = l.right;
+        l.right = none();
+        if (l.acc == NONE) {
+            if (r == null)
+                l.drain();
+            else {
+                if (l.lhs != null) {
+                    l.lhs.right = r;
+                    r.lhs = l.lhs;
                 }
-                return none();
             }
-            T raleft = r.left;
-            r.left = none();
-            if (mergeable.test(laright, raleft)) {
-                R acc = combiner.apply(l.acc, r.acc);
-                if (l.left == NONE && r.right == NONE) {
-                    l.drain();
-                    r.drain();
-                    return acc;
-                }
-                l.acc = acc;
-                l.right = r.right;
-                if (r.rhs != null) {
-                    r.rhs.left = l;
-                    l.rhs = r.rhs;
-                }
-                return none();
+            return none();
+        }
+        if (r == null) {
+            return l.drainLeft();
+        }
+        r.lhs = null;
+        if (r.acc == NONE) {
+            if (r.rhs != null) {
+                r.rhs.left = l;
+                l.rhs = r.rhs;
+                l.right = laright;
             }
-            if (l.left == NONE) {
-                if (r.right == NONE)
-                    right = new Connector<>(this, r.drain(), null);
-                return l.drain();
+            return none();
+        }
+        T raleft = r.left;
+        r.left = none();
+        if (mergeable.test(laright, raleft)) {
+            R acc = combiner.apply(l.acc, r.acc);
+            if (l.left == NONE && r.right == NONE) {
+                l.drain();
+                r.drain();
+                return acc;
             }
-            return r.drainRight();
+            l.acc = acc;
+            l.right = r.right;
+            if (r.rhs != null) {
+                r.rhs.left = l;
+                l.rhs = r.rhs;
+            }
+            return none();
         }
+        if (l.left == NONE) {
+            if (r.right == NONE)
+                right = new Connector<>(this, r.drain(), null);
+            return l.drain();
+        }
+        return r.drainRight();
     }
 
     @Override
@@ -339,10 +384,20 @@ import static one.util.streamex.StreamExInternals.*;
         if (prefix == null)
             return null;
         Connector<T, R> newBox = new Connector<>(null, none(), this);
-        synchronized (root) {
-            CollapseSpliterator<T, R> result = new CollapseSpliterator<>(root, prefix, left, newBox);
-            this.left = newBox;
-            return result;
+        while (true) {
+            Connector<T, R> l = left;
+            if (l == null) {
+                CollapseSpliterator<T, R> result = new CollapseSpliterator<>(this, prefix, null, newBox);
+                this.left = newBox;
+                return result;
+            }
+            synchronized (l) {
+                if (l != left)
+                    continue;
+                CollapseSpliterator<T, R> result = new CollapseSpliterator<>(this, prefix, l, newBox);
+                this.left = newBox;
+                return result;
+            }
         }
     }
 
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent open-addressing hash table which maps primitive {@code long}
+ * keys to the counters saturating at the given threshold. Keys and counters
+ * live in the {@link AtomicLongArray}s, so neither keys nor counters are boxed
+ * and no per-entry objects are allocated.
+ *
+ * <p>
+ * The counter slot encodes the state of the entry: {@code FREE} slot is
+ * {@code CLAIMED} by CAS when the new key is inserted, then the key is written
+ * and the counter is published. Existing counters are found without locking
+ * and updated via CAS. The table is resized under the lock: the resizing
+ * thread freezes every slot of the old table (setting the {@code FROZEN} bit),
+ * so the threads which meet the frozen slot wait for the lock and retry in the
+ * new table, thus no update is lost.
+ *
+ * @author Tagir Valeev
+ */
+/* package */final class ConcurrentCounterTable {
+    private static final long FREE = 0;
+    private static final long CLAIMED = -1;
+    private static final long FROZEN = 1L << 62;
+    private static final int MIN_CAPACITY = 16;
+
+    private final long atLeast;
+    private volatile Table table;
+
+    static final class Table {
+        final AtomicLongArray keys;
+        final AtomicLongArray counts;
+        final AtomicInteger size = new AtomicInteger();
+        final int mask;
+
+        Table(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            counts = new AtomicLongArray(capacity);
+            mask = capacity - 1;
+        }
+
+        void put(long key, long count) {
+            int slot = CounterTable.mix(Long.hashCode(key)) & mask;
+            while (counts.get(slot) != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            keys.set(slot, key);
+            counts.set(slot, count);
+            size.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param atLeast the threshold to saturate the counters at
+     * @param expectedSize expected number of distinct keys
+     */
+    ConcurrentCounterTable(long atLeast, int expectedSize) {
+        this.atLeast = atLeast;
+        this.table = new Table(capacity(expectedSize));
+    }
+
+    private static int capacity(int size) {
+        // load factor is at most 1/2
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(size, 1)) << 2);
+    }
+
+    /**
+     * Sets the counter of the absent key. Must not be called concurrently.
+     * 
+     * @param key key to add
+     * @param count initial counter value
+     */
+    void put(long key, long count) {
+        Table t = table;
+        if (t.size.get() >= (t.mask + 1) >> 1) {
+            resize(t);
+            t = table;
+        }
+        t.put(key, Math.min(count, atLeast));
+    }
+
+    /**
+     * Increments the counter unless it already reached the threshold.
+     * 
+     * @param key key which counter should be incremented
+     * @return true if the counter reached the threshold by this call
+     */
+    boolean increment(long key) {
+        outer: while (true) {
+            Table t = table;
+            AtomicLongArray counts = t.counts;
+            int mask = t.mask;
+            int slot = CounterTable.mix(Long.hashCode(key)) & mask;
+            int probes = 0;
+            while (true) {
+                long c = counts.get(slot);
+                if (c == FREE) {
+                    if (t.size.get() >= (mask + 1) >> 1) {
+                        resize(t);
+                        continue outer;
+                    }
+                    if (!counts.compareAndSet(slot, FREE, CLAIMED))
+                        continue; // re-read the same slot
+                    t.keys.set(slot, key);
+                    counts.set(slot, 1);
+                    t.size.incrementAndGet();
+                    return atLeast == 1;
+                }
+                if (c == CLAIMED) {
+                    // the key is being written by other thread
+                    Thread.yield();
+                    continue;
+                }
+                if ((c & FROZEN) != 0) {
+                    awaitResize();
+                    continue outer;
+                }
+                if (t.keys.get(slot) == key) {
+                    while (c < atLeast) {
+                        if (counts.compareAndSet(slot, c, c + 1))
+                            return c + 1 == atLeast;
+                        c = counts.get(slot);
+                        if ((c & FROZEN) != 0) {
+                            awaitResize();
+                            continue outer;
+                        }
+                    }
+                    return false;
+                }
+                if (++probes > mask) {
+                    resize(t);
+                    continue outer;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+
+    private synchronized void awaitResize() {
+        // the resizing thread holds the lock
+    }
+
+    private synchronized void resize(Table t) {
+        if (table != t)
+            return;
+        Table next = new Table((t.mask + 1) << 1);
+        AtomicLongArray counts = t.counts;
+        for (int slot = 0; slot <= t.mask; slot++) {
+            long c;
+            while (true) {
+                c = counts.get(slot);
+                if (c == CLAIMED) {
+                    Thread.yield();
+                } else if (counts.compareAndSet(slot, c, c | FROZEN)) {
+                    break;
+                }
+            }
+            if (c != FREE)
+                next.put(t.keys.get(slot), c);
+        }
+        table = next;
+    }
+}
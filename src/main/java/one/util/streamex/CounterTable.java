@@ -0,0 +1,233 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Open-addressing hash table which maps keys to primitive {@code long}
+ * counters. Entries are stored densely in the insertion order (keys, hashes
+ * and counts live in the parallel arrays), while the power-of-two slot array
+ * keeps entry indexes for linear probing. Unlike {@code HashMap<T, Long>} no
+ * per-entry objects are allocated and primitive keys are not boxed.
+ *
+ * <p>
+ * The table is not thread-safe.
+ *
+ * @author Tagir Valeev
+ */
+/* package */abstract class CounterTable {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // entry index + 1 or 0 for the free slot; always twice as long as counts
+    int[] slots = new int[INITIAL_CAPACITY * 2];
+    int[] hashes = new int[INITIAL_CAPACITY];
+    long[] counts = new long[INITIAL_CAPACITY];
+    int size;
+
+    abstract void growKeys(int capacity);
+
+    /**
+     * @return number of distinct keys in this table
+     */
+    int size() {
+        return size;
+    }
+
+    long countAt(int entry) {
+        return counts[entry];
+    }
+
+    /**
+     * Registers a new entry with given hash which must be absent in the table.
+     *
+     * @param hash key hash
+     * @param slot free slot found during the lookup
+     * @return the index of the new entry
+     */
+    int newEntry(int hash, int slot) {
+        int entry = size++;
+        if (entry == counts.length) {
+            int capacity = entry * 2;
+            counts = Arrays.copyOf(counts, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            growKeys(capacity);
+            slots = new int[capacity * 2];
+            int mask = slots.length - 1;
+            for (int i = 0; i < entry; i++) {
+                slots[freeSlot(hashes[i], mask)] = i + 1;
+            }
+            slot = freeSlot(hash, mask);
+        }
+        hashes[entry] = hash;
+        slots[slot] = entry + 1;
+        return entry;
+    }
+
+    private int freeSlot(int hash, int mask) {
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static final class OfInt extends CounterTable {
+        int[] keys = new int[INITIAL_CAPACITY];
+
+        @Override
+        void growKeys(int capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+        }
+
+        int keyAt(int entry) {
+            return keys[entry];
+        }
+
+        long add(int key, long delta) {
+            int hash = mix(key);
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            int e;
+            while ((e = slots[slot]) != 0) {
+                if (keys[e - 1] == key)
+                    return counts[e - 1] += delta;
+                slot = (slot + 1) & mask;
+            }
+            e = newEntry(hash, slot);
+            keys[e] = key;
+            return counts[e] = delta;
+        }
+
+        long increment(int key) {
+            return add(key, 1);
+        }
+
+        long get(int key) {
+            int mask = slots.length - 1;
+            int slot = mix(key) & mask;
+            int e;
+            while ((e = slots[slot]) != 0) {
+                if (keys[e - 1] == key)
+                    return counts[e - 1];
+                slot = (slot + 1) & mask;
+            }
+            return 0;
+        }
+    }
+
+    static final class OfLong extends CounterTable {
+        long[] keys = new long[INITIAL_CAPACITY];
+
+        @Override
+        void growKeys(int capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+        }
+
+        long keyAt(int entry) {
+            return keys[entry];
+        }
+
+        long add(long key, long delta) {
+            int hash = mix(Long.hashCode(key));
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            int e;
+            while ((e = slots[slot]) != 0) {
+                if (keys[e - 1] == key)
+                    return counts[e - 1] += delta;
+                slot = (slot + 1) & mask;
+            }
+            e = newEntry(hash, slot);
+            keys[e] = key;
+            return counts[e] = delta;
+        }
+
+        long increment(long key) {
+            return add(key, 1);
+        }
+
+        long get(long key) {
+            int mask = slots.length - 1;
+            int slot = mix(Long.hashCode(key)) & mask;
+            int e;
+            while ((e = slots[slot]) != 0) {
+                if (keys[e - 1] == key)
+                    return counts[e - 1];
+                slot = (slot + 1) & mask;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Table with object keys compared via {@link Object#equals(Object)}. The
+     * {@code null} key is supported.
+     *
+     * @param <T> type of the keys
+     */
+    static final class OfRef<T> extends CounterTable {
+        Object[] keys = new Object[INITIAL_CAPACITY];
+
+        @Override
+        void growKeys(int capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+        }
+
+        @SuppressWarnings("unchecked")
+        T keyAt(int entry) {
+            return (T) keys[entry];
+        }
+
+        long add(T key, long delta) {
+            int hash = mix(Objects.hashCode(key));
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            int e;
+            while ((e = slots[slot]) != 0) {
+                if (hashes[e - 1] == hash && Objects.equals(keys[e - 1], key))
+                    return counts[e - 1] += delta;
+                slot = (slot + 1) & mask;
+            }
+            e = newEntry(hash, slot);
+            keys[e] = key;
+            return counts[e] = delta;
+        }
+
+        long increment(T key) {
+            return add(key, 1);
+        }
+
+        long get(T key) {
+            int hash = mix(Objects.hashCode(key));
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            int e;
+            while ((e = slots[slot]) != 0) {
+                if (hashes[e - 1] == hash && Objects.equals(keys[e - 1], key))
+                    return counts[e - 1];
+                slot = (slot + 1) & mask;
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A reusable set of already seen keys which can be used to remove the
+ * duplicates across several streams via
+ * {@link AbstractStreamEx#distinct(DistinctFilter)} or
+ * {@link AbstractStreamEx#distinct(java.util.function.Function, DistinctFilter)}.
+ * Unlike {@link AbstractStreamEx#distinct(java.util.function.Function)} the
+ * seen keys are not forgotten when the stream is finished, so the next stream
+ * filtered by the same {@code DistinctFilter} skips the keys already seen by
+ * the previous ones:
+ * 
+ * <pre>{@code
+ * DistinctFilter<String> seen = DistinctFilter.expireAfter(1, TimeUnit.HOURS);
+ * for (Path batch : batches) {
+ *     StreamEx.ofLines(batch).distinct(line -> line.split(",")[0], seen).forEach(this::ingest);
+ * }
+ * }</pre>
+ * 
+ * <p>
+ * The memory can be bounded either by the maximal number of keys (see
+ * {@link #lru(int)}) or by the time the key is remembered (see
+ * {@link #expireAfter(long, TimeUnit)}). All the filters are thread-safe, so
+ * they can be used with parallel streams and shared between the streams
+ * processed concurrently. The {@code null} key is supported.
+ * 
+ * @author Tagir Valeev
+ *
+ * @param <K> the type of the keys
+ * @since 0.6.2
+ */
+public abstract class DistinctFilter<K> {
+    private static final Object NULL = new Object();
+    private static final int MAX_SEGMENTS = 64;
+
+    DistinctFilter() {
+    }
+
+    /**
+     * Remembers the key if it's not remembered yet.
+     * 
+     * @param key key to test
+     * @return true if the key was not remembered by this filter before (so the
+     *         corresponding element is distinct and should be kept), false if
+     *         it's a duplicate
+     */
+    public abstract boolean add(K key);
+
+    /**
+     * Returns the number of keys currently remembered by this filter.
+     * 
+     * @return the number of remembered keys
+     */
+    public abstract int size();
+
+    /**
+     * Forgets all the remembered keys.
+     */
+    public abstract void clear();
+
+    static Object mask(Object key) {
+        return key == null ? NULL : key;
+    }
+
+    /**
+     * Returns a new {@code DistinctFilter} which remembers all the keys
+     * without bound. It's backed by the concurrent hash set, so it scales well
+     * in parallel streams.
+     * 
+     * @param <K> the type of the keys
+     * @return a new {@code DistinctFilter}
+     */
+    public static <K> DistinctFilter<K> unbounded() {
+        return new Unbounded<>();
+    }
+
+    /**
+     * Returns a new {@code DistinctFilter} which remembers at most
+     * {@code maxSize} keys. When the new key is added to the full filter, the
+     * least recently seen key is forgotten (the key is considered seen when
+     * it's added and every time its duplicate is encountered).
+     * 
+     * <p>
+     * The eviction order is exact, as all the keys are guarded by the single
+     * lock. Use {@link #lru(int, int)} for the better scalability in parallel
+     * streams.
+     * 
+     * @param <K> the type of the keys
+     * @param maxSize maximal number of keys to remember, must be positive
+     * @return a new {@code DistinctFilter}
+     * @throws IllegalArgumentException if maxSize is not positive
+     */
+    public static <K> DistinctFilter<K> lru(int maxSize) {
+        return lru(maxSize, 1);
+    }
+
+    /**
+     * Returns a new {@code DistinctFilter} which remembers at most
+     * {@code maxSize} keys evicting the least recently seen ones. The keys are
+     * distributed by their hash codes among {@code concurrencyLevel} segments
+     * guarded by the separate locks, so the filter scales better in parallel
+     * streams. The eviction order is maintained per segment, thus every
+     * segment holds at most {@code maxSize / concurrencyLevel} keys (rounded
+     * up) and the key might be evicted before the filter is full if the keys
+     * are distributed unevenly.
+     * 
+     * @param <K> the type of the keys
+     * @param maxSize maximal number of keys to remember, must be positive
+     * @param concurrencyLevel the number of segments, must be positive; it's
+     *        rounded to the power of two not exceeding {@code maxSize} and
+     *        {@code 64}
+     * @return a new {@code DistinctFilter}
+     * @throws IllegalArgumentException if maxSize or concurrencyLevel is not
+     *         positive
+     */
+    public static <K> DistinctFilter<K> lru(int maxSize, int concurrencyLevel) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("maxSize = " + maxSize);
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException("concurrencyLevel = " + concurrencyLevel);
+        int segments = Integer.highestOneBit(Math.min(Math.min(concurrencyLevel, maxSize), MAX_SEGMENTS));
+        int capacity = (maxSize - 1) / segments + 1;
+        Segment[] array = new Segment[segments];
+        for (int i = 0; i < segments; i++) {
+            array[i] = new LruSegment(capacity);
+        }
+        return new Segmented<>(array);
+    }
+
+    /**
+     * Returns a new {@code DistinctFilter} which forgets every key after the
+     * specified time passes since the key was added. Duplicates encountered
+     * during this period don't prolong it, so every key is accepted at most
+     * once per period.
+     * 
+     * <p>
+     * The expired keys are removed when the new keys are added, so the
+     * memory is bounded by the number of distinct keys seen during the
+     * period. The keys are distributed among several segments guarded by the
+     * separate locks, so the filter scales well in parallel streams.
+     * 
+     * @param <K> the type of the keys
+     * @param duration the time to remember every key, must be positive
+     * @param unit the unit of the duration
+     * @return a new {@code DistinctFilter}
+     * @throws IllegalArgumentException if duration is not positive
+     */
+    public static <K> DistinctFilter<K> expireAfter(long duration, TimeUnit unit) {
+        return expireAfter(unit.toNanos(duration), System::nanoTime);
+    }
+
+    static <K> DistinctFilter<K> expireAfter(long nanos, LongSupplier ticker) {
+        if (nanos <= 0)
+            throw new IllegalArgumentException("duration = " + nanos + "ns");
+        int segments = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 4);
+        Segment[] array = new Segment[segments];
+        for (int i = 0; i < segments; i++) {
+            array[i] = new ExpiringSegment(nanos, ticker);
+        }
+        return new Segmented<>(array);
+    }
+
+    private static final class Unbounded<K> extends DistinctFilter<K> {
+        private final Set<Object> keys = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean add(K key) {
+            return keys.add(mask(key));
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+
+        @Override
+        public void clear() {
+            keys.clear();
+        }
+    }
+
+    private static abstract class Segment {
+        abstract boolean add(Object key);
+
+        abstract int size();
+
+        abstract void clear();
+    }
+
+    private static final class LruSegment extends Segment {
+        private final Map<Object, Boolean> map;
+
+        LruSegment(int capacity) {
+            this.map = new LinkedHashMap<Object, Boolean>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Entry<Object, Boolean> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        @Override
+        synchronized boolean add(Object key) {
+            // get() moves the existing key to the most recently used position
+            return map.get(key) == null && map.put(key, Boolean.TRUE) == null;
+        }
+
+        @Override
+        synchronized int size() {
+            return map.size();
+        }
+
+        @Override
+        synchronized void clear() {
+            map.clear();
+        }
+    }
+
+    private static final class ExpiringSegment extends Segment {
+        // insertion order which is also the order of the timestamps as the
+        // time is read under the lock
+        private final Map<Object, Long> map = new LinkedHashMap<>();
+        private final long nanos;
+        private final LongSupplier ticker;
+
+        ExpiringSegment(long nanos, LongSupplier ticker) {
+            this.nanos = nanos;
+            this.ticker = ticker;
+        }
+
+        private void expire(long now) {
+            Iterator<Long> it = map.values().iterator();
+            while (it.hasNext() && now - it.next() >= nanos) {
+                it.remove();
+            }
+        }
+
+        @Override
+        synchronized boolean add(Object key) {
+            long now = ticker.getAsLong();
+            expire(now);
+            if (map.containsKey(key))
+                return false;
+            map.put(key, now);
+            return true;
+        }
+
+        @Override
+        synchronized int size() {
+            expire(ticker.getAsLong());
+            return map.size();
+        }
+
+        @Override
+        synchronized void clear() {
+            map.clear();
+        }
+    }
+
+    private static final class Segmented<K> extends DistinctFilter<K> {
+        private final Segment[] segments;
+
+        Segmented(Segment[] segments) {
+            this.segments = segments;
+        }
+
+        @Override
+        public boolean add(K key) {
+            Object k = mask(key);
+            return segments[CounterTable.mix(k.hashCode()) & (segments.length - 1)].add(k);
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (Segment segment : segments) {
+                size += segment.size();
+            }
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            for (Segment segment : segments) {
+                segment.clear();
+            }
+        }
+    }
+}
@@ -16,22 +16,39 @@
 package one.util.streamex;
 
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Spliterator;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 
 import static one.util.streamex.StreamExInternals.*;
 
+/**
+ * Selects the elements which appear at least {@code atLeast} times.
+ *
+ * <p>
+ * Sequentially the occurrences are counted in the {@link CounterTable}. When
+ * the spliterator is split, all the splits share a {@link ConcurrentHashMap} of
+ * {@link AtomicLong} counters and emit the element as soon as its counter
+ * reaches {@code atLeast}. Existing counters are found without locking and
+ * updated via CAS; the counter which reached {@code atLeast} is not updated
+ * anymore, so frequent elements are only read by the competing threads.
+ * Primitive specializations share a {@link ConcurrentCounterTable} instead, so
+ * the parallel counting does not box the keys.
+ *
+ * @author Tagir Valeev
+ */
 /* package */final class DistinctSpliterator<T> extends Box<T> implements Spliterator<T> {
     private final Spliterator<T> source;
     private AtomicLong nullCounter;
-    private Map<T, Long> counts;
+    private Map<T, AtomicLong> counts;
+    private CounterTable.OfRef<T> table;
     private final long atLeast;
 
-    DistinctSpliterator(Spliterator<T> source, long atLeast, AtomicLong nullCounter, Map<T, Long> counts) {
+    DistinctSpliterator(Spliterator<T> source, long atLeast, AtomicLong nullCounter, Map<T, AtomicLong> counts) {
         this.source = source;
         this.atLeast = atLeast;
         this.nullCounter = nullCounter;
@@ -39,22 +56,22 @@ import static one.util.streamex.StreamExInternals.*;
     }
 
     DistinctSpliterator(Spliterator<T> source, long atLeast) {
-        this(source, atLeast, null, new HashMap<>());
+        this(source, atLeast, null, null);
+        this.table = new CounterTable.OfRef<>();
     }
 
     @Override
     public boolean tryAdvance(Consumer<? super T> action) {
-        if (nullCounter == null) {
+        if (table != null) {
             while (source.tryAdvance(this)) {
-                if (counts.merge(a, 1L, Long::sum) == atLeast) {
+                if (table.increment(a) == atLeast) {
                     action.accept(a);
                     return true;
                 }
             }
         } else {
             while (source.tryAdvance(this)) {
-                long count = a == null ? nullCounter.incrementAndGet() : counts.merge(a, 1L, Long::sum);
-                if (count == atLeast) {
+                if (a == null ? increment(nullCounter, atLeast) : increment(counts, a, atLeast)) {
                     action.accept(a);
                     return true;
                 }
@@ -65,16 +82,16 @@ import static one.util.streamex.StreamExInternals.*;
 
     @Override
     public void forEachRemaining(Consumer<? super T> action) {
-        if (nullCounter == null) {
+        if (table != null) {
+            CounterTable.OfRef<T> table = this.table;
             source.forEachRemaining(e -> {
-                if (counts.merge(e, 1L, Long::sum) == atLeast) {
+                if (table.increment(e) == atLeast) {
                     action.accept(e);
                 }
             });
         } else {
             source.forEachRemaining(e -> {
-                long count = e == null ? nullCounter.incrementAndGet() : counts.merge(e, 1L, Long::sum);
-                if (count == atLeast) {
+                if (e == null ? increment(nullCounter, atLeast) : increment(counts, e, atLeast)) {
                     action.accept(e);
                 }
             });
@@ -83,19 +100,48 @@ import static one.util.streamex.StreamExInternals.*;
 
     @Override
     public Spliterator<T> trySplit() {
+        if (table != null) {
+            Spliterator<T> split = source.trySplit();
+            if (split == null)
+                return null;
+            counts = new ConcurrentHashMap<>();
+            nullCounter = new AtomicLong(source.hasCharacteristics(NONNULL) ? 0 : table.get(null));
+            for (int i = 0; i < table.size(); i++) {
+                T key = table.keyAt(i);
+                if (key != null)
+                    counts.put(key, new AtomicLong(table.countAt(i)));
+            }
+            table = null;
+            return new DistinctSpliterator<>(split, atLeast, nullCounter, counts);
+        }
         Spliterator<T> split = source.trySplit();
         if (split == null)
             return null;
-        if (counts.getClass() == HashMap.class) {
-            if (!source.hasCharacteristics(NONNULL)) {
-                Long current = counts.remove(null);
-                nullCounter = new AtomicLong(current == null ? 0 : current);
-            }
-            counts = new ConcurrentHashMap<>(counts);
-        }
         return new DistinctSpliterator<>(split, atLeast, nullCounter, counts);
     }
 
+    /**
+     * Increments the counter unless it already reached the threshold.
+     * 
+     * @param counter counter to increment
+     * @param atLeast threshold
+     * @return true if the counter reached the threshold by this call
+     */
+    static boolean increment(AtomicLong counter, long atLeast) {
+        return counter.get() < atLeast && counter.incrementAndGet() == atLeast;
+    }
+
+    static <K> boolean increment(Map<K, AtomicLong> counts, K key, long atLeast) {
+        AtomicLong counter = counts.get(key);
+        if (counter == null) {
+            counter = new AtomicLong();
+            AtomicLong prev = counts.putIfAbsent(key, counter);
+            if (prev != null)
+                counter = prev;
+        }
+        return increment(counter, atLeast);
+    }
+
     @Override
     public long estimateSize() {
         return source.estimateSize();
@@ -110,4 +156,196 @@ import static one.util.streamex.StreamExInternals.*;
     public Comparator<? super T> getComparator() {
         return source.getComparator();
     }
+
+    static final class OfInt implements Spliterator.OfInt, IntConsumer {
+        private final Spliterator.OfInt source;
+        private ConcurrentCounterTable counts;
+        private CounterTable.OfInt table;
+        private final long atLeast;
+        private int cur;
+
+        OfInt(Spliterator.OfInt source, long atLeast, ConcurrentCounterTable counts) {
+            this.source = source;
+            this.atLeast = atLeast;
+            this.counts = counts;
+        }
+
+        OfInt(Spliterator.OfInt source, long atLeast) {
+            this(source, atLeast, null);
+            this.table = new CounterTable.OfInt();
+        }
+
+        @Override
+        public void accept(int t) {
+            this.cur = t;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (table != null) {
+                while (source.tryAdvance(this)) {
+                    if (table.increment(cur) == atLeast) {
+                        action.accept(cur);
+                        return true;
+                    }
+                }
+            } else {
+                while (source.tryAdvance(this)) {
+                    if (counts.increment(cur)) {
+                        action.accept(cur);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            if (table != null) {
+                CounterTable.OfInt table = this.table;
+                source.forEachRemaining((int e) -> {
+                    if (table.increment(e) == atLeast) {
+                        action.accept(e);
+                    }
+                });
+            } else {
+                source.forEachRemaining((int e) -> {
+                    if (counts.increment(e)) {
+                        action.accept(e);
+                    }
+                });
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            if (table != null) {
+                Spliterator.OfInt split = source.trySplit();
+                if (split == null)
+                    return null;
+                counts = new ConcurrentCounterTable(atLeast, table.size());
+                for (int i = 0; i < table.size(); i++) {
+                    counts.put(table.keyAt(i), table.countAt(i));
+                }
+                table = null;
+                return new DistinctSpliterator.OfInt(split, atLeast, counts);
+            }
+            Spliterator.OfInt split = source.trySplit();
+            if (split == null)
+                return null;
+            return new DistinctSpliterator.OfInt(split, atLeast, counts);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL | (source.characteristics() & (CONCURRENT | IMMUTABLE | ORDERED | SORTED));
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return source.getComparator();
+        }
+    }
+
+    static final class OfLong implements Spliterator.OfLong, LongConsumer {
+        private final Spliterator.OfLong source;
+        private ConcurrentCounterTable counts;
+        private CounterTable.OfLong table;
+        private final long atLeast;
+        private long cur;
+
+        OfLong(Spliterator.OfLong source, long atLeast, ConcurrentCounterTable counts) {
+            this.source = source;
+            this.atLeast = atLeast;
+            this.counts = counts;
+        }
+
+        OfLong(Spliterator.OfLong source, long atLeast) {
+            this(source, atLeast, null);
+            this.table = new CounterTable.OfLong();
+        }
+
+        @Override
+        public void accept(long t) {
+            this.cur = t;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (table != null) {
+                while (source.tryAdvance(this)) {
+                    if (table.increment(cur) == atLeast) {
+                        action.accept(cur);
+                        return true;
+                    }
+                }
+            } else {
+                while (source.tryAdvance(this)) {
+                    if (counts.increment(cur)) {
+                        action.accept(cur);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            if (table != null) {
+                CounterTable.OfLong table = this.table;
+                source.forEachRemaining((long e) -> {
+                    if (table.increment(e) == atLeast) {
+                        action.accept(e);
+                    }
+                });
+            } else {
+                source.forEachRemaining((long e) -> {
+                    if (counts.increment(e)) {
+                        action.accept(e);
+                    }
+                });
+            }
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            if (table != null) {
+                Spliterator.OfLong split = source.trySplit();
+                if (split == null)
+                    return null;
+                counts = new ConcurrentCounterTable(atLeast, table.size());
+                for (int i = 0; i < table.size(); i++) {
+                    counts.put(table.keyAt(i), table.countAt(i));
+                }
+                table = null;
+                return new DistinctSpliterator.OfLong(split, atLeast, counts);
+            }
+            Spliterator.OfLong split = source.trySplit();
+            if (split == null)
+                return null;
+            return new DistinctSpliterator.OfLong(split, atLeast, counts);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL | (source.characteristics() & (CONCURRENT | IMMUTABLE | ORDERED | SORTED));
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return source.getComparator();
+        }
+    }
 }
@@ -476,6 +476,60 @@ public interface DoubleCollector<A, R> extends MergingCollector<Double, A, R> {
         return of(DoubleBuffer::new, DoubleBuffer::add, DoubleBuffer::addAll, DoubleBuffer::toArray);
     }
 
+    /**
+     * Returns a {@code DoubleCollector} which collects at most specified
+     * number of the least input elements into the {@code double[]} array.
+     * The resulting array is sorted in ascending order (as defined by
+     * {@link Double#compare(double, double)}).
+     *
+     * <p>
+     * The operation performed by the returned collector is equivalent to
+     * {@code stream.sorted().limit(n).toArray()}, but usually performed much
+     * faster if {@code n} is much less than the stream size. Unlike
+     * {@link MoreCollectors#least(int)} the input elements are not boxed.
+     *
+     * @param n maximum number of stream elements to preserve
+     * @return a {@code DoubleCollector} which returns an array containing the
+     *         least n input elements or less if the input was shorter. If
+     *         {@code n} is less or equal to zero, an empty array is returned.
+     * @since 0.6.2
+     */
+    static DoubleCollector<?, double[]> least(int n) {
+        if (n <= 0)
+            return of(() -> NONE, (acc, t) -> {
+            }, (acc1, acc2) -> {
+            }, acc -> new double[0]);
+        return of(() -> new PrimitiveLimiter(n, false), PrimitiveLimiter::putDouble, PrimitiveLimiter::putAll,
+            PrimitiveLimiter::toDoubleArray);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} which collects at most specified
+     * number of the greatest input elements into the {@code double[]} array.
+     * The resulting array is sorted in descending order (as defined by
+     * {@link Double#compare(double, double)}).
+     *
+     * <p>
+     * The result is the same as the last n elements of
+     * {@code stream.sorted().toArray()} taken in reverse order, but usually it's
+     * computed much faster if {@code n} is much less than the stream size. Unlike
+     * {@link MoreCollectors#greatest(int)} the input elements are not boxed.
+     *
+     * @param n maximum number of stream elements to preserve
+     * @return a {@code DoubleCollector} which returns an array containing the
+     *         greatest n input elements or less if the input was shorter. If
+     *         {@code n} is less or equal to zero, an empty array is returned.
+     * @since 0.6.2
+     */
+    static DoubleCollector<?, double[]> greatest(int n) {
+        if (n <= 0)
+            return of(() -> NONE, (acc, t) -> {
+            }, (acc1, acc2) -> {
+            }, acc -> new double[0]);
+        return of(() -> new PrimitiveLimiter(n, true), PrimitiveLimiter::putDouble, PrimitiveLimiter::putAll,
+            PrimitiveLimiter::toDoubleArray);
+    }
+
     /**
      * Returns a {@code DoubleCollector} that produces the {@code float[]} array
      * of the input elements converting them via {@code (float)} casting. If no
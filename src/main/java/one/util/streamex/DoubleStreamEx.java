@@ -705,11 +705,25 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
 
     @Override
     public double[] toArray() {
-        if (context.fjp != null)
-            return context.terminate(stream()::toArray);
+        if (isParallel()) {
+            if (context.fjp != null)
+                return context.terminate(this::parallelToArray);
+            return parallelToArray();
+        }
         return stream().toArray();
     }
 
+    private double[] parallelToArray() {
+        // the spliterator is requested inside the custom pool (if any), as
+        // stateful intermediate operations are evaluated at this point
+        Spliterator.OfDouble spliterator = spliterator();
+        DoubleStream stream = StreamSupport.doubleStream(spliterator, true);
+        if (!spliterator.hasCharacteristics(Spliterator.SUBSIZED))
+            return stream.collect(SegmentList.OfDouble::new, SegmentList.OfDouble::add, SegmentList.OfDouble::addAll)
+                    .toArray();
+        return stream.toArray();
+    }
+
     /**
      * Returns a {@code float[]} array containing the elements of this stream
      * which are converted to floats using {@code (float)} cast operation.
@@ -722,7 +736,8 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
      */
     public float[] toFloatArray() {
         if (isParallel())
-            return collect(DoubleCollector.toFloatArray());
+            return collect(SegmentList.OfFloat::new, SegmentList.OfFloat::add, SegmentList.OfFloat::addAll)
+                    .toArray();
         java.util.Spliterator.OfDouble spliterator = spliterator();
         long size = spliterator.getExactSizeIfKnown();
         FloatBuffer buf;
@@ -1448,7 +1463,10 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
      * @since 0.2.1
      */
     public DoubleStreamEx pairMap(DoubleBinaryOperator mapper) {
-        return delegate(new PairSpliterator.PSOfDouble(mapper, null, spliterator(), PairSpliterator.MODE_PAIRS));
+        Spliterator.OfDouble spliterator = spliterator();
+        if (spliterator instanceof RangeBasedSpliterator.OfDouble)
+            return delegate(((RangeBasedSpliterator.OfDouble) spliterator).pairMap(mapper));
+        return delegate(new PairSpliterator.PSOfDouble(mapper, null, spliterator, PairSpliterator.MODE_PAIRS));
     }
 
     /**
@@ -1591,6 +1609,12 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
      * process elements strictly left to right. Using an unordered source or
      * removing the ordering constraint with {@link #unordered()} may improve
      * the parallel processing speed.
+     * 
+     * <p>
+     * The parallel stream created directly from the array (like
+     * {@code DoubleStreamEx.of(array).parallel().prefix(op)}) is an exception: it
+     * scans in two passes computing the totals of the array blocks first, so
+     * it scales with the number of processors.
      *
      * @param op an <a
      *        href="package-summary.html#Associativity">associative</a>, <a
@@ -1602,7 +1626,128 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
      * @since 0.6.1
      */
     public DoubleStreamEx prefix(DoubleBinaryOperator op) {
-        return delegate(new PrefixOps.OfDouble(spliterator(), op));
+        Spliterator.OfDouble spliterator = spliterator();
+        if (spliterator instanceof RangeBasedSpliterator.OfDouble)
+            return delegate(((RangeBasedSpliterator.OfDouble) spliterator).prefix(op));
+        return delegate(new PrefixOps.OfDouble(spliterator, op));
+    }
+
+    /**
+     * Returns a stream consisting of the sums of every window of
+     * {@code width} adjacent elements of this stream.
+     * 
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     * 
+     * <p>
+     * Only the full windows are considered, so the resulting stream contains
+     * {@code width - 1} elements less than this stream or no elements if this
+     * stream contains less than {@code width} elements.
+     * 
+     * <p>
+     * The results are computed incrementally, so the whole operation takes
+     * {@code O(n)} time regardless of the window width.
+     * 
+     * <p>
+     * The sum is maintained using the compensated summation, so the rounding
+     * error does not accumulate along the stream.
+     * 
+     * @param width the number of adjacent elements in every window, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if width is not positive
+     * @since 0.6.2
+     */
+    public DoubleStreamEx windowSum(int width) {
+        return window(width, WindowSpliterator.SUM);
+    }
+
+    /**
+     * Returns a stream consisting of the minimal elements of every window of
+     * {@code width} adjacent elements of this stream.
+     * 
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     * 
+     * <p>
+     * Only the full windows are considered, so the resulting stream contains
+     * {@code width - 1} elements less than this stream or no elements if this
+     * stream contains less than {@code width} elements.
+     * 
+     * <p>
+     * The results are computed incrementally, so the whole operation takes
+     * {@code O(n)} time regardless of the window width.
+     * 
+     * @param width the number of adjacent elements in every window, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if width is not positive
+     * @since 0.6.2
+     */
+    public DoubleStreamEx windowMin(int width) {
+        return window(width, WindowSpliterator.MIN);
+    }
+
+    /**
+     * Returns a stream consisting of the maximal elements of every window of
+     * {@code width} adjacent elements of this stream.
+     * 
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     * 
+     * <p>
+     * Only the full windows are considered, so the resulting stream contains
+     * {@code width - 1} elements less than this stream or no elements if this
+     * stream contains less than {@code width} elements.
+     * 
+     * <p>
+     * The results are computed incrementally, so the whole operation takes
+     * {@code O(n)} time regardless of the window width.
+     * 
+     * @param width the number of adjacent elements in every window, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if width is not positive
+     * @since 0.6.2
+     */
+    public DoubleStreamEx windowMax(int width) {
+        return window(width, WindowSpliterator.MAX);
+    }
+
+    /**
+     * Returns a stream consisting of the arithmetic means of every window of
+     * {@code width} adjacent elements of this stream.
+     * 
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     * 
+     * <p>
+     * Only the full windows are considered, so the resulting stream contains
+     * {@code width - 1} elements less than this stream or no elements if this
+     * stream contains less than {@code width} elements.
+     * 
+     * <p>
+     * The results are computed incrementally, so the whole operation takes
+     * {@code O(n)} time regardless of the window width.
+     * 
+     * @param width the number of adjacent elements in every window, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if width is not positive
+     * @since 0.6.2
+     */
+    public DoubleStreamEx windowAverage(int width) {
+        return windowSum(width).map(s -> s / width);
+    }
+
+    private DoubleStreamEx window(int width, int op) {
+        if (width <= 0)
+            throw new IllegalArgumentException("width = " + width);
+        return delegate(new WindowSpliterator.OfDouble(spliterator(), width, op));
     }
 
     // Necessary to generate proper JavaDoc
@@ -1639,7 +1784,7 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
      * @return the new stream
      */
     public static DoubleStreamEx of(double... elements) {
-        return of(Arrays.spliterator(elements));
+        return of(new RangeBasedSpliterator.OfDouble(0, elements.length, elements));
     }
 
     /**
@@ -1658,7 +1803,8 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
      * @see Arrays#stream(double[], int, int)
      */
     public static DoubleStreamEx of(double[] array, int startInclusive, int endExclusive) {
-        return of(Arrays.spliterator(array, startInclusive, endExclusive));
+        rangeCheck(array.length, startInclusive, endExclusive);
+        return of(new RangeBasedSpliterator.OfDouble(startInclusive, endExclusive, array));
     }
 
     /**
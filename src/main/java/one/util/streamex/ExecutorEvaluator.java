@@ -0,0 +1,232 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * Evaluates the terminal operation of the parallel stream bound to an
+ * arbitrary {@link Executor} (see {@link AbstractStreamEx#parallel(Executor)}).
+ *
+ * <p>
+ * The spliterator tree is driven by the executor tasks: every task splits its
+ * spliterator while it's bigger than the target size submitting the split
+ * prefixes as the new tasks, then traverses the rest using the leaf function.
+ * Partial results are merged in the encounter order using the merger function
+ * as soon as they become available, so tasks never wait for each other and
+ * bounded executors cannot deadlock. Only the calling thread blocks waiting for
+ * the final result.
+ *
+ * <p>
+ * Every terminal operation plugs its own leaf and merger functions into
+ * {@link #evaluate(Function, BinaryOperator)}. The leftmost leaf may have its
+ * own function (see {@link #evaluate(Function, Function, BinaryOperator)}):
+ * as every merge waits for its left part, the leftmost leaf and the results
+ * merged into it are processed strictly in the encounter order.
+ * Short-circuiting operations set the {@code cancelled} flag which stops
+ * further splitting and traversal.
+ *
+ * @author Tagir Valeev
+ * @param <T> the type of the stream elements
+ */
+/* package */final class ExecutorEvaluator<T> {
+    private static final int LEAVES_PER_THREAD = 4;
+
+    private final Executor executor;
+    private final Spliterator<T> source;
+    private final long targetSize;
+    private volatile boolean cancelled;
+
+    ExecutorEvaluator(Executor executor, Spliterator<T> source) {
+        this.executor = executor;
+        this.source = source;
+        long parallelism = Runtime.getRuntime().availableProcessors() * LEAVES_PER_THREAD;
+        this.targetSize = Math.max(source.estimateSize() / parallelism, 1);
+    }
+
+    <A> A evaluate(Function<Spliterator<T>, A> leaf, BinaryOperator<A> merger) {
+        return evaluate(leaf, leaf, merger);
+    }
+
+    <A> A evaluate(Function<Spliterator<T>, A> headLeaf, Function<Spliterator<T>, A> leaf, BinaryOperator<A> merger) {
+        try {
+            return submit(source, true, headLeaf, leaf, merger).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw e;
+        }
+    }
+
+    private <A> CompletableFuture<A> submit(Spliterator<T> spliterator, boolean head,
+            Function<Spliterator<T>, A> headLeaf, Function<Spliterator<T>, A> leaf, BinaryOperator<A> merger) {
+        return CompletableFuture.supplyAsync(() -> split(spliterator, head, headLeaf, leaf, merger), executor)
+                .thenCompose(Function.identity());
+    }
+
+    private <A> CompletableFuture<A> split(Spliterator<T> spliterator, boolean head,
+            Function<Spliterator<T>, A> headLeaf, Function<Spliterator<T>, A> leaf, BinaryOperator<A> merger) {
+        try {
+            CompletableFuture<A> prefixes = null;
+            Spliterator<T> prefix;
+            while (!cancelled && spliterator.estimateSize() > targetSize && (prefix = spliterator.trySplit()) != null) {
+                CompletableFuture<A> future = submit(prefix, head, headLeaf, leaf, merger);
+                head = false;
+                prefixes = prefixes == null ? future : prefixes.thenCombine(future, merger);
+            }
+            A result = (head ? headLeaf : leaf).apply(spliterator);
+            return prefixes == null ? CompletableFuture.completedFuture(result) : prefixes.thenApply(
+                a -> merger.apply(a, result));
+        } catch (Throwable t) {
+            cancelled = true;
+            throw t;
+        }
+    }
+
+    <A> A collect(Supplier<A> supplier, BiConsumer<A, ? super T> accumulator, BinaryOperator<A> combiner) {
+        return evaluate(s -> {
+            A a = supplier.get();
+            s.forEachRemaining(t -> accumulator.accept(a, t));
+            return a;
+        }, combiner);
+    }
+
+    List<T> toList() {
+        return collect(ArrayList::new, ArrayList::add, (a, b) -> {
+            a.addAll(b);
+            return a;
+        });
+    }
+
+    <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
+        return evaluate(s -> {
+            Box<U> box = new Box<>(identity);
+            s.forEachRemaining(t -> box.a = accumulator.apply(box.a, t));
+            return box.a;
+        }, combiner);
+    }
+
+    Optional<T> reduce(BinaryOperator<T> accumulator) {
+        // null box means no elements
+        Box<T> result = evaluate(s -> {
+            Box<T> box = new Box<>();
+            if (!s.tryAdvance(box))
+                return null;
+            s.forEachRemaining(t -> box.a = accumulator.apply(box.a, t));
+            return box;
+        }, (a, b) -> {
+            if (a == null)
+                return b;
+            if (b != null)
+                a.a = accumulator.apply(a.a, b.a);
+            return a;
+        });
+        return result == null ? Optional.empty() : Optional.of(result.a);
+    }
+
+    void forEach(Consumer<? super T> action) {
+        evaluate(s -> {
+            s.forEachRemaining(action);
+            return null;
+        }, (a, b) -> null);
+    }
+
+    void forEachOrdered(Consumer<? super T> action) {
+        // The leftmost leaf feeds the action directly and yields null; other
+        // leaves buffer their elements until everything to the left is done
+        evaluate(s -> {
+            s.forEachRemaining(action);
+            return null;
+        }, s -> {
+            List<T> list = new ArrayList<>();
+            s.forEachRemaining(list::add);
+            return list;
+        }, (a, b) -> {
+            if (a == null) {
+                b.forEach(action);
+                return null;
+            }
+            a.addAll(b);
+            return a;
+        });
+    }
+
+    long count() {
+        return evaluate(s -> {
+            long size = s.getExactSizeIfKnown();
+            if (size >= 0)
+                return size;
+            long[] count = { 0 };
+            s.forEachRemaining(t -> count[0]++);
+            return count[0];
+        }, Long::sum);
+    }
+
+    boolean anyMatch(Predicate<? super T> predicate) {
+        return evaluate(s -> {
+            Box<T> box = new Box<>();
+            while (!cancelled && s.tryAdvance(box)) {
+                if (predicate.test(box.a)) {
+                    cancelled = true;
+                    return true;
+                }
+            }
+            return false;
+        }, Boolean::logicalOr);
+    }
+
+    Optional<T> findAny() {
+        return evaluate(s -> {
+            Box<T> box = new Box<>();
+            if (!cancelled && s.tryAdvance(box)) {
+                cancelled = true;
+                return Optional.of(box.a);
+            }
+            return Optional.empty();
+        }, (a, b) -> a.isPresent() ? a : b);
+    }
+
+    Optional<T> findFirst() {
+        // Every leaf must find its first element as the leaves to the left
+        // may have none; cancellation only stops further splitting
+        return evaluate(s -> {
+            Box<T> box = new Box<>();
+            if (s.tryAdvance(box)) {
+                cancelled = true;
+                return Optional.of(box.a);
+            }
+            return Optional.empty();
+        }, (a, b) -> a.isPresent() ? a : b);
+    }
+}
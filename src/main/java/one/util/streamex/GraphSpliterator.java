@@ -0,0 +1,279 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static one.util.streamex.StreamExInternals.*;
+import static one.util.streamex.UnknownSizeSpliterator.*;
+
+/**
+ * Spliterator over the graph nodes in breadth-first order. The traversal is
+ * level-synchronous: when the current level is consumed, the neighbors of all
+ * its nodes are read and registered in the visited filter in the level order,
+ * the accepted ones form the next level.
+ *
+ * <p>
+ * The split hands out the batch of the nodes which come next (the batch size
+ * grows like in {@link UnknownSizeSpliterator}), expanding the levels if
+ * necessary, so the prefix is processed by other thread while this
+ * spliterator goes deeper. After the first split the neighbors of the level
+ * nodes are read concurrently; only the registration in the filter is
+ * sequential, so the order is the same as for sequential traversal.
+ *
+ * <p>
+ * The start node is registered in the visited filter on the first traversal
+ * or split, so creating the spliterator has no side effects. See
+ * {@link DepthFirst} for the depth-first traversal.
+ *
+ * @author Tagir Valeev
+ */
+/* package */final class GraphSpliterator<T> implements Spliterator<T> {
+    private final Function<T, Stream<T>> neighbors;
+    private final DistinctFilter<? super T> visited;
+    private List<T> level;
+    private int pos;
+    private long size = Long.MAX_VALUE;
+    private int batch;
+    private boolean parallel;
+    private boolean started;
+
+    GraphSpliterator(T start, Function<T, Stream<T>> neighbors, DistinctFilter<? super T> visited) {
+        this.neighbors = neighbors;
+        this.visited = visited;
+        this.level = Collections.singletonList(start);
+    }
+
+    private void start() {
+        started = true;
+        if (!visited.add(level.get(0))) {
+            level = Collections.emptyList();
+            size = 0;
+        }
+    }
+
+    private List<T> neighbors(T node) {
+        List<T> result = new ArrayList<>();
+        try (Stream<T> stream = neighbors.apply(node)) {
+            if (stream != null)
+                stream.spliterator().forEachRemaining(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the consumed level with the next one.
+     * 
+     * @return false if the next level is empty
+     */
+    private boolean expand() {
+        List<T> next = new ArrayList<>();
+        if (parallel && level.size() > 1) {
+            List<List<T>> lists = StreamEx.of(level).parallel().map(this::neighbors).toList();
+            for (List<T> list : lists) {
+                for (T t : list) {
+                    if (visited.add(t))
+                        next.add(t);
+                }
+            }
+        } else {
+            for (T node : level) {
+                try (Stream<T> stream = neighbors.apply(node)) {
+                    if (stream != null) {
+                        stream.spliterator().forEachRemaining(t -> {
+                            if (visited.add(t))
+                                next.add(t);
+                        });
+                    }
+                }
+            }
+        }
+        level = next;
+        pos = 0;
+        if (next.isEmpty()) {
+            size = 0;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (!started)
+            start();
+        if (pos == level.size() && (size == 0 || !expand()))
+            return false;
+        action.accept(level.get(pos++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        if (!started)
+            start();
+        if (size == 0)
+            return;
+        do {
+            List<T> l = level;
+            while (pos < l.size()) {
+                action.accept(l.get(pos++));
+            }
+        } while (expand());
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (!started)
+            start();
+        parallel = true;
+        int n = batch = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+        List<T> buffer = new ArrayList<>();
+        while (buffer.size() < n) {
+            if (pos == level.size() && (size == 0 || !expand()))
+                break;
+            int k = Math.min(n - buffer.size(), level.size() - pos);
+            buffer.addAll(level.subList(pos, pos + k));
+            pos += k;
+        }
+        return buffer.isEmpty() ? null : buffer.spliterator();
+    }
+
+    @Override
+    public long estimateSize() {
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+
+    /**
+     * Spliterator over the graph nodes in depth-first order. The traversal is
+     * iterative: the stack holds the spliterators over the neighbors of the
+     * nodes on the current path, so long paths cannot overflow the call stack.
+     * The neighbor is registered in the visited filter when the traversal
+     * reaches it, so the order is the same as for recursive traversal.
+     *
+     * <p>
+     * The split hands out the batch of the nodes which come next (the batch
+     * size grows like in {@link UnknownSizeSpliterator}), so only the
+     * processing of the nodes is parallel, while the graph is traversed by one
+     * thread at a time and the encounter order is preserved.
+     */
+    static final class DepthFirst<T> extends Box<T> implements Spliterator<T> {
+        private final Function<T, Stream<T>> neighbors;
+        private final DistinctFilter<? super T> visited;
+        private final Deque<Spliterator<T>> stack = new ArrayDeque<>();
+        private final Deque<Stream<T>> streams = new ArrayDeque<>();
+        private T start;
+        private boolean started, expand, done;
+        private int batch;
+
+        DepthFirst(T start, Function<T, Stream<T>> neighbors, DistinctFilter<? super T> visited) {
+            this.start = start;
+            this.neighbors = neighbors;
+            this.visited = visited;
+        }
+
+        private void pop() {
+            stack.pop();
+            streams.pop().close();
+        }
+
+        /**
+         * Stores the next node into the box.
+         * 
+         * @return false if there are no more nodes
+         */
+        private boolean advance() {
+            if (done)
+                return false;
+            if (!started) {
+                started = true;
+                a = start;
+                start = null;
+                if (visited.add(a))
+                    return expand = true;
+            } else {
+                if (expand) {
+                    expand = false;
+                    Stream<T> stream = neighbors.apply(a);
+                    if (stream != null) {
+                        streams.push(stream);
+                        stack.push(stream.spliterator());
+                    }
+                }
+                while (!stack.isEmpty()) {
+                    Spliterator<T> top = stack.peek();
+                    if (!top.tryAdvance(this)) {
+                        pop();
+                    } else if (visited.add(a)) {
+                        // drop exhausted neighbors early to keep the path short
+                        if (top.getExactSizeIfKnown() == 0)
+                            pop();
+                        return expand = true;
+                    }
+                }
+            }
+            done = true;
+            return false;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (!advance())
+                return false;
+            action.accept(a);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (advance()) {
+                action.accept(a);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int n = batch = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+            List<T> buffer = new ArrayList<>();
+            while (buffer.size() < n && advance()) {
+                buffer.add(a);
+            }
+            return buffer.isEmpty() ? null : buffer.spliterator();
+        }
+
+        @Override
+        public long estimateSize() {
+            return done ? 0 : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * Accumulator of the grouping collectors with the known domain of keys. Every
+ * key is mapped to the index in the domain (enum ordinal, for example), so the
+ * downstream containers are stored in the plain array and partial results are
+ * combined element-wise. The indexes are also remembered in the order of the
+ * first occurrence, so the resulting map is filled in the same order as it
+ * would be filled by the usual grouping collector.
+ *
+ * <p>
+ * For short-circuiting downstream collectors the number of finished groups is
+ * maintained, so the whole collection is known to be finished without
+ * checking every group.
+ *
+ * @param <A> the intermediate accumulation type of the downstream collector
+ *
+ * @author Tagir Valeev
+ */
+/* package */final class IndexedGroups<A> {
+    private final Object[] containers;
+    private final int[] order;
+    private int created;
+    // null if downstream collector is not short-circuiting
+    private final boolean[] finished;
+    private int finishedCount;
+
+    private IndexedGroups(int size, boolean cancellable) {
+        this.containers = new Object[size];
+        this.order = new int[size];
+        this.finished = cancellable ? new boolean[size] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private A container(int index, Supplier<A> supplier) {
+        Object container = containers[index];
+        if (container == null) {
+            container = containers[index] = supplier.get();
+            order[created++] = index;
+        }
+        return (A) container;
+    }
+
+    private void updateFinished(int index, A container, Predicate<A> downstreamFinished) {
+        if (!finished[index] && downstreamFinished.test(container)) {
+            finished[index] = true;
+            finishedCount++;
+        }
+    }
+
+    private boolean isFinished() {
+        return finishedCount == containers.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void merge(IndexedGroups<A> other, BinaryOperator<A> combiner, Predicate<A> downstreamFinished) {
+        for (int i = 0; i < other.created; i++) {
+            int index = other.order[i];
+            Object container = containers[index];
+            if (container == null) {
+                containers[index] = other.containers[index];
+                order[created++] = index;
+            } else {
+                containers[index] = combiner.apply((A) container, (A) other.containers[index]);
+            }
+            if (downstreamFinished != null)
+                updateFinished(index, (A) containers[index], downstreamFinished);
+        }
+    }
+
+    /**
+     * Creates the grouping collector over the known domain.
+     *
+     * @param classifier a classifier function mapping input elements to keys
+     * @param keys all the domain keys in the order they should be added to the
+     *        resulting map if not produced by the classifier
+     * @param indexer function which returns the index of the key in the keys
+     *        list or -1 if the key is out of domain
+     * @param mapFactory a supplier of the resulting map
+     * @param downstream a downstream collector
+     * @return a grouping collector
+     */
+    @SuppressWarnings("unchecked")
+    static <T, K, D, A, M extends Map<K, D>> Collector<T, ?, M> collector(
+            Function<? super T, ? extends K> classifier, List<K> keys, ToIntFunction<? super K> indexer,
+            Supplier<M> mapFactory, Collector<? super T, A, D> downstream) {
+        int size = keys.size();
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        Function<A, D> downstreamFinisher = downstream.finisher();
+        Predicate<A> downstreamFinished = finished(downstream);
+        ToIntFunction<T> index = t -> {
+            K key = Objects.requireNonNull(classifier.apply(t));
+            int idx = indexer.applyAsInt(key);
+            if (idx < 0)
+                throw new IllegalStateException("Classifier returned value '" + key + "' which is out of domain");
+            return idx;
+        };
+        Supplier<IndexedGroups<A>> supplier = () -> new IndexedGroups<>(size, downstreamFinished != null);
+        BinaryOperator<IndexedGroups<A>> combiner = (left, right) -> {
+            left.merge(right, downstreamCombiner, downstreamFinished);
+            return left;
+        };
+        Function<IndexedGroups<A>, M> finisher = groups -> {
+            M map = mapFactory.get();
+            for (int i = 0; i < groups.created; i++) {
+                int idx = groups.order[i];
+                map.put(keys.get(idx), downstreamFinisher.apply((A) groups.containers[idx]));
+            }
+            if (groups.created < size) {
+                for (int i = 0; i < size; i++) {
+                    if (groups.containers[i] == null)
+                        map.put(keys.get(i), downstreamFinisher.apply(downstreamSupplier.get()));
+                }
+            }
+            return map;
+        };
+        if (downstreamFinished != null) {
+            BiConsumer<IndexedGroups<A>, T> accumulator = (groups, t) -> {
+                int idx = index.applyAsInt(t);
+                A container = groups.container(idx, downstreamSupplier);
+                downstreamAccumulator.accept(container, t);
+                groups.updateFinished(idx, container, downstreamFinished);
+            };
+            return new CancellableCollectorImpl<>(supplier, accumulator, combiner, finisher,
+                    IndexedGroups::isFinished, NO_CHARACTERISTICS);
+        }
+        BiConsumer<IndexedGroups<A>, T> accumulator = (groups, t) -> downstreamAccumulator.accept(groups.container(
+            index.applyAsInt(t), downstreamSupplier), t);
+        return Collector.of(supplier, accumulator, combiner, finisher);
+    }
+}
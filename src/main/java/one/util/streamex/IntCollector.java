@@ -467,6 +467,43 @@ public interface IntCollector<A, R> extends MergingCollector<Integer, A, R> {
         return PartialCollector.grouping(mapFactory, downstream).asInt(accumulator);
     }
 
+    /**
+     * Returns an {@code IntCollector} implementing a cascaded "group by"
+     * operation on input numbers, grouping them according to a {@code int}
+     * classification function, and then performing a reduction operation on
+     * the values associated with a given key using the specified downstream
+     * {@code IntCollector}.
+     *
+     * <p>
+     * Unlike {@link #groupingBy(IntFunction, IntCollector)} the keys are not
+     * boxed during the accumulation: the groups are stored in the primitive
+     * hash table (or in the array indexed by key if the keys span a small
+     * range). The keys are boxed only when the resulting map is accessed. The
+     * map entries are iterated in the order of the first key occurrence.
+     *
+     * <p>
+     * There are no guarantees on the type, mutability, serializability, or
+     * thread-safety of the {@code Map} returned. The returned map does not
+     * support removal.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream an {@code IntCollector} implementing the downstream
+     *        reduction
+     * @return an {@code IntCollector} implementing the cascaded group-by
+     *         operation
+     * @since 0.6.2
+     */
+    static <D, A> IntCollector<?, Map<Integer, D>> groupingByInt(IntUnaryOperator classifier,
+            IntCollector<A, D> downstream) {
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjIntConsumer<A> downstreamAccumulator = downstream.intAccumulator();
+        ObjIntConsumer<PrimitiveKeyMap<Integer, A>> accumulator = (m, t) -> downstreamAccumulator.accept(
+            m.computeIfAbsent(classifier.applyAsInt(t), downstreamSupplier), t);
+        return PartialCollector.primitiveGrouping(PrimitiveKeyMap.OfInt<A>::new, downstream).asInt(accumulator);
+    }
+
     /**
      * Returns an {@code IntCollector} that produces the {@link BitSet} of the
      * input elements.
@@ -489,6 +526,83 @@ public interface IntCollector<A, R> extends MergingCollector<Integer, A, R> {
         return of(IntBuffer::new, IntBuffer::add, IntBuffer::addAll, IntBuffer::toArray);
     }
 
+    /**
+     * Returns a {@code IntCollector} which estimates the number of distinct
+     * input elements using the HyperLogLog algorithm. Unlike
+     * {@code distinct().count()} the memory usage is fixed:
+     * {@code 2^precision} bytes per thread. The relative standard error of the
+     * result is about {@code 1.04 / sqrt(2^precision)}.
+     *
+     * <p>
+     * The operation performed by the returned collector is equivalent to
+     * {@link MoreCollectors#approxDistinctCount(Function, int)} applied to the
+     * boxed values, but the input elements are not boxed.
+     *
+     * @param precision the number of index bits, must be between 4 and 18
+     *        inclusive
+     * @return an {@code IntCollector} which estimates the number of distinct
+     *         input elements
+     * @throws IllegalArgumentException if precision is out of bounds
+     * @since 0.6.2
+     */
+    static IntCollector<?, Long> approxDistinctCount(int precision) {
+        int p = HyperLogLog.checkPrecision(precision);
+        return new IntCollectorImpl<>(() -> new HyperLogLog(p), HyperLogLog::addLong, HyperLogLog::merge,
+            HyperLogLog::estimate, UNORDERED_CHARACTERISTICS);
+    }
+
+    /**
+     * Returns an {@code IntCollector} which collects at most specified
+     * number of the least input elements into the {@code int[]} array.
+     * The resulting array is sorted in ascending order.
+     *
+     * <p>
+     * The operation performed by the returned collector is equivalent to
+     * {@code stream.sorted().limit(n).toArray()}, but usually performed much
+     * faster if {@code n} is much less than the stream size. Unlike
+     * {@link MoreCollectors#least(int)} the input elements are not boxed.
+     *
+     * @param n maximum number of stream elements to preserve
+     * @return an {@code IntCollector} which returns an array containing the
+     *         least n input elements or less if the input was shorter. If
+     *         {@code n} is less or equal to zero, an empty array is returned.
+     * @since 0.6.2
+     */
+    static IntCollector<?, int[]> least(int n) {
+        if (n <= 0)
+            return of(() -> NONE, (acc, t) -> {
+            }, (acc1, acc2) -> {
+            }, acc -> new int[0]);
+        return of(() -> new PrimitiveLimiter(n, false), PrimitiveLimiter::putInt, PrimitiveLimiter::putAll,
+            PrimitiveLimiter::toIntArray);
+    }
+
+    /**
+     * Returns an {@code IntCollector} which collects at most specified
+     * number of the greatest input elements into the {@code int[]} array.
+     * The resulting array is sorted in descending order.
+     *
+     * <p>
+     * The result is the same as the last n elements of
+     * {@code stream.sorted().toArray()} taken in reverse order, but usually it's
+     * computed much faster if {@code n} is much less than the stream size. Unlike
+     * {@link MoreCollectors#greatest(int)} the input elements are not boxed.
+     *
+     * @param n maximum number of stream elements to preserve
+     * @return an {@code IntCollector} which returns an array containing the
+     *         greatest n input elements or less if the input was shorter. If
+     *         {@code n} is less or equal to zero, an empty array is returned.
+     * @since 0.6.2
+     */
+    static IntCollector<?, int[]> greatest(int n) {
+        if (n <= 0)
+            return of(() -> NONE, (acc, t) -> {
+            }, (acc1, acc2) -> {
+            }, acc -> new int[0]);
+        return of(() -> new PrimitiveLimiter(n, true), PrimitiveLimiter::putInt, PrimitiveLimiter::putAll,
+            PrimitiveLimiter::toIntArray);
+    }
+
     /**
      * Returns an {@code IntCollector} that produces the {@code byte[]} array of
      * the input elements converting them via {@code (byte)} casting. If no
@@ -39,6 +39,8 @@ import java.util.Spliterators;
 import java.util.Spliterators.AbstractIntSpliterator;
 import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
 import java.util.function.DoublePredicate;
 import java.util.function.Function;
 import java.util.function.IntBinaryOperator;
@@ -69,6 +71,8 @@ import static one.util.streamex.StreamExInternals.*;
  * @author Tagir Valeev
  */
 public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.OfInt, IntStreamEx> implements IntStream {
+    private static final int INPUT_STREAM_BUFFER_SIZE = 8192;
+
     private static final class TDOfInt extends AbstractIntSpliterator implements IntConsumer {
         private final IntPredicate predicate;
         private final boolean drop;
@@ -172,10 +176,8 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
         }
     }
 
-    final <A> A collectSized(Supplier<A> supplier, ObjIntConsumer<A> accumulator, BiConsumer<A, A> combiner,
-            IntFunction<A> sizedSupplier, ObjIntConsumer<A> sizedAccumulator) {
-        if (isParallel())
-            return collect(supplier, accumulator, combiner);
+    final <A> A collectSized(Supplier<A> supplier, ObjIntConsumer<A> accumulator, IntFunction<A> sizedSupplier,
+            ObjIntConsumer<A> sizedAccumulator) {
         java.util.Spliterator.OfInt spliterator = spliterator();
         long size = spliterator.getExactSizeIfKnown();
         A intermediate;
@@ -457,11 +459,66 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
         return new IntStreamEx(stream().distinct(), context);
     }
 
+    /**
+     * Returns a stream consisting of the distinct elements of this stream which
+     * appear at least specified number of times in this stream.
+     *
+     * <p>
+     * The occurrences are counted in the primitive open-addressing hash table,
+     * so the elements are not boxed. If this stream is ordered then order is
+     * preserved for sequential stream.
+     *
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     *
+     * @param atLeast minimal number of occurrences required to select the
+     *        element. If atLeast is 1 or less, then this method is equivalent
+     *        to {@link #distinct()}.
+     * @return the new stream
+     * @see #distinct()
+     * @see StreamEx#distinct(long)
+     * @since 0.6.2
+     */
+    public IntStreamEx distinct(long atLeast) {
+        if (atLeast <= 1)
+            return distinct();
+        Spliterator.OfInt spliterator = spliterator();
+        Spliterator.OfInt result;
+        if (spliterator.hasCharacteristics(Spliterator.DISTINCT))
+            // already distinct: cannot have any repeating elements
+            result = Spliterators.emptyIntSpliterator();
+        else
+            result = new DistinctSpliterator.OfInt(spliterator, atLeast);
+        return delegate(result);
+    }
+
     @Override
     public IntStreamEx sorted() {
         return new IntStreamEx(stream().sorted(), context);
     }
 
+    /**
+     * Returns a stream consisting of the elements of this stream in sorted
+     * order. Unlike {@link #sorted()}, the big inputs are sorted using the
+     * radix sort which is usually several times faster than the comparison
+     * sort, though requires more temporary memory. If the stream is parallel,
+     * the most significant digit is processed first and the resulting
+     * buckets are sorted in parallel. Small inputs are sorted by
+     * {@link #sorted()} algorithm.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">stateful intermediate
+     * operation</a>.
+     *
+     * @return the new stream
+     * @see #sorted()
+     * @since 0.6.2
+     */
+    public IntStreamEx radixSorted() {
+        return delegate(new RadixSort.OfInt(spliterator()));
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream sorted
      * according to the given comparator. Stream elements are boxed before
@@ -748,11 +805,25 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
 
     @Override
     public int[] toArray() {
-        if (context.fjp != null)
-            return context.terminate(stream()::toArray);
+        if (isParallel()) {
+            if (context.fjp != null)
+                return context.terminate(this::parallelToArray);
+            return parallelToArray();
+        }
         return stream().toArray();
     }
 
+    private int[] parallelToArray() {
+        // the spliterator is requested inside the custom pool (if any), as
+        // stateful intermediate operations are evaluated at this point
+        Spliterator.OfInt spliterator = spliterator();
+        IntStream stream = StreamSupport.intStream(spliterator, true);
+        if (!spliterator.hasCharacteristics(Spliterator.SUBSIZED))
+            return stream.collect(SegmentList.OfInt::new, SegmentList.OfInt::add, SegmentList.OfInt::addAll)
+                    .toArray();
+        return stream.toArray();
+    }
+
     /**
      * Returns a {@code byte[]} array containing the elements of this stream
      * which are converted to bytes using {@code (byte)} cast operation.
@@ -764,8 +835,9 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * @since 0.3.0
      */
     public byte[] toByteArray() {
-        return collectSized(ByteBuffer::new, ByteBuffer::add, ByteBuffer::addAll, ByteBuffer::new,
-            ByteBuffer::addUnsafe).toArray();
+        if (isParallel())
+            return collect(SegmentList.OfByte::new, SegmentList.OfByte::add, SegmentList.OfByte::addAll).toArray();
+        return collectSized(ByteBuffer::new, ByteBuffer::add, ByteBuffer::new, ByteBuffer::addUnsafe).toArray();
     }
 
     /**
@@ -779,8 +851,9 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * @since 0.3.0
      */
     public char[] toCharArray() {
-        return collectSized(CharBuffer::new, CharBuffer::add, CharBuffer::addAll, CharBuffer::new,
-            CharBuffer::addUnsafe).toArray();
+        if (isParallel())
+            return collect(SegmentList.OfChar::new, SegmentList.OfChar::add, SegmentList.OfChar::addAll).toArray();
+        return collectSized(CharBuffer::new, CharBuffer::add, CharBuffer::new, CharBuffer::addUnsafe).toArray();
     }
 
     /**
@@ -794,8 +867,10 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * @since 0.3.0
      */
     public short[] toShortArray() {
-        return collectSized(ShortBuffer::new, ShortBuffer::add, ShortBuffer::addAll, ShortBuffer::new,
-            ShortBuffer::addUnsafe).toArray();
+        if (isParallel())
+            return collect(SegmentList.OfShort::new, SegmentList.OfShort::add, SegmentList.OfShort::addAll)
+                    .toArray();
+        return collectSized(ShortBuffer::new, ShortBuffer::add, ShortBuffer::new, ShortBuffer::addUnsafe).toArray();
     }
 
     /**
@@ -823,6 +898,10 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * whether this may cause problems.
      * 
      * <p>
+     * The elements are pulled from this stream in chunks, so reading a single
+     * byte may consume up to several thousands of elements in advance.
+     * 
+     * <p>
      * This is a terminal operation.
      * 
      * <p>
@@ -835,19 +914,82 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      */
     public InputStream asByteInputStream() {
         Spliterator.OfInt spltr = spliterator();
-        return new InputStream() {
-            private int last;
+        class ByteInputStream extends InputStream implements IntConsumer {
+            private byte[] buf;
+            private int pos, limit;
+
+            @Override
+            public void accept(int value) {
+                buf[limit++] = (byte) value;
+            }
+
+            /**
+             * Drains the next chunk of the source into the buffer.
+             * 
+             * @return false if the source is exhausted
+             */
+            private boolean fill() {
+                long size = spltr.getExactSizeIfKnown();
+                if (buf == null) {
+                    buf = new byte[size >= 0 && size < INPUT_STREAM_BUFFER_SIZE ? (int) size
+                            : INPUT_STREAM_BUFFER_SIZE];
+                }
+                pos = limit = 0;
+                if (size >= 0 && size <= buf.length) {
+                    spltr.forEachRemaining(this);
+                } else {
+                    while (limit < buf.length && spltr.tryAdvance(this)) {
+                        // continue
+                    }
+                }
+                return limit > 0;
+            }
 
             @Override
             public int read() {
-                return spltr.tryAdvance((int val) -> last = val) ? (last & 0xFF) : -1;
+                if (pos == limit && !fill())
+                    return -1;
+                return buf[pos++] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                rangeCheck(b.length, off, off + len);
+                if (len == 0)
+                    return 0;
+                int read = 0;
+                while (read < len && (pos < limit || fill())) {
+                    int chunk = Math.min(len - read, limit - pos);
+                    System.arraycopy(buf, pos, b, off + read, chunk);
+                    pos += chunk;
+                    read += chunk;
+                }
+                return read == 0 ? -1 : read;
+            }
+
+            @Override
+            public long skip(long n) {
+                long skipped = 0;
+                while (skipped < n && (pos < limit || fill())) {
+                    int chunk = (int) Math.min(n - skipped, limit - pos);
+                    pos += chunk;
+                    skipped += chunk;
+                }
+                return skipped;
+            }
+
+            @Override
+            public int available() {
+                long size = spltr.getExactSizeIfKnown();
+                return (int) Math.min(limit - pos + Math.max(size, 0), Integer.MAX_VALUE);
             }
 
             @Override
             public void close() {
                 IntStreamEx.this.close();
             }
-        };
+        }
+        return new ByteInputStream();
     }
 
     @Override
@@ -1700,7 +1842,88 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * @since 0.2.1
      */
     public IntStreamEx pairMap(IntBinaryOperator mapper) {
-        return delegate(new PairSpliterator.PSOfInt(mapper, null, spliterator(), PairSpliterator.MODE_PAIRS));
+        Spliterator.OfInt spliterator = spliterator();
+        if (spliterator instanceof RangeBasedSpliterator.OfInt)
+            return delegate(((RangeBasedSpliterator.OfInt) spliterator).pairMap(mapper));
+        return delegate(new PairSpliterator.PSOfInt(mapper, null, spliterator, PairSpliterator.MODE_PAIRS));
+    }
+
+    /**
+     * Merge series of adjacent elements which satisfy the given predicate using
+     * the merger function and return a new stream.
+     * 
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate</a>
+     * partial reduction operation.
+     * 
+     * <p>
+     * This operation is equivalent to
+     * {@code boxed().collapse(collapsible, merger).mapToInt(x -> x)}, but
+     * the elements are not boxed: only one object per series of adjacent
+     * elements is created. Like in
+     * {@link StreamEx#collapse(BiPredicate, BinaryOperator)} the series which
+     * cross the boundaries of parallel splits are merged properly.
+     * 
+     * @param collapsible a non-interfering, stateless predicate to apply to the
+     *        pair of adjacent elements of the input stream which returns true
+     *        for elements which are collapsible.
+     * @param merger a non-interfering, stateless, associative function to merge
+     *        two adjacent elements for which collapsible predicate returned
+     *        true. Note that it can be applied to the results if previous
+     *        merges.
+     * @return the new stream
+     * @since 0.6.2
+     */
+    public IntStreamEx collapse(IntBiPredicate collapsible, IntBinaryOperator merger) {
+        return new StreamEx<>(RunSpliterator.collapse(spliterator(), collapsible, merger, false), context).mapToInt(
+            r -> r.acc);
+    }
+
+    /**
+     * Collapses adjacent equal elements and returns an {@link EntryStream}
+     * where keys are input elements and values specify how many elements were
+     * collapsed.
+     * 
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate</a>
+     * partial reduction operation.
+     * 
+     * <p>
+     * This operation is equivalent to {@code boxed().runLengths()}, but the
+     * input elements are not boxed: only the resulting entries are created.
+     * 
+     * @return the new stream
+     * @see StreamEx#runLengths()
+     * @since 0.6.2
+     */
+    public EntryStream<Integer, Long> runLengths() {
+        return new EntryStream<>(new StreamEx<>(RunSpliterator.collapse(spliterator(), (a, b) -> a == b, null, false),
+                context).map(r -> new ObjLongBox<>(r.first, r.count)), context);
+    }
+
+    /**
+     * Returns a stream consisting of arrays of elements of this stream where
+     * adjacent elements are grouped according to supplied predicate.
+     * 
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate</a>
+     * partial reduction operation.
+     * 
+     * <p>
+     * This operation is similar to {@code boxed().groupRuns(sameGroup)}, but
+     * the elements are not boxed and every group is represented as the
+     * {@code int[]} array of the exact length.
+     * 
+     * @param sameGroup a non-interfering, stateless predicate to apply to the
+     *        pair of adjacent elements which returns true for elements which
+     *        belong to the same group.
+     * @return the new stream
+     * @see StreamEx#groupRuns(BiPredicate)
+     * @since 0.6.2
+     */
+    public StreamEx<int[]> groupRuns(IntBiPredicate sameGroup) {
+        return new StreamEx<>(RunSpliterator.collapse(spliterator(), sameGroup, null, true), context).map(
+            r -> r.values);
     }
 
     /**
@@ -1885,6 +2108,12 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * process elements strictly left to right. Using an unordered source or
      * removing the ordering constraint with {@link #unordered()} may improve
      * the parallel processing speed.
+     * 
+     * <p>
+     * The parallel stream created directly from the array (like
+     * {@code IntStreamEx.of(array).parallel().prefix(op)}) is an exception: it
+     * scans in two passes computing the totals of the array blocks first, so
+     * it scales with the number of processors.
      *
      * @param op an <a
      *        href="package-summary.html#Associativity">associative</a>, <a
@@ -1896,7 +2125,120 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * @since 0.6.1
      */
     public IntStreamEx prefix(IntBinaryOperator op) {
-        return delegate(new PrefixOps.OfInt(spliterator(), op));
+        Spliterator.OfInt spliterator = spliterator();
+        if (spliterator instanceof RangeBasedSpliterator.OfInt)
+            return delegate(((RangeBasedSpliterator.OfInt) spliterator).prefix(op));
+        return delegate(new PrefixOps.OfInt(spliterator, op));
+    }
+
+    /**
+     * Returns a stream consisting of the sums of every window of
+     * {@code width} adjacent elements of this stream.
+     * 
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     * 
+     * <p>
+     * Only the full windows are considered, so the resulting stream contains
+     * {@code width - 1} elements less than this stream or no elements if this
+     * stream contains less than {@code width} elements.
+     * 
+     * <p>
+     * The results are computed incrementally, so the whole operation takes
+     * {@code O(n)} time regardless of the window width.
+     * 
+     * @param width the number of adjacent elements in every window, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if width is not positive
+     * @since 0.6.2
+     */
+    public IntStreamEx windowSum(int width) {
+        return asLongStream().windowSum(width).mapToInt(s -> (int) s);
+    }
+
+    /**
+     * Returns a stream consisting of the minimal elements of every window of
+     * {@code width} adjacent elements of this stream.
+     * 
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     * 
+     * <p>
+     * Only the full windows are considered, so the resulting stream contains
+     * {@code width - 1} elements less than this stream or no elements if this
+     * stream contains less than {@code width} elements.
+     * 
+     * <p>
+     * The results are computed incrementally, so the whole operation takes
+     * {@code O(n)} time regardless of the window width.
+     * 
+     * @param width the number of adjacent elements in every window, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if width is not positive
+     * @since 0.6.2
+     */
+    public IntStreamEx windowMin(int width) {
+        return asLongStream().windowMin(width).mapToInt(s -> (int) s);
+    }
+
+    /**
+     * Returns a stream consisting of the maximal elements of every window of
+     * {@code width} adjacent elements of this stream.
+     * 
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     * 
+     * <p>
+     * Only the full windows are considered, so the resulting stream contains
+     * {@code width - 1} elements less than this stream or no elements if this
+     * stream contains less than {@code width} elements.
+     * 
+     * <p>
+     * The results are computed incrementally, so the whole operation takes
+     * {@code O(n)} time regardless of the window width.
+     * 
+     * @param width the number of adjacent elements in every window, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if width is not positive
+     * @since 0.6.2
+     */
+    public IntStreamEx windowMax(int width) {
+        return asLongStream().windowMax(width).mapToInt(s -> (int) s);
+    }
+
+    /**
+     * Returns a stream consisting of the arithmetic means of every window of
+     * {@code width} adjacent elements of this stream.
+     * 
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     * 
+     * <p>
+     * Only the full windows are considered, so the resulting stream contains
+     * {@code width - 1} elements less than this stream or no elements if this
+     * stream contains less than {@code width} elements.
+     * 
+     * <p>
+     * The results are computed incrementally, so the whole operation takes
+     * {@code O(n)} time regardless of the window width.
+     * The window sums are computed as {@code long} values, so they don't
+     * overflow.
+     * 
+     * @param width the number of adjacent elements in every window, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if width is not positive
+     * @since 0.6.2
+     */
+    public DoubleStreamEx windowAverage(int width) {
+        return asLongStream().windowAverage(width);
     }
 
     // Necessary to generate proper JavaDoc
@@ -1933,7 +2275,7 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * @return the new stream
      */
     public static IntStreamEx of(int... elements) {
-        return of(Arrays.spliterator(elements));
+        return of(new RangeBasedSpliterator.OfInt(0, elements.length, elements));
     }
 
     /**
@@ -1952,7 +2294,8 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * @see Arrays#stream(int[], int, int)
      */
     public static IntStreamEx of(int[] array, int startInclusive, int endExclusive) {
-        return of(Arrays.spliterator(array, startInclusive, endExclusive));
+        rangeCheck(array.length, startInclusive, endExclusive);
+        return of(new RangeBasedSpliterator.OfInt(startInclusive, endExclusive, array));
     }
 
     /**
@@ -2065,6 +2408,12 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * {@link UncheckedIOException}.
      * 
      * <p>
+     * The {@code InputStream} is read in chunks, so the bytes might be read
+     * from it before they are actually consumed by the stream. Thus the
+     * {@code InputStream} should not be used directly after the stream
+     * creation.
+     * 
+     * <p>
      * When the returned {@code IntStreamEx} is closed the original
      * {@code InputStream} is closed as well. If {@link InputStream#close()}
      * method throws an {@code IOException}, it will be rethrown as
@@ -2078,18 +2427,39 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
     public static IntStreamEx of(InputStream is) {
         Spliterator.OfInt spliterator = new AbstractIntSpliterator(Long.MAX_VALUE, Spliterator.ORDERED
             | Spliterator.NONNULL) {
-            @Override
-            public boolean tryAdvance(IntConsumer action) {
+            private final byte[] buf = new byte[INPUT_STREAM_BUFFER_SIZE];
+            private int pos, limit;
+
+            private boolean fill() {
                 try {
-                    int next = is.read();
-                    if (next == -1)
-                        return false;
-                    action.accept(next);
-                    return true;
+                    int n;
+                    do {
+                        n = is.read(buf);
+                    } while (n == 0);
+                    pos = 0;
+                    limit = Math.max(n, 0);
+                    return n > 0;
                 } catch (IOException e) {
                     throw new UncheckedIOException(e);
                 }
             }
+
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                if (pos == limit && !fill())
+                    return false;
+                action.accept(buf[pos++] & 0xFF);
+                return true;
+            }
+
+            @Override
+            public void forEachRemaining(IntConsumer action) {
+                while (pos < limit || fill()) {
+                    while (pos < limit) {
+                        action.accept(buf[pos++] & 0xFF);
+                    }
+                }
+            }
         };
         return of(spliterator).onClose(() -> {
             try {
@@ -2764,6 +3134,28 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
         return of(new RangeBasedSpliterator.ZipInt(0, checkLength(first.length, second.length), mapper, first, second));
     }
 
+    /**
+     * Represents a predicate of two {@code int}-valued arguments. This is the
+     * {@code int}-consuming primitive specialization of
+     * {@link BiPredicate}.
+     * 
+     * @author Tagir Valeev
+     *
+     * @since 0.6.2
+     */
+    @FunctionalInterface
+    public interface IntBiPredicate {
+        /**
+         * Evaluates this predicate on the given arguments.
+         * 
+         * @param left the first input argument
+         * @param right the second input argument
+         * @return true if the input arguments match the predicate, otherwise
+         *         false
+         */
+        boolean test(int left, int right);
+    }
+
     /**
      * A helper interface to build a new stream by emitting elements and
      * creating new emitters in a chain.
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.StreamSupport;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * Sorts the source elements by the primitive keys extracted exactly once per
+ * element. The keys are represented as {@code long} values which natural
+ * order is the requested one (see {@link StreamExInternals#sortableBits}
+ * for {@code double} keys).
+ *
+ * <p>
+ * The source is drained on the first traversal or split (in parallel in the
+ * latter case). The keys are stored in the primitive array and the index
+ * permutation is sorted without any comparator calls: for {@code int} keys
+ * the key and the index are packed into the single {@code long} which is
+ * sorted by {@link Arrays#sort(long[])}, for wider keys the stable merge
+ * sort of the indices is used. In radix mode big inputs are sorted by
+ * {@link RadixSort} carrying the indices as the payload. After that the
+ * spliterator delegates to the spliterator over the sorted array.
+ *
+ * @author Tagir Valeev
+ */
+/* package */final class KeySortSpliterator<T> implements Spliterator<T> {
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private Spliterator<T> source;
+    private final ToLongFunction<? super T> keyExtractor;
+    private final boolean intKeys;
+    private final boolean radix;
+    private final int characteristics;
+    private Spliterator<T> sorted;
+
+    /**
+     * @param source source spliterator
+     * @param keyExtractor function which returns the sort key
+     * @param intKeys true if keyExtractor never returns values outside of the
+     *        int range
+     * @param radix true if {@link RadixSort} should be used for big inputs
+     */
+    KeySortSpliterator(Spliterator<T> source, ToLongFunction<? super T> keyExtractor, boolean intKeys,
+            boolean radix) {
+        this.source = source;
+        this.keyExtractor = keyExtractor;
+        this.intKeys = intKeys;
+        this.radix = radix;
+        this.characteristics = ORDERED | (source.characteristics() & (SIZED | DISTINCT | NONNULL));
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        return sorted(false).tryAdvance(action);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        sorted(false).forEachRemaining(action);
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return sorted(true).trySplit();
+    }
+
+    @Override
+    public long estimateSize() {
+        return sorted == null ? source.estimateSize() : sorted.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    private Spliterator<T> sorted(boolean parallel) {
+        if (sorted == null) {
+            Object[] values = parallel ? StreamSupport.stream(source, true).toArray() : drain();
+            source = null;
+            sorted = Spliterators.spliterator(sort(values, parallel), characteristics);
+        }
+        return sorted;
+    }
+
+    private Object[] drain() {
+        long size = source.getExactSizeIfKnown();
+        Object[][] buf = { new Object[size >= 0 && size < Integer.MAX_VALUE - 8 ? (int) size : INITIAL_SIZE] };
+        int[] count = { 0 };
+        source.forEachRemaining(t -> {
+            if (count[0] == buf[0].length)
+                buf[0] = Arrays.copyOf(buf[0], count[0] * 2);
+            buf[0][count[0]++] = t;
+        });
+        return count[0] == buf[0].length ? buf[0] : Arrays.copyOf(buf[0], count[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object[] sort(Object[] values, boolean parallel) {
+        int n = values.length;
+        Object[] result = new Object[n];
+        if (radix && n >= RadixSort.THRESHOLD) {
+            long[] keys = keys(values, parallel);
+            int[] order = new int[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            RadixSort.sort(keys, order, intKeys ? Integer.SIZE : Long.SIZE, parallel);
+            for (int i = 0; i < n; i++) {
+                result[i] = values[order[i]];
+            }
+        } else if (intKeys) {
+            long[] packed = new long[n];
+            if (parallel) {
+                Arrays.parallelSetAll(packed, i -> keyExtractor.applyAsLong((T) values[i]) << 32 | i);
+                Arrays.parallelSort(packed);
+            } else {
+                for (int i = 0; i < n; i++) {
+                    packed[i] = keyExtractor.applyAsLong((T) values[i]) << 32 | i;
+                }
+                Arrays.sort(packed);
+            }
+            for (int i = 0; i < n; i++) {
+                result[i] = values[(int) packed[i]];
+            }
+        } else {
+            int[] order = sortIndices(keys(values, parallel));
+            for (int i = 0; i < n; i++) {
+                result[i] = values[order[i]];
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private long[] keys(Object[] values, boolean parallel) {
+        long[] keys = new long[values.length];
+        if (parallel) {
+            Arrays.parallelSetAll(keys, i -> keyExtractor.applyAsLong((T) values[i]));
+        } else {
+            for (int i = 0; i < values.length; i++) {
+                keys[i] = keyExtractor.applyAsLong((T) values[i]);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Stable bottom-up merge sort of the index permutation.
+     *
+     * @param keys the keys to sort by
+     * @return the indices of the keys in sorted order
+     */
+    static int[] sortIndices(long[] keys) {
+        int n = keys.length;
+        int[] idx = new int[n];
+        for (int i = 0; i < n; i++) {
+            idx[i] = i;
+        }
+        for (int from = 0; from < n; from += INSERTION_SORT_THRESHOLD) {
+            int to = Math.min(n, from + INSERTION_SORT_THRESHOLD);
+            for (int i = from + 1; i < to; i++) {
+                int cur = idx[i];
+                long key = keys[cur];
+                int j = i - 1;
+                while (j >= from && keys[idx[j]] > key) {
+                    idx[j + 1] = idx[j];
+                    j--;
+                }
+                idx[j + 1] = cur;
+            }
+        }
+        int[] tmp = new int[n];
+        for (int width = INSERTION_SORT_THRESHOLD; width < n; width = (int) Math.min(n, 2L * width)) {
+            for (int lo = 0; lo < n; lo = (int) Math.min(n, lo + 2L * width)) {
+                int mid = (int) Math.min(n, (long) lo + width), hi = (int) Math.min(n, (long) mid + width);
+                if (mid == hi || keys[idx[mid - 1]] <= keys[idx[mid]]) {
+                    System.arraycopy(idx, lo, tmp, lo, hi - lo);
+                    continue;
+                }
+                int i = lo, j = mid;
+                for (int k = lo; k < hi; k++) {
+                    tmp[k] = j == hi || i < mid && keys[idx[i]] <= keys[idx[j]] ? idx[i++] : idx[j++];
+                }
+            }
+            int[] t = idx;
+            idx = tmp;
+            tmp = t;
+        }
+        return idx;
+    }
+}
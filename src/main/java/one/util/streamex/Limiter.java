@@ -16,30 +16,62 @@
 package one.util.streamex;
 
 import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+import static one.util.streamex.StreamExInternals.*;
 
 /**
  * Extracts least limit elements from the input sorting them according to the
  * given comparator. Works for 2 <= limit < Integer.MAX_VALUE/2. Uses
  * O(min(limit, inputSize)) additional memory.
  * 
+ * <p>
+ * Limiters created for the same parallel computation may share the bound: the
+ * least limit-th element found by any of them so far. As every Limiter keeps
+ * its limit best elements until the final merge, the elements which are
+ * strictly greater than the shared bound cannot appear in the result and
+ * rejected immediately.
+ * 
  * @param <T> type of input elements
  * 
  * @author Tagir Valeev
  */
 /* package */class Limiter<T> extends AbstractCollection<T> {
+    // how often the shared bound is re-read while elements are rejected
+    private static final int SHARED_BOUND_CHECK_MASK = 0x3FF;
+
     private T[] data;
     private final int limit;
     private final Comparator<? super T> comparator;
+    private final AtomicReference<Object> sharedBound;
     private int size;
     private boolean initial = true;
+    // valid when !initial: elements less than bound (or equal if inclusive)
+    // are accepted
+    private T bound;
+    private boolean inclusive;
+    private int rejected;
 
-    @SuppressWarnings("unchecked")
     public Limiter(int limit, Comparator<? super T> comparator) {
+        this(limit, comparator, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    Limiter(int limit, Comparator<? super T> comparator, AtomicReference<Object> sharedBound) {
         this.limit = limit;
         this.comparator = comparator;
+        this.sharedBound = sharedBound;
         this.data = (T[]) new Object[Math.min(1000, limit) * 2];
     }
 
@@ -64,6 +96,7 @@ import java.util.Iterator;
                     Arrays.sort(data, comparator);
                     initial = false;
                     size = limit;
+                    updateBound();
                 }
                 put(t);
             } else {
@@ -73,33 +106,88 @@ import java.util.Iterator;
         }
         if (size == data.length) {
             sortTail();
+            updateBound();
         }
-        if (comparator.compare(t, data[limit - 1]) < 0) {
+        int c = comparator.compare(t, bound);
+        if (c < 0 || c == 0 && inclusive) {
             data[size++] = t;
             return true;
         }
+        if (sharedBound != null && (++rejected & SHARED_BOUND_CHECK_MASK) == 0)
+            updateBound();
         return false;
     }
 
     /**
-     * Merge other {@code Limiter} object into this (other object becomes unusable after that).
+     * Must be called when data[limit-1] is the actual limit-th element.
+     * Publishes it as the shared bound if it's better than the current one
+     * and selects the best bound for this Limiter.
+     */
+    private void updateBound() {
+        T last = data[limit - 1];
+        bound = last;
+        inclusive = false;
+        if (sharedBound == null)
+            return;
+        Object cur = sharedBound.get();
+        while (cur == NONE || comparator.compare(last, this.<T> cast(cur)) < 0) {
+            if (sharedBound.compareAndSet(cur, last))
+                return;
+            cur = sharedBound.get();
+        }
+        // Equal elements found by other Limiters might precede ours in the
+        // encounter order, thus they are accepted
+        if (comparator.compare(this.<T> cast(cur), last) < 0) {
+            bound = cast(cur);
+            inclusive = true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> E cast(Object obj) {
+        return (E) obj;
+    }
+
+    /**
+     * Merge other {@code Limiter} object into this (other object becomes
+     * unusable after that). The other object must contain the elements which
+     * follow the elements of this object in the encounter order.
+     * 
+     * <p>
+     * Both objects are sorted, then their best elements are merged in single
+     * pass. If one object is full and the best element of another is not
+     * better than its worst element, the merge is skipped at all.
      * 
      * @param ls other object to merge
-     * @return this object
+     * @return the merged object (this or other)
      */
     public Limiter<T> putAll(Limiter<T> ls) {
-        int i = 0;
-        if (!ls.initial) {
-            // sorted part
-            for (; i < limit; i++) {
-                if (!put(ls.data[i]))
-                    break;
-            }
-            i = limit;
-        }
-        for (; i < ls.size; i++) {
-            put(ls.data[i]);
+        if (ls.size == 0)
+            return this;
+        if (size == 0)
+            return ls;
+        sort();
+        ls.sort();
+        int n1 = size(), n2 = ls.size();
+        T[] d1 = data, d2 = ls.data;
+        Comparator<? super T> cmp = comparator;
+        // equal elements from this object precede the ones from ls
+        if (n1 == limit && cmp.compare(d2[0], d1[limit - 1]) >= 0)
+            return this;
+        if (n2 == limit && cmp.compare(d1[0], d2[limit - 1]) > 0)
+            return ls;
+        int m = Math.min(limit, n1 + n2);
+        @SuppressWarnings("unchecked")
+        T[] buf = (T[]) new Object[m * 2];
+        int i = 0, j = 0;
+        for (int k = 0; k < m; k++) {
+            buf[k] = j == n2 || i < n1 && cmp.compare(d1[i], d2[j]) <= 0 ? d1[i++] : d2[j++];
         }
+        data = buf;
+        size = m;
+        initial = m < limit;
+        if (!initial)
+            updateBound();
         return this;
     }
 
@@ -161,4 +249,70 @@ import java.util.Iterator;
     public int size() {
         return initial && size < limit ? size : limit;
     }
+
+    /**
+     * Returns the collector which is semantically equivalent to the supplied
+     * one, but better suited for parallel processing. For the collector
+     * created by {@link #collector(int, Comparator)} this is a collector whose
+     * Limiters share the bound; the returned collector must be used for single
+     * collect operation only.
+     * 
+     * @param collector collector to adapt
+     * @return the adapted collector or supplied collector if it cannot be
+     *         adapted
+     */
+    @SuppressWarnings("unchecked")
+    static <T, A, R> Collector<T, A, R> forParallel(Collector<T, A, R> collector) {
+        if (collector instanceof LimiterCollector)
+            return (Collector<T, A, R>) ((LimiterCollector<?>) collector).withSharedBound();
+        return collector;
+    }
+
+    static <T> Collector<T, ?, List<T>> collector(int limit, Comparator<? super T> comparator) {
+        return new LimiterCollector<>(limit, comparator, null);
+    }
+
+    static final class LimiterCollector<T> implements Collector<T, Limiter<T>, List<T>> {
+        private final int limit;
+        private final Comparator<? super T> comparator;
+        private final AtomicReference<Object> sharedBound;
+
+        LimiterCollector(int limit, Comparator<? super T> comparator, AtomicReference<Object> sharedBound) {
+            this.limit = limit;
+            this.comparator = comparator;
+            this.sharedBound = sharedBound;
+        }
+
+        LimiterCollector<T> withSharedBound() {
+            return new LimiterCollector<>(limit, comparator, new AtomicReference<>(NONE));
+        }
+
+        @Override
+        public Supplier<Limiter<T>> supplier() {
+            return () -> new Limiter<>(limit, comparator, sharedBound);
+        }
+
+        @Override
+        public BiConsumer<Limiter<T>, T> accumulator() {
+            return Limiter::put;
+        }
+
+        @Override
+        public BinaryOperator<Limiter<T>> combiner() {
+            return Limiter::putAll;
+        }
+
+        @Override
+        public Function<Limiter<T>, List<T>> finisher() {
+            return pq -> {
+                pq.sort();
+                return new ArrayList<>(pq);
+            };
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return NO_CHARACTERISTICS;
+        }
+    }
 }
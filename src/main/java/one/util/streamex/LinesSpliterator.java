@@ -0,0 +1,211 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the lines of the memory-mapped file. Only the charsets
+ * where {@code '\n'} and {@code '\r'} are encoded as the single bytes which
+ * cannot appear inside other characters are supported (UTF-8 and
+ * ASCII-compatible single-byte charsets, see {@link #isSupported(Charset)}).
+ *
+ * <p>
+ * Every spliterator covers the byte range of the file which starts at the
+ * line beginning. The range is split in the middle snapping to the next
+ * {@code '\n'} byte, so the prefix never ends in the middle of the line or
+ * between {@code '\r'} and {@code '\n'}. Every split maps its own window of
+ * the file lazily and decodes the lines only when they are consumed.
+ *
+ * @author Tagir Valeev
+ */
+/* package */final class LinesSpliterator implements Spliterator<String> {
+    private static final int MAX_WINDOW_SIZE = 1 << 28;
+    private static final int MAX_LINE_SIZE = Integer.MAX_VALUE - 8;
+    private static final int MIN_SPLIT_SIZE = 1 << 13;
+    private static final int SCAN_BUFFER_SIZE = 1 << 12;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final int windowSize;
+    private CharsetDecoder decoder;
+    private long pos;
+    private final long end;
+    private long windowStart;
+    private ByteBuffer window;
+    private ByteBuffer view;
+    private byte[] buf;
+
+    LinesSpliterator(FileChannel channel, Charset charset, long start, long end) {
+        this(channel, charset, start, end, MAX_WINDOW_SIZE);
+    }
+
+    LinesSpliterator(FileChannel channel, Charset charset, long start, long end, int windowSize) {
+        this.channel = channel;
+        this.charset = charset;
+        this.windowSize = windowSize;
+        this.pos = start;
+        this.end = end;
+    }
+
+    static boolean isSupported(Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8))
+            return true;
+        return charset.canEncode() && charset.newEncoder().maxBytesPerChar() == 1.0f
+            && Arrays.equals("\n\r".getBytes(charset), new byte[] { '\n', '\r' });
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        if (pos >= end)
+            return false;
+        action.accept(nextLine());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        while (pos < end) {
+            action.accept(nextLine());
+        }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        long remaining = end - pos;
+        if (remaining < Math.min(MIN_SPLIT_SIZE, windowSize))
+            return null;
+        long mid = lineStart(pos + remaining / 2);
+        if (mid >= end)
+            return null;
+        LinesSpliterator prefix = new LinesSpliterator(channel, charset, pos, mid, windowSize);
+        this.pos = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - pos;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * @param from position to start the search from
+     * @return the position after the first {@code '\n'} byte located at or
+     *         after given position or {@code end} if there's no such byte
+     */
+    private long lineStart(long from) {
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long p = from;
+        try {
+            while (p < end) {
+                scan.clear();
+                scan.limit((int) Math.min(SCAN_BUFFER_SIZE, end - p));
+                int n = channel.read(scan, p);
+                if (n <= 0)
+                    return end;
+                for (int i = 0; i < n; i++) {
+                    if (scan.get(i) == '\n')
+                        return p + i + 1;
+                }
+                p += n;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return end;
+    }
+
+    private void map(long start, int size) {
+        try {
+            window = channel.map(MapMode.READ_ONLY, start, Math.min(size, end - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        view = window.duplicate();
+        windowStart = start;
+    }
+
+    private String nextLine() {
+        int windowSize = this.windowSize;
+        if (window == null || pos >= windowStart + window.limit())
+            map(pos, windowSize);
+        while (true) {
+            ByteBuffer w = window;
+            int from = (int) (pos - windowStart), limit = w.limit();
+            boolean last = windowStart + limit == end;
+            int i = from;
+            while (i < limit) {
+                byte b = w.get(i);
+                if (b == '\n' || b == '\r')
+                    break;
+                i++;
+            }
+            if (i < limit) {
+                int next = i + 1;
+                if (w.get(i) == '\n' || next < limit || last) {
+                    if (next < limit && w.get(i) == '\r' && w.get(next) == '\n')
+                        next++;
+                    String line = decode(from, i);
+                    pos = windowStart + next;
+                    return line;
+                }
+            } else if (last) {
+                String line = decode(from, limit);
+                pos = end;
+                return line;
+            }
+            // the line or "\r\n" terminator crosses the window boundary
+            if (from == 0) {
+                if (windowSize == MAX_LINE_SIZE)
+                    throw new UncheckedIOException(new IOException("Line is too long at position " + pos));
+                windowSize = (int) Math.min(MAX_LINE_SIZE, windowSize * 2L);
+            }
+            map(pos, windowSize);
+        }
+    }
+
+    private String decode(int from, int to) {
+        int len = to - from;
+        if (buf == null || buf.length < len)
+            buf = new byte[Math.max(len, 128)];
+        view.limit(to);
+        view.position(from);
+        view.get(buf, 0, len);
+        if (decoder == null)
+            decoder = charset.newDecoder();
+        try {
+            return decoder.decode(ByteBuffer.wrap(buf, 0, len)).toString();
+        } catch (CharacterCodingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
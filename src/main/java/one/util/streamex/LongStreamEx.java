@@ -33,6 +33,8 @@ import java.util.PrimitiveIterator.OfLong;
 import java.util.Spliterators.AbstractLongSpliterator;
 import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.LongBinaryOperator;
 import java.util.function.LongConsumer;
@@ -476,11 +478,66 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
         return new LongStreamEx(stream().distinct(), context);
     }
 
+    /**
+     * Returns a stream consisting of the distinct elements of this stream which
+     * appear at least specified number of times in this stream.
+     *
+     * <p>
+     * The occurrences are counted in the primitive open-addressing hash table,
+     * so the elements are not boxed. If this stream is ordered then order is
+     * preserved for sequential stream.
+     *
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     *
+     * @param atLeast minimal number of occurrences required to select the
+     *        element. If atLeast is 1 or less, then this method is equivalent
+     *        to {@link #distinct()}.
+     * @return the new stream
+     * @see #distinct()
+     * @see StreamEx#distinct(long)
+     * @since 0.6.2
+     */
+    public LongStreamEx distinct(long atLeast) {
+        if (atLeast <= 1)
+            return distinct();
+        Spliterator.OfLong spliterator = spliterator();
+        Spliterator.OfLong result;
+        if (spliterator.hasCharacteristics(Spliterator.DISTINCT))
+            // already distinct: cannot have any repeating elements
+            result = Spliterators.emptyLongSpliterator();
+        else
+            result = new DistinctSpliterator.OfLong(spliterator, atLeast);
+        return delegate(result);
+    }
+
     @Override
     public LongStreamEx sorted() {
         return new LongStreamEx(stream().sorted(), context);
     }
 
+    /**
+     * Returns a stream consisting of the elements of this stream in sorted
+     * order. Unlike {@link #sorted()}, the big inputs are sorted using the
+     * radix sort which is usually several times faster than the comparison
+     * sort, though requires more temporary memory. If the stream is parallel,
+     * the most significant digit is processed first and the resulting
+     * buckets are sorted in parallel. Small inputs are sorted by
+     * {@link #sorted()} algorithm.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">stateful intermediate
+     * operation</a>.
+     *
+     * @return the new stream
+     * @see #sorted()
+     * @since 0.6.2
+     */
+    public LongStreamEx radixSorted() {
+        return delegate(new RadixSort.OfLong(spliterator()));
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream sorted
      * according to the given comparator. Stream elements are boxed before
@@ -768,11 +825,25 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
 
     @Override
     public long[] toArray() {
-        if (context.fjp != null)
-            return context.terminate(stream()::toArray);
+        if (isParallel()) {
+            if (context.fjp != null)
+                return context.terminate(this::parallelToArray);
+            return parallelToArray();
+        }
         return stream().toArray();
     }
 
+    private long[] parallelToArray() {
+        // the spliterator is requested inside the custom pool (if any), as
+        // stateful intermediate operations are evaluated at this point
+        Spliterator.OfLong spliterator = spliterator();
+        LongStream stream = StreamSupport.longStream(spliterator, true);
+        if (!spliterator.hasCharacteristics(Spliterator.SUBSIZED))
+            return stream.collect(SegmentList.OfLong::new, SegmentList.OfLong::add, SegmentList.OfLong::addAll)
+                    .toArray();
+        return stream.toArray();
+    }
+
     @Override
     public long reduce(long identity, LongBinaryOperator op) {
         if (context.fjp != null)
@@ -1508,7 +1579,88 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
      * @since 0.2.1
      */
     public LongStreamEx pairMap(LongBinaryOperator mapper) {
-        return delegate(new PairSpliterator.PSOfLong(mapper, null, spliterator(), PairSpliterator.MODE_PAIRS));
+        Spliterator.OfLong spliterator = spliterator();
+        if (spliterator instanceof RangeBasedSpliterator.OfLong)
+            return delegate(((RangeBasedSpliterator.OfLong) spliterator).pairMap(mapper));
+        return delegate(new PairSpliterator.PSOfLong(mapper, null, spliterator, PairSpliterator.MODE_PAIRS));
+    }
+
+    /**
+     * Merge series of adjacent elements which satisfy the given predicate using
+     * the merger function and return a new stream.
+     * 
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate</a>
+     * partial reduction operation.
+     * 
+     * <p>
+     * This operation is equivalent to
+     * {@code boxed().collapse(collapsible, merger).mapToLong(x -> x)}, but
+     * the elements are not boxed: only one object per series of adjacent
+     * elements is created. Like in
+     * {@link StreamEx#collapse(BiPredicate, BinaryOperator)} the series which
+     * cross the boundaries of parallel splits are merged properly.
+     * 
+     * @param collapsible a non-interfering, stateless predicate to apply to the
+     *        pair of adjacent elements of the input stream which returns true
+     *        for elements which are collapsible.
+     * @param merger a non-interfering, stateless, associative function to merge
+     *        two adjacent elements for which collapsible predicate returned
+     *        true. Note that it can be applied to the results if previous
+     *        merges.
+     * @return the new stream
+     * @since 0.6.2
+     */
+    public LongStreamEx collapse(LongBiPredicate collapsible, LongBinaryOperator merger) {
+        return new StreamEx<>(RunSpliterator.collapse(spliterator(), collapsible, merger, false), context).mapToLong(
+            r -> r.acc);
+    }
+
+    /**
+     * Collapses adjacent equal elements and returns an {@link EntryStream}
+     * where keys are input elements and values specify how many elements were
+     * collapsed.
+     * 
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate</a>
+     * partial reduction operation.
+     * 
+     * <p>
+     * This operation is equivalent to {@code boxed().runLengths()}, but the
+     * input elements are not boxed: only the resulting entries are created.
+     * 
+     * @return the new stream
+     * @see StreamEx#runLengths()
+     * @since 0.6.2
+     */
+    public EntryStream<Long, Long> runLengths() {
+        return new EntryStream<>(new StreamEx<>(RunSpliterator.collapse(spliterator(), (a, b) -> a == b, null, false),
+                context).map(r -> new ObjLongBox<>(r.first, r.count)), context);
+    }
+
+    /**
+     * Returns a stream consisting of arrays of elements of this stream where
+     * adjacent elements are grouped according to supplied predicate.
+     * 
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate</a>
+     * partial reduction operation.
+     * 
+     * <p>
+     * This operation is similar to {@code boxed().groupRuns(sameGroup)}, but
+     * the elements are not boxed and every group is represented as the
+     * {@code long[]} array of the exact length.
+     * 
+     * @param sameGroup a non-interfering, stateless predicate to apply to the
+     *        pair of adjacent elements which returns true for elements which
+     *        belong to the same group.
+     * @return the new stream
+     * @see StreamEx#groupRuns(BiPredicate)
+     * @since 0.6.2
+     */
+    public StreamEx<long[]> groupRuns(LongBiPredicate sameGroup) {
+        return new StreamEx<>(RunSpliterator.collapse(spliterator(), sameGroup, null, true), context).map(
+            r -> r.values);
     }
 
     /**
@@ -1651,6 +1803,12 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
      * process elements strictly left to right. Using an unordered source or
      * removing the ordering constraint with {@link #unordered()} may improve
      * the parallel processing speed.
+     * 
+     * <p>
+     * The parallel stream created directly from the array (like
+     * {@code LongStreamEx.of(array).parallel().prefix(op)}) is an exception: it
+     * scans in two passes computing the totals of the array blocks first, so
+     * it scales with the number of processors.
      *
      * @param op an <a
      *        href="package-summary.html#Associativity">associative</a>, <a
@@ -1662,7 +1820,124 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
      * @since 0.6.1
      */
     public LongStreamEx prefix(LongBinaryOperator op) {
-        return delegate(new PrefixOps.OfLong(spliterator(), op));
+        Spliterator.OfLong spliterator = spliterator();
+        if (spliterator instanceof RangeBasedSpliterator.OfLong)
+            return delegate(((RangeBasedSpliterator.OfLong) spliterator).prefix(op));
+        return delegate(new PrefixOps.OfLong(spliterator, op));
+    }
+
+    /**
+     * Returns a stream consisting of the sums of every window of
+     * {@code width} adjacent elements of this stream.
+     * 
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     * 
+     * <p>
+     * Only the full windows are considered, so the resulting stream contains
+     * {@code width - 1} elements less than this stream or no elements if this
+     * stream contains less than {@code width} elements.
+     * 
+     * <p>
+     * The results are computed incrementally, so the whole operation takes
+     * {@code O(n)} time regardless of the window width.
+     * 
+     * @param width the number of adjacent elements in every window, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if width is not positive
+     * @since 0.6.2
+     */
+    public LongStreamEx windowSum(int width) {
+        return window(width, WindowSpliterator.SUM);
+    }
+
+    /**
+     * Returns a stream consisting of the minimal elements of every window of
+     * {@code width} adjacent elements of this stream.
+     * 
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     * 
+     * <p>
+     * Only the full windows are considered, so the resulting stream contains
+     * {@code width - 1} elements less than this stream or no elements if this
+     * stream contains less than {@code width} elements.
+     * 
+     * <p>
+     * The results are computed incrementally, so the whole operation takes
+     * {@code O(n)} time regardless of the window width.
+     * 
+     * @param width the number of adjacent elements in every window, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if width is not positive
+     * @since 0.6.2
+     */
+    public LongStreamEx windowMin(int width) {
+        return window(width, WindowSpliterator.MIN);
+    }
+
+    /**
+     * Returns a stream consisting of the maximal elements of every window of
+     * {@code width} adjacent elements of this stream.
+     * 
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     * 
+     * <p>
+     * Only the full windows are considered, so the resulting stream contains
+     * {@code width - 1} elements less than this stream or no elements if this
+     * stream contains less than {@code width} elements.
+     * 
+     * <p>
+     * The results are computed incrementally, so the whole operation takes
+     * {@code O(n)} time regardless of the window width.
+     * 
+     * @param width the number of adjacent elements in every window, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if width is not positive
+     * @since 0.6.2
+     */
+    public LongStreamEx windowMax(int width) {
+        return window(width, WindowSpliterator.MAX);
+    }
+
+    /**
+     * Returns a stream consisting of the arithmetic means of every window of
+     * {@code width} adjacent elements of this stream.
+     * 
+     * <p>
+     * This is a stateful <a
+     * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
+     * 
+     * <p>
+     * Only the full windows are considered, so the resulting stream contains
+     * {@code width - 1} elements less than this stream or no elements if this
+     * stream contains less than {@code width} elements.
+     * 
+     * <p>
+     * The results are computed incrementally, so the whole operation takes
+     * {@code O(n)} time regardless of the window width.
+     * 
+     * @param width the number of adjacent elements in every window, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if width is not positive
+     * @since 0.6.2
+     */
+    public DoubleStreamEx windowAverage(int width) {
+        return windowSum(width).asDoubleStream().map(s -> s / width);
+    }
+
+    private LongStreamEx window(int width, int op) {
+        if (width <= 0)
+            throw new IllegalArgumentException("width = " + width);
+        return delegate(new WindowSpliterator.OfLong(spliterator(), width, op));
     }
 
     // Necessary to generate proper JavaDoc
@@ -1699,7 +1974,7 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
      * @return the new stream
      */
     public static LongStreamEx of(long... elements) {
-        return of(Arrays.spliterator(elements));
+        return of(new RangeBasedSpliterator.OfLong(0, elements.length, elements));
     }
 
     /**
@@ -1718,7 +1993,8 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
      * @see Arrays#stream(long[], int, int)
      */
     public static LongStreamEx of(long[] array, int startInclusive, int endExclusive) {
-        return of(Arrays.spliterator(array, startInclusive, endExclusive));
+        rangeCheck(array.length, startInclusive, endExclusive);
+        return of(new RangeBasedSpliterator.OfLong(startInclusive, endExclusive, array));
     }
 
     /**
@@ -2185,6 +2461,28 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
         return of(new RangeBasedSpliterator.ZipLong(0, checkLength(first.length, second.length), mapper, first, second));
     }
 
+    /**
+     * Represents a predicate of two {@code long}-valued arguments. This is the
+     * {@code long}-consuming primitive specialization of
+     * {@link BiPredicate}.
+     * 
+     * @author Tagir Valeev
+     *
+     * @since 0.6.2
+     */
+    @FunctionalInterface
+    public interface LongBiPredicate {
+        /**
+         * Evaluates this predicate on the given arguments.
+         * 
+         * @param left the first input argument
+         * @param right the second input argument
+         * @return true if the input arguments match the predicate, otherwise
+         *         false
+         */
+        boolean test(long left, long right);
+    }
+
     /**
      * A helper interface to build a new stream by emitting elements and
      * creating new emitters in a chain.
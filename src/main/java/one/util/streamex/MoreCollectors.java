@@ -17,6 +17,7 @@ package one.util.streamex;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -166,6 +167,46 @@ public final class MoreCollectors {
         return Collectors.collectingAndThen(Collectors.mapping(mapper, Collectors.toSet()), Set::size);
     }
 
+    /**
+     * Returns a {@code Collector} which estimates a number of distinct values
+     * the mapper function returns for the stream elements using the
+     * HyperLogLog algorithm.
+     * 
+     * <p>
+     * Unlike {@link #distinctCount(Function)} which stores all the distinct
+     * values, this collector uses the fixed amount of memory:
+     * {@code 2^precision} bytes per thread. The relative standard error of the
+     * result is about {@code 1.04 / sqrt(2^precision)}, e.g. 1.6% for the
+     * precision 12 (4 Kb of memory) or 0.4% for the precision 16 (64 Kb).
+     * 
+     * <p>
+     * Integral numbers, characters and {@code CharSequence} values are hashed
+     * by their contents to 64 bits. Other values are hashed via
+     * {@link Object#hashCode()}, so their cardinalities approaching
+     * {@code 2^32} are underestimated due to the hash collisions.
+     * 
+     * <p>
+     * The returned collector is unordered and works efficiently for parallel
+     * streams: the partial results are merged taking the maximum of every
+     * register. This collector is mostly useful as a downstream collector.
+     * 
+     * @param <T> the type of the input elements
+     * @param mapper a function which classifies input elements.
+     * @param precision the number of index bits, must be between 4 and 18
+     *        inclusive
+     * @return a collector which estimates a number of distinct classes the
+     *         mapper function returns for the stream elements.
+     * @throws IllegalArgumentException if precision is out of bounds
+     * @see IntCollector#approxDistinctCount(int)
+     * @see LongCollector#approxDistinctCount(int)
+     * @since 0.6.2
+     */
+    public static <T> Collector<T, ?, Long> approxDistinctCount(Function<? super T, ?> mapper, int precision) {
+        int p = HyperLogLog.checkPrecision(precision);
+        return Collector.<T, HyperLogLog, Long> of(() -> new HyperLogLog(p), (hll, t) -> hll.add(mapper.apply(t)),
+            HyperLogLog::merge, HyperLogLog::estimate, Characteristics.UNORDERED);
+    }
+
     /**
      * Returns a {@code Collector} which collects into the {@link List} the
      * input elements for which given mapper function returns distinct results.
@@ -723,11 +764,7 @@ public final class MoreCollectors {
                     return list;
                 return new ArrayList<>(list.subList(0, n));
             });
-        return Collector.<T, Limiter<T>, List<T>> of(() -> new Limiter<>(n, comparator), Limiter::put, Limiter::putAll,
-            pq -> {
-                pq.sort();
-                return new ArrayList<>(pq);
-            });
+        return Limiter.collector(n, comparator);
     }
 
     /**
@@ -875,7 +912,8 @@ public final class MoreCollectors {
      */
     public static <T, K extends Enum<K>, A, D> Collector<T, ?, EnumMap<K, D>> groupingByEnum(Class<K> enumClass,
             Function<? super T, K> classifier, Collector<? super T, A, D> downstream) {
-        return groupingBy(classifier, EnumSet.allOf(enumClass), () -> new EnumMap<>(enumClass), downstream);
+        return IndexedGroups.collector(classifier, Arrays.asList(enumClass.getEnumConstants()), Enum::ordinal,
+            () -> new EnumMap<>(enumClass), downstream);
     }
 
     /**
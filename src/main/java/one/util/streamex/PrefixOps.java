@@ -22,6 +22,7 @@ import java.util.Spliterators.AbstractDoubleSpliterator;
 import java.util.Spliterators.AbstractIntSpliterator;
 import java.util.Spliterators.AbstractLongSpliterator;
 import java.util.Spliterators.AbstractSpliterator;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
@@ -299,4 +300,380 @@ import one.util.streamex.StreamExInternals.CloneableSpliterator;
             }
         }
     }
+
+    /**
+     * Totals of the fixed-size blocks of the array range which are shared by
+     * all the splits of the array-based prefix spliterator. This is the first
+     * pass of the parallel scan: the split which starts at the given index
+     * needs the totals of all the blocks before it. Every split claims the
+     * blocks nobody computes yet, so the concurrently traversed splits share
+     * the work and wait only for the blocks being computed by the others
+     * (which never wait themselves during the computation). The second pass
+     * is done by the split itself: it scans its own range starting with the
+     * fold of the preceding block totals.
+     */
+    static abstract class Blocks {
+        private static final int MIN_BLOCK_SIZE = 1 << 12;
+        private static final int MAX_BLOCKS = 1 << 10;
+        private static final int FREE = 0, CLAIMED = 1, DONE = 2;
+
+        final int from;
+        final int blockSize;
+        private final AtomicIntegerArray state;
+
+        Blocks(int from, int to) {
+            this.from = from;
+            this.blockSize = Math.max(MIN_BLOCK_SIZE, (to - from - 1) / MAX_BLOCKS + 1);
+            this.state = new AtomicIntegerArray((to - from - 1) / blockSize + 1);
+        }
+
+        /**
+         * Reduces the elements of the given block and stores the total.
+         * 
+         * @param block block number
+         */
+        abstract void computeTotal(int block);
+
+        /**
+         * Ensures that the totals of the blocks {@code [0, count)} are computed.
+         * 
+         * @param count number of blocks
+         */
+        void ensure(int count) {
+            for (int b = 0; b < count; b++) {
+                claim(b);
+            }
+            for (int b = 0; b < count; b++) {
+                while (!claim(b)) {
+                    Thread.yield();
+                }
+            }
+        }
+
+        private boolean claim(int b) {
+            int st = state.get(b);
+            if (st == DONE)
+                return true;
+            if (st == CLAIMED || !state.compareAndSet(b, FREE, CLAIMED))
+                return false;
+            boolean success = false;
+            try {
+                computeTotal(b);
+                success = true;
+            } finally {
+                // let others retry (and fail) if the operator throws
+                state.set(b, success ? DONE : FREE);
+            }
+            return true;
+        }
+    }
+
+    static final class OfIntArray extends RangeBasedSpliterator<Integer, OfIntArray> implements
+            Spliterator.OfInt {
+        private final int[] array;
+        private final IntBinaryOperator op;
+        private final IntBlocks blocks;
+        private boolean started;
+        private int acc;
+
+        OfIntArray(int fromInclusive, int toExclusive, int[] array, IntBinaryOperator op) {
+            super(fromInclusive, toExclusive);
+            this.array = array;
+            this.op = op;
+            this.blocks = new IntBlocks(fromInclusive, toExclusive, array, op);
+        }
+
+        private void start() {
+            started = true;
+            int from = blocks.from;
+            if (cur == from)
+                return;
+            int blockCount = (cur - from) / blocks.blockSize;
+            blocks.ensure(blockCount);
+            int i = from;
+            if (blockCount > 0) {
+                int[] totals = blocks.totals;
+                acc = totals[0];
+                for (int b = 1; b < blockCount; b++) {
+                    acc = op.applyAsInt(acc, totals[b]);
+                }
+                i += blockCount * blocks.blockSize;
+            } else {
+                acc = array[i++];
+            }
+            for (; i < cur; i++) {
+                acc = op.applyAsInt(acc, array[i]);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (cur >= limit)
+                return false;
+            if (!started)
+                start();
+            int next = array[cur];
+            acc = cur++ == blocks.from ? next : op.applyAsInt(acc, next);
+            action.accept(acc);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int c = cur, l = limit;
+            if (c >= l)
+                return;
+            if (!started)
+                start();
+            int[] a = array;
+            IntBinaryOperator op = this.op;
+            int acc = c == blocks.from ? a[c++] : op.applyAsInt(this.acc, a[c++]);
+            action.accept(acc);
+            while (c < l) {
+                acc = op.applyAsInt(acc, a[c++]);
+                action.accept(acc);
+            }
+            this.acc = acc;
+            cur = l;
+        }
+
+        @Override
+        public OfIntArray trySplit() {
+            return started ? null : super.trySplit();
+        }
+
+        @Override
+        public int characteristics() {
+            return super.characteristics() | IMMUTABLE | NONNULL;
+        }
+    }
+
+    static final class IntBlocks extends Blocks {
+        private final int[] array;
+        private final IntBinaryOperator op;
+        final int[] totals;
+
+        IntBlocks(int from, int to, int[] array, IntBinaryOperator op) {
+            super(from, to);
+            this.array = array;
+            this.op = op;
+            this.totals = new int[(to - from - 1) / blockSize + 1];
+        }
+
+        @Override
+        void computeTotal(int block) {
+            int i = from + block * blockSize, end = i + blockSize;
+            int acc = array[i++];
+            while (i < end) {
+                acc = op.applyAsInt(acc, array[i++]);
+            }
+            totals[block] = acc;
+        }
+    }
+
+    static final class OfLongArray extends RangeBasedSpliterator<Long, OfLongArray> implements
+            Spliterator.OfLong {
+        private final long[] array;
+        private final LongBinaryOperator op;
+        private final LongBlocks blocks;
+        private boolean started;
+        private long acc;
+
+        OfLongArray(int fromInclusive, int toExclusive, long[] array, LongBinaryOperator op) {
+            super(fromInclusive, toExclusive);
+            this.array = array;
+            this.op = op;
+            this.blocks = new LongBlocks(fromInclusive, toExclusive, array, op);
+        }
+
+        private void start() {
+            started = true;
+            int from = blocks.from;
+            if (cur == from)
+                return;
+            int blockCount = (cur - from) / blocks.blockSize;
+            blocks.ensure(blockCount);
+            int i = from;
+            if (blockCount > 0) {
+                long[] totals = blocks.totals;
+                acc = totals[0];
+                for (int b = 1; b < blockCount; b++) {
+                    acc = op.applyAsLong(acc, totals[b]);
+                }
+                i += blockCount * blocks.blockSize;
+            } else {
+                acc = array[i++];
+            }
+            for (; i < cur; i++) {
+                acc = op.applyAsLong(acc, array[i]);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (cur >= limit)
+                return false;
+            if (!started)
+                start();
+            long next = array[cur];
+            acc = cur++ == blocks.from ? next : op.applyAsLong(acc, next);
+            action.accept(acc);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            int c = cur, l = limit;
+            if (c >= l)
+                return;
+            if (!started)
+                start();
+            long[] a = array;
+            LongBinaryOperator op = this.op;
+            long acc = c == blocks.from ? a[c++] : op.applyAsLong(this.acc, a[c++]);
+            action.accept(acc);
+            while (c < l) {
+                acc = op.applyAsLong(acc, a[c++]);
+                action.accept(acc);
+            }
+            this.acc = acc;
+            cur = l;
+        }
+
+        @Override
+        public OfLongArray trySplit() {
+            return started ? null : super.trySplit();
+        }
+
+        @Override
+        public int characteristics() {
+            return super.characteristics() | IMMUTABLE | NONNULL;
+        }
+    }
+
+    static final class LongBlocks extends Blocks {
+        private final long[] array;
+        private final LongBinaryOperator op;
+        final long[] totals;
+
+        LongBlocks(int from, int to, long[] array, LongBinaryOperator op) {
+            super(from, to);
+            this.array = array;
+            this.op = op;
+            this.totals = new long[(to - from - 1) / blockSize + 1];
+        }
+
+        @Override
+        void computeTotal(int block) {
+            int i = from + block * blockSize, end = i + blockSize;
+            long acc = array[i++];
+            while (i < end) {
+                acc = op.applyAsLong(acc, array[i++]);
+            }
+            totals[block] = acc;
+        }
+    }
+
+    static final class OfDoubleArray extends RangeBasedSpliterator<Double, OfDoubleArray> implements
+            Spliterator.OfDouble {
+        private final double[] array;
+        private final DoubleBinaryOperator op;
+        private final DoubleBlocks blocks;
+        private boolean started;
+        private double acc;
+
+        OfDoubleArray(int fromInclusive, int toExclusive, double[] array, DoubleBinaryOperator op) {
+            super(fromInclusive, toExclusive);
+            this.array = array;
+            this.op = op;
+            this.blocks = new DoubleBlocks(fromInclusive, toExclusive, array, op);
+        }
+
+        private void start() {
+            started = true;
+            int from = blocks.from;
+            if (cur == from)
+                return;
+            int blockCount = (cur - from) / blocks.blockSize;
+            blocks.ensure(blockCount);
+            int i = from;
+            if (blockCount > 0) {
+                double[] totals = blocks.totals;
+                acc = totals[0];
+                for (int b = 1; b < blockCount; b++) {
+                    acc = op.applyAsDouble(acc, totals[b]);
+                }
+                i += blockCount * blocks.blockSize;
+            } else {
+                acc = array[i++];
+            }
+            for (; i < cur; i++) {
+                acc = op.applyAsDouble(acc, array[i]);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (cur >= limit)
+                return false;
+            if (!started)
+                start();
+            double next = array[cur];
+            acc = cur++ == blocks.from ? next : op.applyAsDouble(acc, next);
+            action.accept(acc);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            int c = cur, l = limit;
+            if (c >= l)
+                return;
+            if (!started)
+                start();
+            double[] a = array;
+            DoubleBinaryOperator op = this.op;
+            double acc = c == blocks.from ? a[c++] : op.applyAsDouble(this.acc, a[c++]);
+            action.accept(acc);
+            while (c < l) {
+                acc = op.applyAsDouble(acc, a[c++]);
+                action.accept(acc);
+            }
+            this.acc = acc;
+            cur = l;
+        }
+
+        @Override
+        public OfDoubleArray trySplit() {
+            return started ? null : super.trySplit();
+        }
+
+        @Override
+        public int characteristics() {
+            return super.characteristics() | IMMUTABLE | NONNULL;
+        }
+    }
+
+    static final class DoubleBlocks extends Blocks {
+        private final double[] array;
+        private final DoubleBinaryOperator op;
+        final double[] totals;
+
+        DoubleBlocks(int from, int to, double[] array, DoubleBinaryOperator op) {
+            super(from, to);
+            this.array = array;
+            this.op = op;
+            this.totals = new double[(to - from - 1) / blockSize + 1];
+        }
+
+        @Override
+        void computeTotal(int block) {
+            int i = from + block * blockSize, end = i + blockSize;
+            double acc = array[i++];
+            while (i < end) {
+                acc = op.applyAsDouble(acc, array[i++]);
+            }
+            totals[block] = acc;
+        }
+    }
 }
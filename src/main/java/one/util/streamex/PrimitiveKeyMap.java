@@ -0,0 +1,313 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Map with primitive {@code int} or {@code long} keys used as the accumulator
+ * and the result of primitive grouping collectors. Keys are stored unboxed as
+ * {@code long} values and boxed only when the map is accessed via
+ * {@link Map} interface.
+ *
+ * <p>
+ * Entries are stored densely in the insertion order. While the keys span a
+ * small range, the entry index is looked up directly in the array indexed by
+ * {@code key - base}. Once a key far from the others appears, the map switches
+ * to the open-addressing hash table with linear probing (like
+ * {@link CounterTable}) and never switches back.
+ *
+ * <p>
+ * The map does not support removal. It's not thread-safe: in parallel
+ * computations every split uses its own map; maps are combined via
+ * {@link #mergeAll(PrimitiveKeyMap, BinaryOperator)}.
+ *
+ * @param <K> type of the boxed keys ({@code Integer} or {@code Long})
+ * @param <V> type of the values
+ *
+ * @author Tagir Valeev
+ */
+/* package */abstract class PrimitiveKeyMap<K, V> extends AbstractMap<K, V> {
+    private static final int INITIAL_CAPACITY = 16;
+    // the direct array may always span this many keys
+    private static final int MIN_DENSE_SPAN = 1 << 10;
+    // upper bound for the direct array length
+    private static final int MAX_DENSE_SPAN = 1 << 16;
+
+    long[] keys = new long[INITIAL_CAPACITY];
+    Object[] values = new Object[INITIAL_CAPACITY];
+    int size;
+    // dense mode: entry index + 1 for key (base + i) or 0 if absent
+    private int[] direct;
+    private long base, maxKey;
+    // hashing mode (non-null): entry index + 1 or 0 for the free slot; always
+    // at least twice as long as keys
+    private int[] slots;
+
+    abstract K box(long key);
+
+    abstract long unbox(K key);
+
+    /**
+     * @param key object to look up
+     * @return index of the entry with given key or -1 if not found (including
+     *         the case when the key has the wrong type)
+     */
+    abstract int indexOf(Object key);
+
+    final int find(long key) {
+        if (slots == null) {
+            if (direct == null)
+                return -1;
+            long off = key - base;
+            return key >= base && off >= 0 && off < direct.length ? direct[(int) off] - 1 : -1;
+        }
+        int mask = slots.length - 1;
+        int slot = CounterTable.mix(Long.hashCode(key)) & mask;
+        int e;
+        while ((e = slots[slot]) != 0) {
+            if (keys[e - 1] == key)
+                return e - 1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    final V computeIfAbsent(long key, Supplier<? extends V> supplier) {
+        int e = find(key);
+        if (e >= 0)
+            return (V) values[e];
+        V value = supplier.get();
+        insert(key, value);
+        return value;
+    }
+
+    private void insert(long key, Object value) {
+        int entry = size;
+        if (entry == keys.length) {
+            int capacity = entry * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[entry] = key;
+        values[entry] = value;
+        size = entry + 1;
+        if (slots == null) {
+            if (fitDense(key)) {
+                direct[(int) (key - base)] = entry + 1;
+                return;
+            }
+            direct = null;
+            rehash(keys.length * 2);
+        } else if (slots.length < keys.length * 2) {
+            rehash(keys.length * 2);
+        } else {
+            slots[freeSlot(key)] = entry + 1;
+        }
+    }
+
+    /**
+     * Ensures that the direct array covers given key if possible.
+     *
+     * @param key key to be added
+     * @return false if the map should switch to the hashing mode
+     */
+    private boolean fitDense(long key) {
+        if (direct == null) {
+            direct = new int[INITIAL_CAPACITY];
+            base = maxKey = key;
+            return true;
+        }
+        long off = key - base;
+        if (key >= base && off >= 0 && off < direct.length) {
+            maxKey = Math.max(maxKey, key);
+            return true;
+        }
+        long lo = Math.min(base, key), hi = Math.max(maxKey, key);
+        long span = hi - lo;
+        if (span < 0 || span >= Math.min(MAX_DENSE_SPAN, Math.max(MIN_DENSE_SPAN, size * 8L)))
+            return false;
+        int length = Math.min(MAX_DENSE_SPAN, Math.max(direct.length * 2, Integer.highestOneBit((int) span) * 2));
+        direct = new int[length];
+        base = lo;
+        maxKey = hi;
+        for (int i = 0; i < size; i++) {
+            direct[(int) (keys[i] - lo)] = i + 1;
+        }
+        return true;
+    }
+
+    private void rehash(int slotCount) {
+        slots = new int[slotCount];
+        for (int i = 0; i < size; i++) {
+            slots[freeSlot(keys[i])] = i + 1;
+        }
+    }
+
+    private int freeSlot(long key) {
+        int mask = slots.length - 1;
+        int slot = CounterTable.mix(Long.hashCode(key)) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Merges other map into this one (other map becomes unusable after that).
+     *
+     * @param other map to merge
+     * @param merger function to merge the values present in both maps
+     */
+    @SuppressWarnings("unchecked")
+    void mergeAll(PrimitiveKeyMap<K, V> other, BinaryOperator<V> merger) {
+        for (int i = 0; i < other.size; i++) {
+            long key = other.keys[i];
+            int e = find(key);
+            if (e < 0)
+                insert(key, other.values[i]);
+            else
+                values[e] = merger.apply((V) values[e], (V) other.values[i]);
+        }
+    }
+
+    /**
+     * Replaces all the values in-place.
+     *
+     * @param <R> type of the new values
+     * @param mapper function to apply to every value
+     * @return this map with new type of values
+     */
+    @SuppressWarnings("unchecked")
+    <R> PrimitiveKeyMap<K, R> mapValues(Function<? super V, ? extends R> mapper) {
+        for (int i = 0; i < size; i++) {
+            values[i] = mapper.apply((V) values[i]);
+        }
+        return (PrimitiveKeyMap<K, R>) this;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key) {
+        int e = indexOf(key);
+        return e < 0 ? null : (V) values[e];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V put(K key, V value) {
+        long k = unbox(key);
+        int e = find(k);
+        if (e < 0) {
+            insert(k, value);
+            return null;
+        }
+        V old = (V) values[e];
+        values[e] = value;
+        return old;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new Iterator<Map.Entry<K, V>>() {
+                    int i;
+
+                    @Override
+                    public boolean hasNext() {
+                        return i < size;
+                    }
+
+                    @SuppressWarnings({ "unchecked", "serial" })
+                    @Override
+                    public Map.Entry<K, V> next() {
+                        if (i >= size)
+                            throw new NoSuchElementException();
+                        int e = i++;
+                        return new SimpleEntry<K, V>(box(keys[e]), (V) values[e]) {
+                            @Override
+                            public V setValue(V value) {
+                                values[e] = value;
+                                return super.setValue(value);
+                            }
+                        };
+                    }
+                };
+            }
+        };
+    }
+
+    static final class OfInt<V> extends PrimitiveKeyMap<Integer, V> {
+        @Override
+        Integer box(long key) {
+            return (int) key;
+        }
+
+        @Override
+        long unbox(Integer key) {
+            return key;
+        }
+
+        @Override
+        int indexOf(Object key) {
+            return key instanceof Integer ? find((Integer) key) : -1;
+        }
+    }
+
+    static final class OfLong<V> extends PrimitiveKeyMap<Long, V> {
+        @Override
+        Long box(long key) {
+            return key;
+        }
+
+        @Override
+        long unbox(Long key) {
+            return key;
+        }
+
+        @Override
+        int indexOf(Object key) {
+            return key instanceof Long ? find((Long) key) : -1;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Arrays;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * Primitive counterpart of {@link Limiter}: extracts least limit elements
+ * from the input of {@code int}, {@code long} or {@code double} values.
+ *
+ * <p>
+ * All the values are stored as {@code long} keys which natural order
+ * corresponds to the requested order of the values: {@code int} and
+ * {@code long} values are stored as is (or bitwise inverted to select the
+ * greatest elements), {@code double} values are converted to the bits which
+ * are ordered as {@link Double#compare(double, double)} orders the values.
+ * As equal keys are indistinguishable, the stability is not an issue here.
+ *
+ * @author Tagir Valeev
+ */
+/* package */final class PrimitiveLimiter {
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private long[] data;
+    private long[] spare;
+    private final int limit;
+    private final boolean reversed;
+    private int size;
+    private boolean initial = true;
+
+    /**
+     * @param limit maximal number of elements to keep, must be positive
+     * @param reversed if true, the greatest elements are kept
+     */
+    PrimitiveLimiter(int limit, boolean reversed) {
+        this.limit = limit;
+        this.reversed = reversed;
+        this.data = new long[Math.min(1000, limit) * 2];
+    }
+
+    void putInt(int t) {
+        put(reversed ? ~t : t);
+    }
+
+    void putLong(long t) {
+        put(reversed ? ~t : t);
+    }
+
+    void putDouble(double t) {
+        long bits = sortableBits(t);
+        put(reversed ? ~bits : bits);
+    }
+
+    private void put(long key) {
+        if (initial) {
+            if (size == data.length) {
+                if (size < limit * 2L) {
+                    data = Arrays.copyOf(data, (int) Math.min(MAX_ARRAY_SIZE, Math.min(limit, size) * 2L));
+                } else {
+                    Arrays.sort(data);
+                    initial = false;
+                    size = limit;
+                }
+                put(key);
+            } else {
+                data[size++] = key;
+            }
+            return;
+        }
+        if (size == data.length) {
+            sortTail();
+        }
+        if (key < data[limit - 1]) {
+            data[size++] = key;
+        }
+    }
+
+    /**
+     * Merge other {@code PrimitiveLimiter} into this one (other object becomes
+     * unusable after that).
+     *
+     * @param other other object to merge
+     */
+    void putAll(PrimitiveLimiter other) {
+        if (other.size == 0)
+            return;
+        if (size == 0) {
+            data = other.data;
+            size = other.size;
+            initial = other.initial;
+            return;
+        }
+        sort();
+        other.sort();
+        int n1 = size(), n2 = other.size();
+        long[] d1 = data, d2 = other.data;
+        if (n1 == limit && d2[0] >= d1[limit - 1])
+            return;
+        int m = Math.min(limit, n1 + n2);
+        long[] buf = new long[(int) Math.min(MAX_ARRAY_SIZE, m * 2L)];
+        merge(d1, n1, d2, n2, buf, m);
+        data = buf;
+        spare = null;
+        size = m;
+        initial = m < limit;
+    }
+
+    /**
+     * Merges the sorted prefixes of two arrays writing m least elements into
+     * the result.
+     */
+    private static void merge(long[] d1, int n1, long[] d2, int n2, long[] result, int m) {
+        int i = 0, j = 0;
+        for (int k = 0; k < m; k++) {
+            result[k] = j == n2 || i < n1 && d1[i] <= d2[j] ? d1[i++] : d2[j++];
+        }
+    }
+
+    private void sortTail() {
+        // size > limit here
+        Arrays.sort(data, limit, size);
+        if (data[size - 1] < data[0]) {
+            // Common case: descending sequence
+            System.arraycopy(data, 0, data, size - limit, 2 * limit - size);
+            System.arraycopy(data, limit, data, 0, size - limit);
+        } else {
+            if (spare == null)
+                spare = new long[data.length];
+            long[] d = data;
+            int l = limit;
+            int i = 0, j = l;
+            for (int k = 0; k < l; k++) {
+                spare[k] = j == size || d[i] <= d[j] ? d[i++] : d[j++];
+            }
+            data = spare;
+            spare = d;
+        }
+        size = limit;
+    }
+
+    /**
+     * Must be called after accumulation is finished.
+     */
+    void sort() {
+        if (initial)
+            Arrays.sort(data, 0, size);
+        else if (size > limit)
+            sortTail();
+    }
+
+    int size() {
+        return initial && size < limit ? size : limit;
+    }
+
+    private long[] keys() {
+        sort();
+        return Arrays.copyOf(data, size());
+    }
+
+    int[] toIntArray() {
+        long[] keys = keys();
+        int[] result = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            result[i] = (int) (reversed ? ~keys[i] : keys[i]);
+        }
+        return result;
+    }
+
+    long[] toLongArray() {
+        long[] keys = keys();
+        if (reversed) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = ~keys[i];
+            }
+        }
+        return keys;
+    }
+
+    double[] toDoubleArray() {
+        long[] keys = keys();
+        double[] result = new double[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            result[i] = fromSortableBits(reversed ? ~keys[i] : keys[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Stable LSD radix sort of {@code long} keys (optionally accompanied by the
+ * {@code int} payload which is permuted together with the keys) processing
+ * eight bits per pass. The passes where all the keys have the same digit are
+ * skipped, so narrow keys are sorted in fewer passes. In parallel mode the
+ * most significant digit is processed first (MSD pass): the input is split
+ * into chunks, every chunk is scattered to the buckets independently and the
+ * buckets are sorted by the remaining digits in parallel.
+ *
+ * <p>
+ * Radix sort is beneficial only for big inputs, so the callers should fall
+ * back to the comparison sort if the input is shorter than
+ * {@link #THRESHOLD}.
+ *
+ * @author Tagir Valeev
+ */
+/* package */final class RadixSort {
+    static final int THRESHOLD = 1 << 12;
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int MASK = RADIX - 1;
+
+    private RadixSort() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Sorts given keys in signed order considering only the lowest
+     * {@code bits} bits of every key. The sort is stable.
+     *
+     * @param keys keys to sort
+     * @param payload array of the same length which is permuted together with
+     *        keys or null
+     * @param bits number of significant bits in keys (32 or 64), the highest
+     *        of them is the sign bit
+     * @param parallel whether to sort in parallel
+     */
+    static void sort(long[] keys, int[] payload, int bits, boolean parallel) {
+        int n = keys.length;
+        int digits = bits / RADIX_BITS;
+        long flip = 1L << (bits - 1);
+        long[] keyBuf = new long[n];
+        int[] payloadBuf = payload == null ? null : new int[n];
+        if (!parallel || n < THRESHOLD * 2) {
+            lsd(keys, payload, keyBuf, payloadBuf, 0, n, digits, flip);
+            return;
+        }
+        int shift = (digits - 1) * RADIX_BITS;
+        int chunks = Math.max(2, Math.min(n / THRESHOLD, parallelism() * 4));
+        int chunkSize = (n - 1) / chunks + 1;
+        int[][] offsets = new int[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] count = new int[RADIX];
+            for (int i = c * chunkSize, to = Math.min(n, i + chunkSize); i < to; i++) {
+                count[digit(keys[i], flip, shift)]++;
+            }
+            offsets[c] = count;
+        });
+        int[] bucketStarts = new int[RADIX + 1];
+        int pos = 0;
+        for (int b = 0; b < RADIX; b++) {
+            bucketStarts[b] = pos;
+            for (int c = 0; c < chunks; c++) {
+                int cnt = offsets[c][b];
+                offsets[c][b] = pos;
+                pos += cnt;
+            }
+        }
+        bucketStarts[RADIX] = n;
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] offset = offsets[c];
+            for (int i = c * chunkSize, to = Math.min(n, i + chunkSize); i < to; i++) {
+                int dest = offset[digit(keys[i], flip, shift)]++;
+                keyBuf[dest] = keys[i];
+                if (payload != null)
+                    payloadBuf[dest] = payload[i];
+            }
+        });
+        IntStream.range(0, RADIX).parallel().forEach(b -> {
+            int from = bucketStarts[b], to = bucketStarts[b + 1];
+            if (from == to)
+                return;
+            lsd(keyBuf, payloadBuf, keys, payload, from, to, digits - 1, flip);
+            System.arraycopy(keyBuf, from, keys, from, to - from);
+            if (payload != null)
+                System.arraycopy(payloadBuf, from, payload, from, to - from);
+        });
+    }
+
+    /**
+     * Sorts the range of the {@code keys} array by the lowest {@code digits}
+     * digits using the same range of buffer arrays as the temporary storage.
+     * The result is stored in the {@code keys} and {@code payload} arrays.
+     */
+    private static void lsd(long[] keys, int[] payload, long[] keyBuf, int[] payloadBuf, int from, int to,
+            int digits, long flip) {
+        int[][] counts = new int[digits][RADIX];
+        for (int i = from; i < to; i++) {
+            long key = keys[i] ^ flip;
+            for (int d = 0; d < digits; d++) {
+                counts[d][(int) (key >>> (d * RADIX_BITS)) & MASK]++;
+            }
+        }
+        long[] src = keys, dst = keyBuf;
+        int[] srcPayload = payload, dstPayload = payloadBuf;
+        int size = to - from;
+        for (int d = 0; d < digits; d++) {
+            int[] count = counts[d];
+            int shift = d * RADIX_BITS;
+            if (count[digit(src[from], flip, shift)] == size)
+                continue;
+            int pos = from;
+            for (int b = 0; b < RADIX; b++) {
+                int cnt = count[b];
+                count[b] = pos;
+                pos += cnt;
+            }
+            for (int i = from; i < to; i++) {
+                int dest = count[digit(src[i], flip, shift)]++;
+                dst[dest] = src[i];
+                if (srcPayload != null)
+                    dstPayload[dest] = srcPayload[i];
+            }
+            long[] t = src;
+            src = dst;
+            dst = t;
+            int[] tp = srcPayload;
+            srcPayload = dstPayload;
+            dstPayload = tp;
+        }
+        if (src != keys) {
+            System.arraycopy(src, from, keys, from, size);
+            if (payload != null)
+                System.arraycopy(srcPayload, from, payload, from, size);
+        }
+    }
+
+    private static int digit(long key, long flip, int shift) {
+        return (int) ((key ^ flip) >>> shift) & MASK;
+    }
+
+    private static int parallelism() {
+        return ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool().getParallelism() : ForkJoinPool
+                .getCommonPoolParallelism();
+    }
+
+    static int[] sorted(int[] values, boolean parallel) {
+        int n = values.length;
+        if (n < THRESHOLD) {
+            Arrays.sort(values);
+            return values;
+        }
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = values[i];
+        }
+        sort(keys, null, Integer.SIZE, parallel);
+        for (int i = 0; i < n; i++) {
+            values[i] = (int) keys[i];
+        }
+        return values;
+    }
+
+    static long[] sorted(long[] values, boolean parallel) {
+        if (values.length < THRESHOLD) {
+            Arrays.sort(values);
+        } else {
+            sort(values, null, Long.SIZE, parallel);
+        }
+        return values;
+    }
+
+    static final class OfInt implements Spliterator.OfInt {
+        private Spliterator.OfInt source;
+        private Spliterator.OfInt sorted;
+        private final int characteristics;
+
+        OfInt(Spliterator.OfInt source) {
+            this.source = source;
+            this.characteristics = ORDERED | SORTED | NONNULL | (source.characteristics() & (SIZED | DISTINCT));
+        }
+
+        private Spliterator.OfInt sorted(boolean parallel) {
+            if (sorted == null) {
+                int[] values = StreamSupport.intStream(source, parallel).toArray();
+                source = null;
+                sorted = Spliterators.spliterator(RadixSort.sorted(values, parallel), characteristics);
+            }
+            return sorted;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            return sorted(false).tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            sorted(false).forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            return sorted(true).trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return sorted == null ? source.estimateSize() : sorted.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return null;
+        }
+    }
+
+    static final class OfLong implements Spliterator.OfLong {
+        private Spliterator.OfLong source;
+        private Spliterator.OfLong sorted;
+        private final int characteristics;
+
+        OfLong(Spliterator.OfLong source) {
+            this.source = source;
+            this.characteristics = ORDERED | SORTED | NONNULL | (source.characteristics() & (SIZED | DISTINCT));
+        }
+
+        private Spliterator.OfLong sorted(boolean parallel) {
+            if (sorted == null) {
+                long[] values = StreamSupport.longStream(source, parallel).toArray();
+                source = null;
+                sorted = Spliterators.spliterator(RadixSort.sorted(values, parallel), characteristics);
+            }
+            return sorted;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            return sorted(false).tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            sorted(false).forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            return sorted(true).trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return sorted == null ? source.estimateSize() : sorted.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return null;
+        }
+    }
+}
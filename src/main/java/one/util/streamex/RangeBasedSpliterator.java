@@ -373,4 +373,283 @@ import static one.util.streamex.StreamExInternals.*;
             cur = limit;
         }
     }
+
+    static final class OfInt extends RangeBasedSpliterator<Integer, OfInt> implements Spliterator.OfInt {
+        private final int[] array;
+
+        public OfInt(int fromInclusive, int toExclusive, int[] array) {
+            super(fromInclusive, toExclusive);
+            this.array = array;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (cur < limit) {
+                action.accept(array[cur]);
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int l = limit, c = cur;
+            while (c < l) {
+                action.accept(array[c++]);
+            }
+            cur = limit;
+        }
+
+        @Override
+        public int characteristics() {
+            return super.characteristics() | Spliterator.IMMUTABLE;
+        }
+
+        /**
+         * @param mapper function to apply to every adjacent pair
+         * @return the spliterator over the results of the mapper applied to
+         *         every adjacent pair of the remaining elements
+         */
+        PairInt pairMap(IntBinaryOperator mapper) {
+            return new PairInt(cur, Math.max(cur, limit - 1), mapper, array);
+        }
+
+        /**
+         * @param op associative operator
+         * @return the spliterator over the prefix results of the remaining
+         *         elements which supports the parallel scan
+         */
+        PrefixOps.OfIntArray prefix(IntBinaryOperator op) {
+            return new PrefixOps.OfIntArray(cur, limit, array, op);
+        }
+    }
+
+    /**
+     * Applies the mapper to the pairs of adjacent array elements: the element
+     * at index {@code i} is paired with the one at {@code i + 1}, so the splits
+     * don't need to exchange the boundary elements.
+     */
+    static final class PairInt extends RangeBasedSpliterator<Integer, PairInt> implements Spliterator.OfInt {
+        private final IntBinaryOperator mapper;
+        private final int[] array;
+
+        public PairInt(int fromInclusive, int toExclusive, IntBinaryOperator mapper, int[] array) {
+            super(fromInclusive, toExclusive);
+            this.mapper = mapper;
+            this.array = array;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (cur < limit) {
+                action.accept(mapper.applyAsInt(array[cur], array[cur + 1]));
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            IntBinaryOperator m = mapper;
+            int[] a = array;
+            int l = limit, c = cur;
+            if (c < l) {
+                int prev = a[c];
+                while (c < l) {
+                    int next = a[++c];
+                    action.accept(m.applyAsInt(prev, next));
+                    prev = next;
+                }
+            }
+            cur = limit;
+        }
+    }
+
+    static final class OfLong extends RangeBasedSpliterator<Long, OfLong> implements Spliterator.OfLong {
+        private final long[] array;
+
+        public OfLong(int fromInclusive, int toExclusive, long[] array) {
+            super(fromInclusive, toExclusive);
+            this.array = array;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (cur < limit) {
+                action.accept(array[cur]);
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            int l = limit, c = cur;
+            while (c < l) {
+                action.accept(array[c++]);
+            }
+            cur = limit;
+        }
+
+        @Override
+        public int characteristics() {
+            return super.characteristics() | Spliterator.IMMUTABLE;
+        }
+
+        /**
+         * @param mapper function to apply to every adjacent pair
+         * @return the spliterator over the results of the mapper applied to
+         *         every adjacent pair of the remaining elements
+         */
+        PairLong pairMap(LongBinaryOperator mapper) {
+            return new PairLong(cur, Math.max(cur, limit - 1), mapper, array);
+        }
+
+        /**
+         * @param op associative operator
+         * @return the spliterator over the prefix results of the remaining
+         *         elements which supports the parallel scan
+         */
+        PrefixOps.OfLongArray prefix(LongBinaryOperator op) {
+            return new PrefixOps.OfLongArray(cur, limit, array, op);
+        }
+    }
+
+    /**
+     * Applies the mapper to the pairs of adjacent array elements: the element
+     * at index {@code i} is paired with the one at {@code i + 1}, so the splits
+     * don't need to exchange the boundary elements.
+     */
+    static final class PairLong extends RangeBasedSpliterator<Long, PairLong> implements Spliterator.OfLong {
+        private final LongBinaryOperator mapper;
+        private final long[] array;
+
+        public PairLong(int fromInclusive, int toExclusive, LongBinaryOperator mapper, long[] array) {
+            super(fromInclusive, toExclusive);
+            this.mapper = mapper;
+            this.array = array;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (cur < limit) {
+                action.accept(mapper.applyAsLong(array[cur], array[cur + 1]));
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            LongBinaryOperator m = mapper;
+            long[] a = array;
+            int l = limit, c = cur;
+            if (c < l) {
+                long prev = a[c];
+                while (c < l) {
+                    long next = a[++c];
+                    action.accept(m.applyAsLong(prev, next));
+                    prev = next;
+                }
+            }
+            cur = limit;
+        }
+    }
+
+    static final class OfDouble extends RangeBasedSpliterator<Double, OfDouble> implements Spliterator.OfDouble {
+        private final double[] array;
+
+        public OfDouble(int fromInclusive, int toExclusive, double[] array) {
+            super(fromInclusive, toExclusive);
+            this.array = array;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (cur < limit) {
+                action.accept(array[cur]);
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            int l = limit, c = cur;
+            while (c < l) {
+                action.accept(array[c++]);
+            }
+            cur = limit;
+        }
+
+        @Override
+        public int characteristics() {
+            return super.characteristics() | Spliterator.IMMUTABLE;
+        }
+
+        /**
+         * @param mapper function to apply to every adjacent pair
+         * @return the spliterator over the results of the mapper applied to
+         *         every adjacent pair of the remaining elements
+         */
+        PairDouble pairMap(DoubleBinaryOperator mapper) {
+            return new PairDouble(cur, Math.max(cur, limit - 1), mapper, array);
+        }
+
+        /**
+         * @param op associative operator
+         * @return the spliterator over the prefix results of the remaining
+         *         elements which supports the parallel scan
+         */
+        PrefixOps.OfDoubleArray prefix(DoubleBinaryOperator op) {
+            return new PrefixOps.OfDoubleArray(cur, limit, array, op);
+        }
+    }
+
+    /**
+     * Applies the mapper to the pairs of adjacent array elements: the element
+     * at index {@code i} is paired with the one at {@code i + 1}, so the splits
+     * don't need to exchange the boundary elements.
+     */
+    static final class PairDouble extends RangeBasedSpliterator<Double, PairDouble> implements Spliterator.OfDouble {
+        private final DoubleBinaryOperator mapper;
+        private final double[] array;
+
+        public PairDouble(int fromInclusive, int toExclusive, DoubleBinaryOperator mapper, double[] array) {
+            super(fromInclusive, toExclusive);
+            this.mapper = mapper;
+            this.array = array;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (cur < limit) {
+                action.accept(mapper.applyAsDouble(array[cur], array[cur + 1]));
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            DoubleBinaryOperator m = mapper;
+            double[] a = array;
+            int l = limit, c = cur;
+            if (c < l) {
+                double prev = a[c];
+                while (c < l) {
+                    double next = a[++c];
+                    action.accept(m.applyAsDouble(prev, next));
+                    prev = next;
+                }
+            }
+            cur = limit;
+        }
+    }
 }
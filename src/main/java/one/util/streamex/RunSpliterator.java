@@ -0,0 +1,360 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+
+import one.util.streamex.IntStreamEx.IntBiPredicate;
+import one.util.streamex.LongStreamEx.LongBiPredicate;
+
+/**
+ * Spliterator which groups the adjacent elements of the primitive source into
+ * runs without boxing them.
+ *
+ * <p>
+ * The runs produced by a single spliterator are maximal, so only the runs
+ * adjacent to the split boundaries may need to be merged further. This is done
+ * by wrapping the run spliterator into the {@link CollapseSpliterator} (see
+ * {@code collapse} methods) which keeps the parallel-boundary semantics of the
+ * object streams while dealing with one object per run instead of one object
+ * per element. The run objects are immutable, merging creates a new one.
+ *
+ * @author Tagir Valeev
+ */
+/* package */abstract class RunSpliterator<R> implements Spliterator<R> {
+    private static final int INITIAL_BUFFER_SIZE = 16;
+
+    boolean hasNext;
+
+    abstract long sourceSize();
+
+    @Override
+    public long estimateSize() {
+        long size = sourceSize();
+        return hasNext && size < Long.MAX_VALUE ? size + 1 : size;
+    }
+
+    static final class IntRun {
+        final int first, last, acc;
+        final long count;
+        final int[] values;
+
+        IntRun(int first, int last, int acc, long count, int[] values) {
+            this.first = first;
+            this.last = last;
+            this.acc = acc;
+            this.count = count;
+            this.values = values;
+        }
+
+        IntRun merge(IntRun other, IntBinaryOperator merger) {
+            int[] values = null;
+            if (this.values != null) {
+                values = Arrays.copyOf(this.values, this.values.length + other.values.length);
+                System.arraycopy(other.values, 0, values, this.values.length, other.values.length);
+            }
+            return new IntRun(first, other.last, merger == null ? acc : merger.applyAsInt(acc, other.acc), count
+                + other.count, values);
+        }
+    }
+
+    static final class LongRun {
+        final long first, last, acc;
+        final long count;
+        final long[] values;
+
+        LongRun(long first, long last, long acc, long count, long[] values) {
+            this.first = first;
+            this.last = last;
+            this.acc = acc;
+            this.count = count;
+            this.values = values;
+        }
+
+        LongRun merge(LongRun other, LongBinaryOperator merger) {
+            long[] values = null;
+            if (this.values != null) {
+                values = Arrays.copyOf(this.values, this.values.length + other.values.length);
+                System.arraycopy(other.values, 0, values, this.values.length, other.values.length);
+            }
+            return new LongRun(first, other.last, merger == null ? acc : merger.applyAsLong(acc, other.acc), count
+                + other.count, values);
+        }
+    }
+
+    /**
+     * @param source source spliterator
+     * @param sameGroup predicate which returns true for the adjacent elements
+     *        of the same run
+     * @param merger operator to reduce the run elements into {@code acc} or
+     *        null if not necessary
+     * @param keepValues whether the run elements should be collected into
+     *        {@code values} array
+     * @return the spliterator of the runs
+     */
+    static Spliterator<IntRun> collapse(Spliterator.OfInt source, IntBiPredicate sameGroup,
+            IntBinaryOperator merger, boolean keepValues) {
+        BinaryOperator<IntRun> combiner = (r1, r2) -> r1.merge(r2, merger);
+        return new CollapseSpliterator<IntRun, IntRun>((r1, r2) -> sameGroup.test(r1.last, r2.first), Function
+                .identity(), combiner, combiner, new OfInt(source, sameGroup, merger, keepValues));
+    }
+
+    /**
+     * @param source source spliterator
+     * @param sameGroup predicate which returns true for the adjacent elements
+     *        of the same run
+     * @param merger operator to reduce the run elements into {@code acc} or
+     *        null if not necessary
+     * @param keepValues whether the run elements should be collected into
+     *        {@code values} array
+     * @return the spliterator of the runs
+     */
+    static Spliterator<LongRun> collapse(Spliterator.OfLong source, LongBiPredicate sameGroup,
+            LongBinaryOperator merger, boolean keepValues) {
+        BinaryOperator<LongRun> combiner = (r1, r2) -> r1.merge(r2, merger);
+        return new CollapseSpliterator<LongRun, LongRun>((r1, r2) -> sameGroup.test(r1.last, r2.first), Function
+                .identity(), combiner, combiner, new OfLong(source, sameGroup, merger, keepValues));
+    }
+
+    static final class OfInt extends RunSpliterator<IntRun> implements IntConsumer {
+        private final Spliterator.OfInt source;
+        private final IntBiPredicate sameGroup;
+        private final IntBinaryOperator merger;
+        private final boolean keepValues;
+        private int next;
+        private boolean inRun;
+        private int first, last, acc, size;
+        private long count;
+        private int[] buf;
+
+        OfInt(Spliterator.OfInt source, IntBiPredicate sameGroup, IntBinaryOperator merger, boolean keepValues) {
+            this.source = source;
+            this.sameGroup = sameGroup;
+            this.merger = merger;
+            this.keepValues = keepValues;
+        }
+
+        @Override
+        public void accept(int t) {
+            next = t;
+        }
+
+        private void start(int t) {
+            first = last = acc = t;
+            count = 1;
+            if (keepValues) {
+                if (buf == null)
+                    buf = new int[INITIAL_BUFFER_SIZE];
+                buf[0] = t;
+                size = 1;
+            }
+        }
+
+        private void add(int t) {
+            last = t;
+            count++;
+            if (merger != null)
+                acc = merger.applyAsInt(acc, t);
+            if (keepValues) {
+                if (size == buf.length)
+                    buf = Arrays.copyOf(buf, size * 2);
+                buf[size++] = t;
+            }
+        }
+
+        private IntRun finish() {
+            return new IntRun(first, last, acc, count, keepValues ? Arrays.copyOf(buf, size) : null);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super IntRun> action) {
+            if (!hasNext && !source.tryAdvance(this))
+                return false;
+            start(next);
+            hasNext = false;
+            while (source.tryAdvance(this)) {
+                if (!sameGroup.test(last, next)) {
+                    hasNext = true;
+                    break;
+                }
+                add(next);
+            }
+            action.accept(finish());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super IntRun> action) {
+            if (hasNext) {
+                start(next);
+                hasNext = false;
+                inRun = true;
+            }
+            source.forEachRemaining((int t) -> {
+                if (!inRun) {
+                    start(t);
+                    inRun = true;
+                } else if (sameGroup.test(last, t)) {
+                    add(t);
+                } else {
+                    action.accept(finish());
+                    start(t);
+                }
+            });
+            if (inRun) {
+                inRun = false;
+                action.accept(finish());
+            }
+        }
+
+        @Override
+        public Spliterator<IntRun> trySplit() {
+            if (hasNext)
+                return null;
+            Spliterator.OfInt prefix = source.trySplit();
+            return prefix == null ? null : new OfInt(prefix, sameGroup, merger, keepValues);
+        }
+
+        @Override
+        long sourceSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & (ORDERED | IMMUTABLE | CONCURRENT) | NONNULL;
+        }
+    }
+
+    static final class OfLong extends RunSpliterator<LongRun> implements LongConsumer {
+        private final Spliterator.OfLong source;
+        private final LongBiPredicate sameGroup;
+        private final LongBinaryOperator merger;
+        private final boolean keepValues;
+        private long next;
+        private boolean inRun;
+        private long first, last, acc;
+        private long count;
+        private long[] buf;
+        private int size;
+
+        OfLong(Spliterator.OfLong source, LongBiPredicate sameGroup, LongBinaryOperator merger, boolean keepValues) {
+            this.source = source;
+            this.sameGroup = sameGroup;
+            this.merger = merger;
+            this.keepValues = keepValues;
+        }
+
+        @Override
+        public void accept(long t) {
+            next = t;
+        }
+
+        private void start(long t) {
+            first = last = acc = t;
+            count = 1;
+            if (keepValues) {
+                if (buf == null)
+                    buf = new long[INITIAL_BUFFER_SIZE];
+                buf[0] = t;
+                size = 1;
+            }
+        }
+
+        private void add(long t) {
+            last = t;
+            count++;
+            if (merger != null)
+                acc = merger.applyAsLong(acc, t);
+            if (keepValues) {
+                if (size == buf.length)
+                    buf = Arrays.copyOf(buf, size * 2);
+                buf[size++] = t;
+            }
+        }
+
+        private LongRun finish() {
+            return new LongRun(first, last, acc, count, keepValues ? Arrays.copyOf(buf, size) : null);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super LongRun> action) {
+            if (!hasNext && !source.tryAdvance(this))
+                return false;
+            start(next);
+            hasNext = false;
+            while (source.tryAdvance(this)) {
+                if (!sameGroup.test(last, next)) {
+                    hasNext = true;
+                    break;
+                }
+                add(next);
+            }
+            action.accept(finish());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super LongRun> action) {
+            if (hasNext) {
+                start(next);
+                hasNext = false;
+                inRun = true;
+            }
+            source.forEachRemaining((long t) -> {
+                if (!inRun) {
+                    start(t);
+                    inRun = true;
+                } else if (sameGroup.test(last, t)) {
+                    add(t);
+                } else {
+                    action.accept(finish());
+                    start(t);
+                }
+            });
+            if (inRun) {
+                inRun = false;
+                action.accept(finish());
+            }
+        }
+
+        @Override
+        public Spliterator<LongRun> trySplit() {
+            if (hasNext)
+                return null;
+            Spliterator.OfLong prefix = source.trySplit();
+            return prefix == null ? null : new OfLong(prefix, sameGroup, merger, keepValues);
+        }
+
+        @Override
+        long sourceSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & (ORDERED | IMMUTABLE | CONCURRENT) | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Arrays;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * Append-only list of primitive array segments. Unlike the growable buffers
+ * in {@link StreamExInternals}, the already filled segments are never copied
+ * when the list grows, and two lists are concatenated just by linking their
+ * segments, so the parallel leaves may fill their own lists independently
+ * and the elements are copied only once into the exactly sized resulting
+ * array.
+ *
+ * @author Tagir Valeev
+ * @param <A> type of the segment array
+ */
+/* package */abstract class SegmentList<A> {
+    private static final int MAX_SEGMENT_SIZE = 1 << 20;
+
+    private Object[] segments = new Object[8];
+    private int[] lengths = new int[8];
+    private int count;
+    private long size;
+    A current;
+    int pos;
+
+    SegmentList() {
+        current = newSegment(INITIAL_SIZE);
+    }
+
+    abstract A newSegment(int length);
+
+    /**
+     * Stores the full current segment and allocates the next one.
+     *
+     * @param length length of the current segment
+     * @return the new current segment
+     */
+    A next(int length) {
+        push(current, length);
+        current = newSegment(Math.min(MAX_SEGMENT_SIZE, length * 2));
+        pos = 0;
+        return current;
+    }
+
+    private void push(Object segment, int length) {
+        if (count == segments.length) {
+            segments = Arrays.copyOf(segments, count * 2);
+            lengths = Arrays.copyOf(lengths, count * 2);
+        }
+        segments[count] = segment;
+        lengths[count++] = length;
+        size += length;
+    }
+
+    /**
+     * Appends all the elements of other list to this list. Other list should
+     * not be used after that.
+     *
+     * @param other list to append
+     */
+    void addAll(SegmentList<A> other) {
+        if (other.size + other.pos == 0)
+            return;
+        if (pos > 0) {
+            push(current, pos);
+            current = newSegment(INITIAL_SIZE);
+            pos = 0;
+        }
+        for (int i = 0; i < other.count; i++) {
+            push(other.segments[i], other.lengths[i]);
+        }
+        if (other.pos > 0) {
+            push(other.current, other.pos);
+        }
+    }
+
+    /**
+     * @param array the array of exactly {@link #size()} elements
+     * @return the array filled with the elements of this list
+     */
+    A copyTo(A array) {
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(segments[i], 0, array, offset, lengths[i]);
+            offset += lengths[i];
+        }
+        System.arraycopy(current, 0, array, offset, pos);
+        return array;
+    }
+
+    int size() {
+        long total = size + pos;
+        if (total > Integer.MAX_VALUE - 8)
+            throw new OutOfMemoryError("Array size is too big: " + total);
+        return (int) total;
+    }
+
+    static final class OfInt extends SegmentList<int[]> {
+        @Override
+        int[] newSegment(int length) {
+            return new int[length];
+        }
+
+        void add(int n) {
+            int[] cur = current;
+            if (pos == cur.length)
+                cur = next(pos);
+            cur[pos++] = n;
+        }
+
+        int[] toArray() {
+            return copyTo(new int[size()]);
+        }
+    }
+
+    static final class OfLong extends SegmentList<long[]> {
+        @Override
+        long[] newSegment(int length) {
+            return new long[length];
+        }
+
+        void add(long n) {
+            long[] cur = current;
+            if (pos == cur.length)
+                cur = next(pos);
+            cur[pos++] = n;
+        }
+
+        long[] toArray() {
+            return copyTo(new long[size()]);
+        }
+    }
+
+    static final class OfDouble extends SegmentList<double[]> {
+        @Override
+        double[] newSegment(int length) {
+            return new double[length];
+        }
+
+        void add(double n) {
+            double[] cur = current;
+            if (pos == cur.length)
+                cur = next(pos);
+            cur[pos++] = n;
+        }
+
+        double[] toArray() {
+            return copyTo(new double[size()]);
+        }
+    }
+
+    static final class OfByte extends SegmentList<byte[]> {
+        @Override
+        byte[] newSegment(int length) {
+            return new byte[length];
+        }
+
+        void add(int n) {
+            byte[] cur = current;
+            if (pos == cur.length)
+                cur = next(pos);
+            cur[pos++] = (byte) n;
+        }
+
+        byte[] toArray() {
+            return copyTo(new byte[size()]);
+        }
+    }
+
+    static final class OfChar extends SegmentList<char[]> {
+        @Override
+        char[] newSegment(int length) {
+            return new char[length];
+        }
+
+        void add(int n) {
+            char[] cur = current;
+            if (pos == cur.length)
+                cur = next(pos);
+            cur[pos++] = (char) n;
+        }
+
+        char[] toArray() {
+            return copyTo(new char[size()]);
+        }
+    }
+
+    static final class OfShort extends SegmentList<short[]> {
+        @Override
+        short[] newSegment(int length) {
+            return new short[length];
+        }
+
+        void add(int n) {
+            short[] cur = current;
+            if (pos == cur.length)
+                cur = next(pos);
+            cur[pos++] = (short) n;
+        }
+
+        short[] toArray() {
+            return copyTo(new short[size()]);
+        }
+    }
+
+    static final class OfFloat extends SegmentList<float[]> {
+        @Override
+        float[] newSegment(int length) {
+            return new float[length];
+        }
+
+        void add(double n) {
+            float[] cur = current;
+            if (pos == cur.length)
+                cur = next(pos);
+            cur[pos++] = (float) n;
+        }
+
+        float[] toArray() {
+            return copyTo(new float[size()]);
+        }
+    }
+}
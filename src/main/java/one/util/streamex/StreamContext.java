@@ -15,7 +15,9 @@
  */
 package one.util.streamex;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.BaseStream;
@@ -24,7 +26,7 @@ import static one.util.streamex.StreamExInternals.*;
 
 /**
  * This class controls stream execution mode (parallel/sequential), custom FJP
- * and close handlers.
+ * or executor and close handlers.
  * 
  * Fields are package-private and mutable, but it's forbidden to change them
  * from outside of this class.
@@ -42,17 +44,31 @@ import static one.util.streamex.StreamExInternals.*;
 
     boolean parallel;
     ForkJoinPool fjp;
+    Executor executor;
     Runnable closeHandler;
 
     private StreamContext(boolean parallel) {
         this.parallel = parallel;
     }
 
+    /**
+     * @return true if current thread is a worker of the custom FJP, so the
+     *         terminal operation can be executed directly: the forked
+     *         subtasks will go to the same pool anyways
+     */
+    private boolean inPool() {
+        return ForkJoinTask.getPool() == fjp;
+    }
+
     <T> T terminate(Supplier<T> terminalOperation) {
+        if (inPool())
+            return terminalOperation.get();
         return fjp.submit(terminalOperation::get).join();
     }
 
     <T, U> T terminate(U value, Function<U, T> terminalOperation) {
+        if (inPool())
+            return terminalOperation.apply(value);
         return fjp.submit(() -> terminalOperation.apply(value)).join();
     }
 
@@ -61,6 +77,7 @@ import static one.util.streamex.StreamExInternals.*;
             return PARALLEL;
         this.parallel = true;
         this.fjp = null;
+        this.executor = null;
         return this;
     }
 
@@ -69,6 +86,7 @@ import static one.util.streamex.StreamExInternals.*;
             return SEQUENTIAL;
         this.parallel = false;
         this.fjp = null;
+        this.executor = null;
         return this;
     }
 
@@ -76,6 +94,17 @@ import static one.util.streamex.StreamExInternals.*;
         StreamContext context = detach();
         context.parallel = true;
         context.fjp = fjp;
+        context.executor = null;
+        return context;
+    }
+
+    StreamContext parallel(Executor executor) {
+        if (executor instanceof ForkJoinPool)
+            return parallel((ForkJoinPool) executor);
+        StreamContext context = detach();
+        context.parallel = true;
+        context.fjp = null;
+        context.executor = executor;
         return context;
     }
 
@@ -19,10 +19,12 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -44,7 +46,9 @@ import java.util.Spliterators;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
@@ -258,6 +262,157 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
         return new StreamEx<>(new PairSpliterator.PSOfRef<>(lastMapper, notLastMapper, spliterator(), false), context);
     }
 
+    /**
+     * Returns a stream consisting of the results of the asynchronous
+     * computations started by the given function for the elements of this
+     * stream. At most {@code maxInFlight} computations are uncompleted at a
+     * time: the upstream elements are requested only when the results are
+     * consumed, so this method is suitable for I/O-bound operations which
+     * should not block the {@link java.util.concurrent.ForkJoinPool} threads
+     * and for which the number of concurrent requests must be bounded.
+     *
+     * <p>
+     * The encounter order is preserved: the results are emitted in the order of
+     * the corresponding elements, even if they complete in different order. If
+     * the future completes exceptionally, its exception is rethrown by the
+     * terminal operation (unchecked exceptions are rethrown as is, checked
+     * exceptions are wrapped into
+     * {@link java.util.concurrent.CompletionException}).
+     *
+     * <p>
+     * The elements of this stream are consumed sequentially in the thread which
+     * executes the terminal operation, even if the stream is parallel. When the
+     * resulting stream is closed, the futures which results were not consumed
+     * (e.g. due to short-circuiting terminal operation) are cancelled.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate
+     * operation</a>.
+     *
+     * @param <R> The element type of the new stream
+     * @param mapper a <a
+     *        href="package-summary.html#NonInterference">non-interfering </a>
+     *        function which starts the computation for the element and returns
+     *        the future of its result
+     * @param maxInFlight maximal number of the uncompleted futures, must be
+     *        positive
+     * @return the new stream
+     * @throws IllegalArgumentException if maxInFlight is not positive
+     * @since 0.6.2
+     * @see #mapAsync(Function, int, Executor)
+     */
+    public <R> StreamEx<R> mapAsync(Function<? super T, ? extends CompletableFuture<? extends R>> mapper,
+            int maxInFlight) {
+        if (maxInFlight <= 0)
+            throw new IllegalArgumentException("maxInFlight = " + maxInFlight);
+        AsyncMapSpliterator<T, R> spliterator = new AsyncMapSpliterator<>(spliterator(), mapper, maxInFlight);
+        return new StreamEx<>(spliterator, context.onClose(spliterator::cancel));
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the given
+     * function to the elements of this stream in the supplied executor. At
+     * most {@code maxInFlight} function calls are executed or pending at a
+     * time, the encounter order is preserved.
+     *
+     * <p>
+     * This method is equivalent to
+     * {@code mapAsync(t -> CompletableFuture.supplyAsync(() -> mapper.apply(t), executor), maxInFlight)}.
+     * For blocking operations the executor of the suitable size or the
+     * executor which runs every task in the new virtual thread can be used.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate
+     * operation</a>.
+     *
+     * @param <R> The element type of the new stream
+     * @param mapper a <a
+     *        href="package-summary.html#NonInterference">non-interfering </a>,
+     *        <a href="package-summary.html#Statelessness">stateless</a>
+     *        function to apply to each element
+     * @param maxInFlight maximal number of the function calls executed at a
+     *        time, must be positive
+     * @param executor the executor to call the function in
+     * @return the new stream
+     * @throws IllegalArgumentException if maxInFlight is not positive
+     * @since 0.6.2
+     * @see #mapAsync(Function, int)
+     */
+    public <R> StreamEx<R> mapAsync(Function<? super T, ? extends R> mapper, int maxInFlight, Executor executor) {
+        Objects.requireNonNull(executor);
+        return mapAsync(t -> CompletableFuture.supplyAsync(() -> mapper.apply(t), executor), maxInFlight);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream which are
+     * produced in the background thread. When the terminal operation starts,
+     * this stream (including all its intermediate operations) is traversed
+     * in the new daemon thread which hands the elements over to the resulting
+     * stream via the bounded buffer. Thus the upstream and the downstream
+     * operations (e.g. reading and parsing the input and writing the results)
+     * are executed concurrently. The producer thread waits when the buffer is
+     * full; the consumer waits when the buffer is empty.
+     *
+     * <p>
+     * The encounter order is preserved. If the upstream operation throws an
+     * exception, it's rethrown by the terminal operation after all the
+     * elements produced before the exception are consumed (unchecked
+     * exceptions are rethrown as is, checked exceptions are wrapped into
+     * {@link java.util.concurrent.CompletionException}).
+     *
+     * <p>
+     * Closing the resulting stream stops the producer. If the stream is not
+     * fully consumed (e.g. due to short-circuiting terminal operation), it
+     * should be closed, otherwise the producer waits until the resulting
+     * stream is garbage collected. Note that the upstream close handlers are
+     * executed in the thread which closes the stream and may run concurrently
+     * with the producer which is being stopped.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate
+     * operation</a>.
+     *
+     * @param bufferSize maximal number of elements produced, but not consumed
+     *        yet, must be positive and not greater than {@code 2^30}
+     * @return the new stream
+     * @throws IllegalArgumentException if bufferSize is not positive or too big
+     * @since 0.6.2
+     * @see #async(int, Executor)
+     */
+    public StreamEx<T> async(int bufferSize) {
+        return async(bufferSize, AsyncIterator.NEW_THREAD);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream which are
+     * produced in the task submitted to the supplied executor. The task is
+     * submitted when the terminal operation starts and occupies the executor
+     * thread until this stream is exhausted or the resulting stream is closed.
+     *
+     * <p>
+     * This method works like {@link #async(int)}, except the executor is used
+     * instead of the new thread.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate
+     * operation</a>.
+     *
+     * @param bufferSize maximal number of elements produced, but not consumed
+     *        yet, must be positive and not greater than {@code 2^30}
+     * @param executor the executor to traverse this stream in
+     * @return the new stream
+     * @throws IllegalArgumentException if bufferSize is not positive or too big
+     * @since 0.6.2
+     * @see #async(int)
+     */
+    public StreamEx<T> async(int bufferSize, Executor executor) {
+        if (bufferSize <= 0 || bufferSize > AsyncIterator.MAX_BUFFER_SIZE)
+            throw new IllegalArgumentException("bufferSize = " + bufferSize);
+        Objects.requireNonNull(executor);
+        AsyncIterator<T> iterator = new AsyncIterator<>(spliterator(), bufferSize, executor);
+        return new StreamEx<>(new UnknownSizeSpliterator.USOfRef<>(iterator), context.onClose(iterator::cancel));
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream, additionally
      * performing the provided action on the first stream element when it's
@@ -1236,6 +1391,10 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * is preserved.
      *
      * <p>
+     * The occurrences are counted in the open-addressing hash table with
+     * primitive counters.
+     *
+     * <p>
      * This is a stateful <a
      * href="package-summary.html#StreamOps">quasi-intermediate</a> operation.
      *
@@ -1244,6 +1403,7 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      *        to {@link #distinct()}.
      * @return the new stream
      * @see #distinct()
+     * @see IntStreamEx#distinct(long)
      * @since 0.3.1
      */
     public StreamEx<T> distinct(long atLeast) {
@@ -2057,7 +2217,10 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * is also wrapped as an {@code UncheckedIOException}.
      *
      * <p>
-     * The returned stream encapsulates a {@link Reader}. If timely disposal of
+     * For UTF-8 and ASCII-compatible single-byte charsets the non-empty regular
+     * file is memory-mapped and the returned stream is split by the byte ranges
+     * (snapping to the line boundaries), so it parallelizes well. Otherwise
+     * the returned stream encapsulates a {@link Reader}. If timely disposal of
      * file system resources is required, the try-with-resources construct
      * should be used to ensure that the stream's {@link #close close} method is
      * invoked after the stream operations are completed.
@@ -2069,7 +2232,7 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * @see Files#lines(Path)
      */
     public static StreamEx<String> ofLines(Path path) throws IOException {
-        return of(UnknownSizeSpliterator.optimize(Files.lines(path)));
+        return ofLines(path, StandardCharsets.UTF_8);
     }
 
     /**
@@ -2089,7 +2252,10 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * is also wrapped as an {@code UncheckedIOException}.
      *
      * <p>
-     * The returned stream encapsulates a {@link Reader}. If timely disposal of
+     * For UTF-8 and ASCII-compatible single-byte charsets the non-empty regular
+     * file is memory-mapped and the returned stream is split by the byte ranges
+     * (snapping to the line boundaries), so it parallelizes well. Otherwise
+     * the returned stream encapsulates a {@link Reader}. If timely disposal of
      * file system resources is required, the try-with-resources construct
      * should be used to ensure that the stream's {@link #close close} method is
      * invoked after the stream operations are completed.
@@ -2102,6 +2268,29 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * @since 0.5.0
      */
     public static StreamEx<String> ofLines(Path path, Charset charset) throws IOException {
+        if (LinesSpliterator.isSupported(charset) && Files.isRegularFile(path)) {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                if (size > 0) {
+                    return of(new LinesSpliterator(channel, charset, 0, size)).onClose(() -> {
+                        try {
+                            channel.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            } catch (IOException | RuntimeException e) {
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    e.addSuppressed(ex);
+                }
+                throw e;
+            }
+            channel.close();
+        }
         return of(UnknownSizeSpliterator.optimize(Files.lines(path, charset)));
     }
 
@@ -2650,6 +2839,138 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
         return ofTree(root, t -> collectionClass.isInstance(t) ? mapper.apply((TT) t) : null);
     }
 
+    /**
+     * Return a new {@link StreamEx} containing all the nodes of the graph
+     * reachable from the start node in depth-first order. Unlike
+     * {@link #ofTree(Object, Function)} every node is visited only once even if
+     * it's reachable via several paths, so this method can be used for
+     * directed acyclic graphs and graphs containing cycles.
+     * 
+     * <p>
+     * This method is equivalent to
+     * {@code ofGraph(start, neighbors, DistinctFilter.unbounded())}.
+     * 
+     * @param <T> the type of graph nodes
+     * @param start the node to start the traversal from
+     * @param neighbors a non-interfering, stateless function to apply to each
+     *        graph node which returns stream of the nodes reachable from it
+     *        directly. May return null if the given node has no outgoing
+     *        edges.
+     * @return the new sequential ordered stream
+     * @since 0.6.2
+     * @see #ofGraph(Object, Function, DistinctFilter)
+     * @see #ofGraphBreadthFirst(Object, Function)
+     */
+    public static <T> StreamEx<T> ofGraph(T start, Function<T, Stream<T>> neighbors) {
+        return ofGraph(start, neighbors, DistinctFilter.unbounded());
+    }
+
+    /**
+     * Return a new {@link StreamEx} containing all the nodes of the graph
+     * reachable from the start node in depth-first order using the supplied
+     * filter to remember the visited nodes. The node is visited only if the
+     * filter accepts it when the traversal reaches it. The filter is not
+     * accessed until the stream is traversed; if the start node is rejected,
+     * the stream is empty.
+     * 
+     * <p>
+     * The filter may be used to skip some nodes (by adding them to the filter
+     * in advance), to share the visited nodes between several traversals or to
+     * bound the memory consumption (e.g. using {@link DistinctFilter#lru(int)}).
+     * In the last case the nodes may be visited several times if they are
+     * forgotten by the filter.
+     * 
+     * <p>
+     * The traversal is not recursive (the path from the start node is kept in
+     * the explicit stack), so it's suitable for the graphs having very long
+     * paths. If the resulting stream is parallel, the graph is still traversed
+     * by one thread at a time and the nodes are processed in batches by
+     * several threads, so the depth-first order is preserved.
+     * 
+     * <p>
+     * The stream created by neighbors function is closed when its contents is
+     * consumed. The streams which are not consumed when the traversal stops
+     * (e.g. due to short-circuiting terminal operation) are not closed.
+     * 
+     * @param <T> the type of graph nodes
+     * @param start the node to start the traversal from
+     * @param neighbors a non-interfering, stateless function to apply to each
+     *        graph node which returns stream of the nodes reachable from it
+     *        directly. May return null if the given node has no outgoing
+     *        edges.
+     * @param visited a filter which remembers the visited nodes
+     * @return the new sequential ordered stream
+     * @since 0.6.2
+     * @see #ofGraphBreadthFirst(Object, Function, DistinctFilter)
+     */
+    public static <T> StreamEx<T> ofGraph(T start, Function<T, Stream<T>> neighbors,
+            DistinctFilter<? super T> visited) {
+        return new StreamEx<>(new GraphSpliterator.DepthFirst<>(start, neighbors, visited), StreamContext.SEQUENTIAL);
+    }
+
+    /**
+     * Return a new {@link StreamEx} containing all the nodes of the graph
+     * reachable from the start node in breadth-first order: the start node
+     * goes first, then the nodes directly reachable from it and so on. Every
+     * node is visited only once even if it's reachable via several paths.
+     * 
+     * <p>
+     * This method is equivalent to
+     * {@code ofGraphBreadthFirst(start, neighbors, DistinctFilter.unbounded())}.
+     * 
+     * @param <T> the type of graph nodes
+     * @param start the node to start the traversal from
+     * @param neighbors a non-interfering, stateless function to apply to each
+     *        graph node which returns stream of the nodes reachable from it
+     *        directly. May return null if the given node has no outgoing
+     *        edges.
+     * @return the new sequential ordered stream
+     * @since 0.6.2
+     * @see #ofGraphBreadthFirst(Object, Function, DistinctFilter)
+     * @see #ofGraph(Object, Function)
+     */
+    public static <T> StreamEx<T> ofGraphBreadthFirst(T start, Function<T, Stream<T>> neighbors) {
+        return ofGraphBreadthFirst(start, neighbors, DistinctFilter.unbounded());
+    }
+
+    /**
+     * Return a new {@link StreamEx} containing all the nodes of the graph
+     * reachable from the start node in breadth-first order using the supplied
+     * filter to remember the visited nodes. The node is visited only if the
+     * filter accepts it when the node is discovered. The filter is not
+     * accessed until the stream is traversed; if the start node is rejected,
+     * the stream is empty.
+     * 
+     * <p>
+     * The graph is traversed level by level: when all the nodes of the current
+     * level are consumed, the neighbors of these nodes are read and the nodes
+     * accepted by the filter form the next level. If the resulting stream is
+     * parallel, the neighbors of the level nodes are read concurrently and the
+     * nodes are processed in batches by several threads, while the
+     * breadth-first order is preserved. The filter is accessed by one thread
+     * at a time.
+     * 
+     * <p>
+     * The traversal is not recursive, so it's suitable for the graphs having
+     * very long paths. Every stream created by neighbors function is consumed
+     * and closed immediately.
+     * 
+     * @param <T> the type of graph nodes
+     * @param start the node to start the traversal from
+     * @param neighbors a non-interfering, stateless function to apply to each
+     *        graph node which returns stream of the nodes reachable from it
+     *        directly. May return null if the given node has no outgoing
+     *        edges.
+     * @param visited a filter which remembers the visited nodes
+     * @return the new sequential ordered stream
+     * @since 0.6.2
+     * @see #ofGraph(Object, Function, DistinctFilter)
+     */
+    public static <T> StreamEx<T> ofGraphBreadthFirst(T start, Function<T, Stream<T>> neighbors,
+            DistinctFilter<? super T> visited) {
+        return new StreamEx<>(new GraphSpliterator<>(start, neighbors, visited), StreamContext.SEQUENTIAL);
+    }
+
     /**
      * Returns a new {@code StreamEx} which consists of non-overlapping sublists
      * of given source list having the specified length (the last sublist may be
@@ -548,6 +548,21 @@ import java.util.stream.Stream;
             }, NO_CHARACTERISTICS);
         }
 
+        @SuppressWarnings("unchecked")
+        static <K, D, A> PartialCollector<PrimitiveKeyMap<K, A>, Map<K, D>> primitiveGrouping(
+                Supplier<PrimitiveKeyMap<K, A>> mapFactory, Collector<?, A, D> downstream) {
+            BinaryOperator<A> downstreamMerger = downstream.combiner();
+            BiConsumer<PrimitiveKeyMap<K, A>, PrimitiveKeyMap<K, A>> merger = (map1, map2) -> map1.mergeAll(map2,
+                downstreamMerger);
+
+            if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+                return new PartialCollector<>(mapFactory, merger, map -> (Map<K, D>) (Map<K, ?>) map,
+                        ID_CHARACTERISTICS);
+            }
+            return new PartialCollector<>(mapFactory, merger, map -> map.mapValues(downstream.finisher()),
+                    NO_CHARACTERISTICS);
+        }
+
         static PartialCollector<StringBuilder, String> joining(CharSequence delimiter, CharSequence prefix,
                 CharSequence suffix, boolean hasPS) {
             BiConsumer<StringBuilder, StringBuilder> merger = (sb1, sb2) -> {
@@ -1056,6 +1071,19 @@ import java.util.stream.Stream;
         return null;
     }
 
+    /**
+     * Converts the double value to the long which natural order is the same as
+     * {@link Double#compare(double, double)} order of the double values.
+     */
+    static long sortableBits(double d) {
+        long bits = Double.doubleToLongBits(d);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    static double fromSortableBits(long bits) {
+        return Double.longBitsToDouble(bits ^ ((bits >> 63) & Long.MAX_VALUE));
+    }
+
     @SuppressWarnings("unchecked")
     static <T> T none() {
         return (T) NONE;
@@ -18,7 +18,8 @@ package one.util.streamex;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;import java.util.Map.Entry;
+import java.util.List;
+import java.util.Map.Entry;
 import java.util.Spliterator;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -26,9 +27,19 @@ import java.util.function.Function;
 import java.util.stream.Stream;
 
 import one.util.streamex.StreamExInternals.PairBox;
+import static one.util.streamex.UnknownSizeSpliterator.*;
 import static one.util.streamex.StreamExInternals.*;
 
 /**
+ * Spliterator over the tree nodes in depth-first order. The pending work is
+ * kept as a stack of children spliterators: the last one belongs to the most
+ * recently visited node, the first one to the shallowest node. The split
+ * hands out the beginning of the remaining traversal: the shallowest level
+ * whose spliterator splits is cut, the prefix goes to the new spliterator
+ * together with all the deeper levels. If no level splits (e.g. the current
+ * node has a single child), a batch of nodes is traversed and handed out
+ * instead, so the subtrees at any depth eventually become splittable.
+ *
  * @author Tagir Valeev
  *
  */
@@ -37,6 +48,9 @@ import static one.util.streamex.StreamExInternals.*;
     List<PairBox<Spliterator<T>, Stream<T>>> spliterators;
     Runnable closeHandler = null;
     long size = Long.MAX_VALUE;
+    int depthOffset = 0;
+    int batch = 0;
+    boolean parallel;
 
     TreeSpliterator(T root) {
         this.cur = root;
@@ -63,7 +77,7 @@ import static one.util.streamex.StreamExInternals.*;
 
     boolean append(Stream<T> stream) {
         if(stream != null) {
-            spliterators.add(new PairBox<>(stream.spliterator(), stream));
+            spliterators.add(new PairBox<>((parallel ? stream.parallel() : stream).spliterator(), stream));
         }
         return true;
     }
@@ -75,6 +89,7 @@ import static one.util.streamex.StreamExInternals.*;
     @Override
     public Spliterator<U> trySplit() {
         if(spliterators == null) {
+            parallel = true;
             spliterators = new ArrayList<>();
             Stream<T> stream = getStart();
             if(stream != null) {
@@ -83,20 +98,53 @@ import static one.util.streamex.StreamExInternals.*;
             }
             return new ConstSpliterator.OfRef<>(getStartElement(), 1, true);
         }
-        int size = spliterators.size();
-        if(size != 1) {
-            return null;
+        List<PairBox<Spliterator<T>, Stream<T>>> spltrs = spliterators;
+        for(int level = 0; level < spltrs.size(); level++) {
+            PairBox<Spliterator<T>, Stream<T>> pair = spltrs.get(level);
+            Spliterator<T> prefix = pair.a.trySplit();
+            if(prefix != null) {
+                if(pair.b != null) {
+                    // both halves read the same stream: close it only with the whole tree
+                    closeHandler = StreamContext.compose(closeHandler, pair.b::close);
+                    pair.b = null;
+                }
+                TreeSpliterator<T, U> clone = doClone();
+                clone.size /= 2;
+                this.size -= clone.size;
+                clone.closeHandler = null;
+                clone.depthOffset = depthOffset + level;
+                List<PairBox<Spliterator<T>, Stream<T>>> deeper = spltrs.subList(level + 1, spltrs.size());
+                clone.spliterators = new ArrayList<>(deeper.size() + 1);
+                clone.spliterators.add(new PairBox<>(prefix, null));
+                clone.spliterators.addAll(deeper);
+                deeper.clear();
+                closeHandler = StreamContext.compose(closeHandler, clone::close);
+                return clone;
+            }
+        }
+        return traverseBatch();
+    }
+
+    private Spliterator<U> traverseBatch() {
+        int n = batch = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+        List<U> buffer = new ArrayList<>();
+        PairBox<Spliterator<T>, Stream<T>> top = spliterators.isEmpty() ? null : spliterators.get(spliterators
+                .size() - 1);
+        while(buffer.size() < n && tryAdvance(buffer::add)) {
+            PairBox<Spliterator<T>, Stream<T>> newTop = spliterators.isEmpty() ? null : spliterators
+                    .get(spliterators.size() - 1);
+            if(newTop != top) {
+                // new children appeared: stop if they may be split
+                if(newTop != null && newTop.a.estimateSize() > 1)
+                    break;
+                top = newTop;
+            }
         }
-        Spliterator<T> prefix = spliterators.get(0).a.trySplit();
-        if(prefix == null)
+        if(buffer.isEmpty())
             return null;
-        TreeSpliterator<T, U> clone = doClone();
-        clone.size /= 2;
-        this.size -= clone.size;
-        clone.spliterators = new ArrayList<>();
-        clone.spliterators.add(new PairBox<>(prefix, null));
-        closeHandler = StreamContext.compose(closeHandler, clone::close);
-        return clone;
+        if(size != Long.MAX_VALUE)
+            size = Math.max(1, size - buffer.size());
+        return buffer.spliterator();
     }
     
     @Override
@@ -247,7 +295,7 @@ import static one.util.streamex.StreamExInternals.*;
             if(!advance())
                 return false;
             T e = this.cur;
-            int depth = spliterators.size();
+            int depth = depthOffset + spliterators.size();
             action.accept(new ObjIntBox<>(e, depth));
             return append(mapper.apply(depth, e));
         }
@@ -258,7 +306,7 @@ import static one.util.streamex.StreamExInternals.*;
             if(spliterators != null) {
                 for(int i=spliterators.size()-1; i>=0; i--) {
                     PairBox<Spliterator<T>, Stream<T>> pair = spliterators.get(i);
-                    acceptor.depth = i + 1;
+                    acceptor.depth = depthOffset + i + 1;
                     pair.a.forEachRemaining(acceptor);
                     if(pair.b != null)
                         pair.b.close();
@@ -0,0 +1,423 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
+
+import one.util.streamex.StreamExInternals.CloneableSpliterator;
+
+/**
+ * Spliterator which aggregates every window of {@code width} adjacent source
+ * elements incrementally: the running sum is updated when the element enters
+ * and leaves the window and the minimum or maximum is maintained by the
+ * monotonic deque. Only full windows are reported, so the source of
+ * {@code n} elements produces {@code max(0, n - width + 1)} results.
+ *
+ * <p>
+ * Every split reports the windows which end at its own elements. To do this
+ * it needs {@code width - 1} elements which precede its range. When the
+ * spliterator is split, these elements are read from the beginning of the
+ * suffix and passed to both parts: the suffix uses them as the {@code head}
+ * to fill the window without reporting, while the prefix reports the windows
+ * ending at them as its {@code tail}. So the splits don't need to communicate
+ * during the traversal.
+ *
+ * @author Tagir Valeev
+ */
+/* package */abstract class WindowSpliterator<T, S extends WindowSpliterator<T, ?>> extends
+        CloneableSpliterator<T, S> {
+    static final int SUM = 0;
+    static final int MIN = 1;
+    static final int MAX = 2;
+
+    final int width;
+    final int op;
+    int tailPos;
+    boolean started;
+    // number of elements pushed into the window
+    long count;
+    // monotonic deque of the window element indices, circular buffer
+    long[] dqIdx;
+    int dqHead, dqSize;
+
+    WindowSpliterator(int width, int op) {
+        this.width = width;
+        this.op = op;
+    }
+
+    abstract long sourceSize();
+
+    abstract int headLength();
+
+    abstract int tailLength();
+
+    @Override
+    public long estimateSize() {
+        long size = sourceSize();
+        if (size == Long.MAX_VALUE)
+            return size;
+        long pending = started ? Math.max(0, width - 1 - count) : Math.max(0, width - 1 - headLength());
+        return Math.max(0, size + tailLength() - tailPos - pending);
+    }
+
+    /**
+     * Removes the deque head if it leaves the window when the next element is
+     * pushed.
+     */
+    void dequeExpire() {
+        if (dqSize > 0 && dqIdx[dqHead] <= count - width) {
+            if (++dqHead == width)
+                dqHead = 0;
+            dqSize--;
+        }
+    }
+
+    int dequeBack() {
+        int back = dqHead + dqSize - 1;
+        return back >= width ? back - width : back;
+    }
+
+    int dequeAdd() {
+        int slot = dqHead + dqSize;
+        if (slot >= width)
+            slot -= width;
+        dqIdx[slot] = count;
+        dqSize++;
+        return slot;
+    }
+
+    static final class OfLong extends WindowSpliterator<Long, WindowSpliterator.OfLong> implements
+            Spliterator.OfLong, LongConsumer {
+        private static final long[] EMPTY = {};
+
+        private Spliterator.OfLong source;
+        private long[] head = EMPTY, tail = EMPTY;
+        private long next;
+        private long[] ring;
+        private int pos;
+        private long sum;
+        private long[] dqVal;
+
+        OfLong(Spliterator.OfLong source, int width, int op) {
+            super(width, op);
+            this.source = source;
+        }
+
+        @Override
+        public void accept(long t) {
+            next = t;
+        }
+
+        private void start() {
+            started = true;
+            if (op == SUM) {
+                ring = new long[width];
+            } else {
+                dqIdx = new long[width];
+                dqVal = new long[width];
+            }
+            for (long t : head) {
+                push(t);
+            }
+        }
+
+        private boolean push(long t) {
+            if (op == SUM) {
+                if (count >= width)
+                    sum -= ring[pos];
+                ring[pos] = t;
+                sum += t;
+                if (++pos == width)
+                    pos = 0;
+            } else {
+                dequeExpire();
+                boolean min = op == MIN;
+                while (dqSize > 0) {
+                    long v = dqVal[dequeBack()];
+                    if (min ? v < t : v > t)
+                        break;
+                    dqSize--;
+                }
+                dqVal[dequeAdd()] = t;
+            }
+            return ++count >= width;
+        }
+
+        private long result() {
+            return op == SUM ? sum : dqVal[dqHead];
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (!started)
+                start();
+            while (source.tryAdvance(this)) {
+                if (push(next)) {
+                    action.accept(result());
+                    return true;
+                }
+            }
+            while (tailPos < tail.length) {
+                if (push(tail[tailPos++])) {
+                    action.accept(result());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            if (!started)
+                start();
+            source.forEachRemaining((long t) -> {
+                if (push(t))
+                    action.accept(result());
+            });
+            while (tailPos < tail.length) {
+                if (push(tail[tailPos++]))
+                    action.accept(result());
+            }
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            if (started || source.estimateSize() < width * 2L)
+                return null;
+            Spliterator.OfLong prefixSource = source.trySplit();
+            if (prefixSource == null)
+                return null;
+            long[] buf = new long[width - 1];
+            int n = 0;
+            while (n < buf.length && source.tryAdvance(this)) {
+                buf[n++] = next;
+            }
+            WindowSpliterator.OfLong prefix = doClone();
+            prefix.source = prefixSource;
+            if (n < buf.length) {
+                // the suffix is exhausted: the prefix reports everything
+                long[] rest = Arrays.copyOf(buf, n + tail.length - tailPos);
+                System.arraycopy(tail, tailPos, rest, n, tail.length - tailPos);
+                prefix.tail = rest;
+                prefix.tailPos = 0;
+                head = tail = EMPTY;
+                tailPos = 0;
+            } else {
+                prefix.tail = buf;
+                prefix.tailPos = 0;
+                head = buf;
+            }
+            return prefix;
+        }
+
+        @Override
+        long sourceSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        int headLength() {
+            return head.length;
+        }
+
+        @Override
+        int tailLength() {
+            return tail.length;
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & (ORDERED | SIZED | SUBSIZED | IMMUTABLE | CONCURRENT) | NONNULL;
+        }
+    }
+
+    static final class OfDouble extends WindowSpliterator<Double, WindowSpliterator.OfDouble> implements
+            Spliterator.OfDouble, DoubleConsumer {
+        private static final double[] EMPTY = {};
+
+        private Spliterator.OfDouble source;
+        private double[] head = EMPTY, tail = EMPTY;
+        private double next;
+        private double[] ring;
+        private int pos;
+        // compensated sum of the finite elements
+        private double sum, compensation;
+        private int nanCount, positiveInfCount, negativeInfCount;
+        private long lastNaN = Long.MIN_VALUE;
+        private double[] dqVal;
+
+        OfDouble(Spliterator.OfDouble source, int width, int op) {
+            super(width, op);
+            this.source = source;
+        }
+
+        @Override
+        public void accept(double t) {
+            next = t;
+        }
+
+        private void start() {
+            started = true;
+            if (op == SUM) {
+                ring = new double[width];
+            } else {
+                dqIdx = new long[width];
+                dqVal = new double[width];
+            }
+            for (double t : head) {
+                push(t);
+            }
+        }
+
+        private void add(double t, int delta) {
+            if (Double.isFinite(t)) {
+                // Neumaier summation: unlike Kahan's one it keeps the lost
+                // low-order bits when the large element leaves the window
+                double x = delta > 0 ? t : -t;
+                double s = sum + x;
+                compensation += Math.abs(sum) >= Math.abs(x) ? (sum - s) + x : (x - s) + sum;
+                sum = s;
+            } else if (t != t) {
+                nanCount += delta;
+            } else if (t > 0) {
+                positiveInfCount += delta;
+            } else {
+                negativeInfCount += delta;
+            }
+        }
+
+        private boolean push(double t) {
+            if (op == SUM) {
+                if (count >= width)
+                    add(ring[pos], -1);
+                ring[pos] = t;
+                add(t, 1);
+                if (++pos == width)
+                    pos = 0;
+            } else {
+                dequeExpire();
+                if (t != t) {
+                    lastNaN = count;
+                } else {
+                    int sign = op == MIN ? 1 : -1;
+                    while (dqSize > 0 && Double.compare(dqVal[dequeBack()], t) * sign >= 0) {
+                        dqSize--;
+                    }
+                    dqVal[dequeAdd()] = t;
+                }
+            }
+            return ++count >= width;
+        }
+
+        private double result() {
+            if (op != SUM)
+                return lastNaN > count - 1 - width ? Double.NaN : dqVal[dqHead];
+            if (nanCount > 0 || positiveInfCount > 0 && negativeInfCount > 0)
+                return Double.NaN;
+            if (positiveInfCount > 0)
+                return Double.POSITIVE_INFINITY;
+            if (negativeInfCount > 0)
+                return Double.NEGATIVE_INFINITY;
+            return sum + compensation;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (!started)
+                start();
+            while (source.tryAdvance(this)) {
+                if (push(next)) {
+                    action.accept(result());
+                    return true;
+                }
+            }
+            while (tailPos < tail.length) {
+                if (push(tail[tailPos++])) {
+                    action.accept(result());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            if (!started)
+                start();
+            source.forEachRemaining((double t) -> {
+                if (push(t))
+                    action.accept(result());
+            });
+            while (tailPos < tail.length) {
+                if (push(tail[tailPos++]))
+                    action.accept(result());
+            }
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            if (started || source.estimateSize() < width * 2L)
+                return null;
+            Spliterator.OfDouble prefixSource = source.trySplit();
+            if (prefixSource == null)
+                return null;
+            double[] buf = new double[width - 1];
+            int n = 0;
+            while (n < buf.length && source.tryAdvance(this)) {
+                buf[n++] = next;
+            }
+            WindowSpliterator.OfDouble prefix = doClone();
+            prefix.source = prefixSource;
+            if (n < buf.length) {
+                // the suffix is exhausted: the prefix reports everything
+                double[] rest = Arrays.copyOf(buf, n + tail.length - tailPos);
+                System.arraycopy(tail, tailPos, rest, n, tail.length - tailPos);
+                prefix.tail = rest;
+                prefix.tailPos = 0;
+                head = tail = EMPTY;
+                tailPos = 0;
+            } else {
+                prefix.tail = buf;
+                prefix.tailPos = 0;
+                head = buf;
+            }
+            return prefix;
+        }
+
+        @Override
+        long sourceSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        int headLength() {
+            return head.length;
+        }
+
+        @Override
+        int tailLength() {
+            return tail.length;
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & (ORDERED | SIZED | SUBSIZED | IMMUTABLE | CONCURRENT) | NONNULL;
+        }
+    }
+}
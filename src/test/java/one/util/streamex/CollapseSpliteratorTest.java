@@ -24,6 +24,7 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Random;
 import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -135,4 +136,26 @@ public class CollapseSpliteratorTest {
             });
         });
     }
+
+    @Test
+    public void testConcurrentBoundaries() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(16);
+        try {
+            withRandom(r -> {
+                for (int runLength : new int[] { 1, 3, 1000 }) {
+                    List<Integer> input = IntStreamEx.of(r, 100000, 0, 100000 / runLength).sorted().boxed().toList();
+                    List<Integer> expected = StreamEx.of(input).collapse(Objects::equals).toList();
+                    List<Integer> expectedLengths = StreamEx.of(input).runLengths().values().map(Long::intValue)
+                            .toList();
+                    repeat(20, n -> {
+                        assertEquals(expected, StreamEx.of(input).parallel(pool).collapse(Objects::equals).toList());
+                        assertEquals(expectedLengths, StreamEx.of(input).parallel(pool).groupRuns(Objects::equals)
+                                .map(List::size).toList());
+                    });
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
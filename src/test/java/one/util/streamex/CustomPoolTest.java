@@ -25,7 +25,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -49,6 +54,11 @@ import static org.junit.Assert.*;
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
 public class CustomPoolTest {
     ForkJoinPool pool = new ForkJoinPool(3);
+    ExecutorService executor = Executors.newFixedThreadPool(3, r -> {
+        Thread thread = new Thread(r, "custom-executor");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private void checkThread(Object element) {
         Thread thread = Thread.currentThread();
@@ -58,6 +68,11 @@ public class CustomPoolTest {
             throw new IllegalStateException("FJP is incorrect (element: " + element + ")");
     }
 
+    private void checkExecutorThread(Object element) {
+        if (!Thread.currentThread().getName().equals("custom-executor"))
+            throw new IllegalStateException("Not inside executor (element: " + element + ")");
+    }
+
     @Test(expected = IllegalStateException.class)
     public void testCheckThreadSequential() {
         StreamEx.of("a", "b").peek(this::checkThread).joining();
@@ -275,6 +290,23 @@ public class CustomPoolTest {
         }), 0.0);
     }
 
+    @Test
+    public void testToArrayStateful() {
+        // stateful operation is evaluated as soon as the spliterator is requested
+        assertArrayEquals(IntStreamEx.range(200000).toArray(), IntStreamEx.range(200000).parallel(pool).peek(
+            this::checkThread).sorted().toArray());
+        assertEquals(1000, IntStreamEx.range(200000).parallel(pool).peek(this::checkThread).map(x -> x % 1000)
+                .distinct().toArray().length);
+        assertArrayEquals(LongStreamEx.range(200000).toArray(), LongStreamEx.range(200000).parallel(pool).peek(
+            this::checkThread).sorted().toArray());
+        assertEquals(1000, LongStreamEx.range(200000).parallel(pool).peek(this::checkThread).map(x -> x % 1000)
+                .distinct().toArray().length);
+        assertArrayEquals(IntStreamEx.range(200000).asDoubleStream().toArray(), IntStreamEx.range(200000)
+                .asDoubleStream().parallel(pool).peek(this::checkThread).sorted().toArray(), 0.0);
+        assertEquals(1000, IntStreamEx.range(200000).asDoubleStream().parallel(pool).peek(this::checkThread).map(
+            x -> x % 1000).distinct().toArray().length);
+    }
+
     @Test
     public void testPairMap() {
         BitSet bits = IntStreamEx.range(3, 199).toBitSet();
@@ -300,4 +332,137 @@ public class CustomPoolTest {
             this::checkThread).peek(t -> counter.incrementAndGet()).collect(MoreCollectors.onlyOne()));
         assertTrue(counter.get() < 10000);
     }
+
+    @Test
+    public void testExecutor() {
+        StreamEx.of("a", "b", "c").parallel(executor).forEach(this::checkExecutorThread);
+        assertEquals(Arrays.asList(1, 2), StreamEx.of("a", "bb").parallel(executor).peek(this::checkExecutorThread)
+                .map(String::length).toList());
+        assertEquals("a", StreamEx.of("a").parallel(executor).peek(this::checkExecutorThread).findAny().get());
+        assertEquals("a", StreamEx.of("a", "b").parallel(executor).peek(this::checkExecutorThread).findFirst().get());
+        assertTrue(StreamEx.of("a", "b").parallel(executor).peek(this::checkExecutorThread).anyMatch("a"::equals));
+        assertFalse(StreamEx.of("a", "b").parallel(executor).peek(this::checkExecutorThread).allMatch("a"::equals));
+        assertFalse(StreamEx.of("a", "b").parallel(executor).peek(this::checkExecutorThread).noneMatch("a"::equals));
+        assertEquals(Arrays.asList("b", "c"), StreamEx.of("a", "b", "c").parallel(executor).peek(
+            this::checkExecutorThread).skip(1).collect(Collectors.toList()));
+        assertEquals(6, StreamEx.of("a", "bb", "ccc").parallel(executor).peek(this::checkExecutorThread).collect(
+            StringBuilder::new, StringBuilder::append, StringBuilder::append).length());
+        assertArrayEquals(new String[] { "a", "b", "c" }, StreamEx.of("a", "b", "c").parallel(executor).peek(
+            this::checkExecutorThread).toArray(String[]::new));
+        assertEquals(2, StreamEx.of("aa", "bbb", "cccc").parallel(executor).peek(this::checkExecutorThread).filter(
+            x -> x.length() > 2).count());
+        assertEquals("bbbcccc", StreamEx.of("aa", "bbb", "cccc").parallel(executor).peek(this::checkExecutorThread)
+                .filter(x -> x.length() > 2).reduce(String::concat).get());
+        assertFalse(StreamEx.of("aa", "bbb").parallel(executor).filter(x -> x.length() > 3).reduce(String::concat)
+                .isPresent());
+        assertEquals("bbbcccc", StreamEx.of("aa", "bbb", "cccc").parallel(executor).peek(this::checkExecutorThread)
+                .filter(x -> x.length() > 2).reduce("", String::concat));
+        assertEquals(7, (int) StreamEx.of("aa", "bbb", "cccc").parallel(executor).peek(this::checkExecutorThread)
+                .filter(x -> x.length() > 2).reduce(0, (x, s) -> x + s.length(), Integer::sum));
+        assertEquals("aabbbcccc", StreamEx.of("aa", "bbb", "cccc").parallel(executor).peek(this::checkExecutorThread)
+                .foldLeft("", String::concat));
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), StreamEx.of(1, 2, 3).parallel(executor).peek(
+            this::checkExecutorThread).toSet());
+        assertEquals(Collections.singletonMap(1, 3L), StreamEx.of(1, 1, 1).parallel(executor).peek(
+            this::checkExecutorThread).runLengths().toMap());
+        assertEquals(Optional.of(1), StreamEx.of(1, 2, 3).parallel(executor).collect(MoreCollectors.first()));
+        assertEquals(Integer.valueOf(6), EntryStream.of("a", 1, "b", 2, "c", 3).parallel(executor).peek(
+            this::checkExecutorThread).values().reduce(Integer::sum).get());
+
+        List<Integer> input = IntStreamEx.range(100000).boxed().toList();
+        assertEquals(input, StreamEx.of(input).parallel(executor).toList());
+        assertEquals(input, StreamEx.of(input.iterator()).parallel(executor).toList());
+        List<Integer> res = new ArrayList<>();
+        StreamEx.of(input).parallel(executor).map(x -> x * 2).forEachOrdered(res::add);
+        assertEquals(StreamEx.of(input).map(x -> x * 2).toList(), res);
+        assertEquals(input.size() / 2, StreamEx.of(input).parallel(executor).filter(x -> x % 2 == 0).count());
+        assertEquals(99999, (int) StreamEx.of(input).parallel(executor).filter(x -> x > 99998).findFirst().get());
+        assertEquals(99999, (int) StreamEx.of(input).parallel(executor).filter(x -> x > 99998).findAny().get());
+        assertEquals(1001, (int) StreamEx.iterate(0, x -> x + 1).parallel(executor).filter(x -> x > 1000).findFirst()
+                .get());
+        assertTrue(StreamEx.iterate(0, x -> x + 1).parallel(executor).anyMatch(x -> x == 5000));
+        assertFalse(StreamEx.iterate(0, x -> x + 1).parallel(executor).allMatch(x -> x < 5000));
+    }
+
+    @Test
+    public void testExecutorForEachOrdered() {
+        // calling thread executor traverses the leftmost part first: its
+        // elements are passed to the action before the rest is read
+        AtomicInteger read = new AtomicInteger();
+        List<Integer> res = new ArrayList<>();
+        IntStreamEx.range(100000).boxed().parallel((Executor) Runnable::run).peek(x -> read.incrementAndGet())
+                .forEachOrdered(x -> {
+                    if (x == 0)
+                        assertEquals(1, read.get());
+                    res.add(x);
+                });
+        assertEquals(IntStreamEx.range(100000).boxed().toList(), res);
+        assertEquals(100000, read.get());
+    }
+
+    @Test
+    public void testExecutorTasks() {
+        AtomicInteger tasks = new AtomicInteger();
+        Executor counting = r -> {
+            tasks.incrementAndGet();
+            executor.execute(r);
+        };
+        assertEquals(4999950000L, (long) IntStreamEx.range(100000).boxed().parallel(counting).collect(
+            Collectors.summingLong(x -> x)));
+        assertTrue(tasks.get() > 1);
+
+        // tasks never wait for each other, so single thread is enough
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals(4999950000L, (long) IntStreamEx.range(100000).boxed().parallel(single).reduce(0L,
+                (acc, x) -> acc + x, Long::sum));
+        } finally {
+            single.shutdown();
+        }
+
+        // ForkJoinPool is handled as usual
+        StreamEx.of("a", "b", "c").parallel((Executor) pool).forEach(this::checkThread);
+        // parallel() forgets about the executor
+        assertEquals(Arrays.asList(1, 2, 3), StreamEx.of(1, 2, 3).parallel(counting).parallel().toList());
+        assertFalse(StreamEx.of(1, 2, 3).parallel(counting).sequential().isParallel());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testExecutorException() {
+        IntStreamEx.range(10000).boxed().parallel(executor).map(x -> {
+            if (x == 5000)
+                throw new IllegalStateException();
+            return x;
+        }).toList();
+    }
+
+    @Test
+    public void testInlineInPool() throws Exception {
+        AtomicInteger submits = new AtomicInteger();
+        ForkJoinPool countingPool = new ForkJoinPool(3) {
+            @Override
+            public <T> ForkJoinTask<T> submit(Callable<T> task) {
+                submits.incrementAndGet();
+                return super.submit(task);
+            }
+        };
+        try {
+            assertEquals(Arrays.asList(1, 2, 3), StreamEx.of(1, 2, 3).parallel(countingPool).toList());
+            assertEquals(1, submits.get());
+            // toListAndThen calls toList inside the pool
+            assertEquals(3, (int) StreamEx.of(1, 2, 3).parallel(countingPool).toListAndThen(List::size));
+            assertEquals(2, submits.get());
+            List<Integer> result = countingPool.submit(() -> StreamEx.of(1, 2, 3).parallel(countingPool).map(x -> {
+                ForkJoinWorkerThread thread = (ForkJoinWorkerThread) Thread.currentThread();
+                assertSame(countingPool, thread.getPool());
+                return x * 2;
+            }).toList()).get();
+            assertEquals(Arrays.asList(2, 4, 6), result);
+            // only the outer submission, the nested operation is executed
+            // directly
+            assertEquals(3, submits.get());
+        } finally {
+            countingPool.shutdown();
+        }
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+/**
+ * @author Tagir Valeev
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class DistinctFilterTest {
+    @Test(expected = IllegalArgumentException.class)
+    public void testLruIllegalSize() {
+        DistinctFilter.lru(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLruIllegalConcurrency() {
+        DistinctFilter.lru(10, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExpireIllegalDuration() {
+        DistinctFilter.expireAfter(0, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testAcrossStreams() {
+        List<Supplier<DistinctFilter<Object>>> filters = Arrays.asList(DistinctFilter::unbounded,
+            () -> DistinctFilter.lru(100), () -> DistinctFilter.lru(100, 8),
+            () -> DistinctFilter.expireAfter(1, TimeUnit.HOURS));
+        for (Supplier<DistinctFilter<Object>> supplier : filters) {
+            DistinctFilter<Object> filter = supplier.get();
+            assertEquals(Arrays.asList("a", "b", null, "c"), StreamEx.of("a", "b", "a", null, "c", null).distinct(
+                filter).toList());
+            assertEquals(Arrays.asList("d"), StreamEx.of("c", "d", "a", null, "d").distinct(filter).toList());
+            assertEquals(5, filter.size());
+            assertEquals(Arrays.asList("a", "bb", "eee"), StreamEx.of("a", "bb", "cc", "d", "eee").distinct(String::length,
+                filter).toList());
+            assertEquals(Arrays.asList("ffff"), StreamEx.of("dd", "eee", "ffff").distinct(String::length, filter)
+                    .toList());
+            filter.clear();
+            assertEquals(0, filter.size());
+            assertEquals(Arrays.asList("a"), StreamEx.of("a", "a").distinct(filter).toList());
+        }
+    }
+
+    @Test
+    public void testLru() {
+        DistinctFilter<Integer> filter = DistinctFilter.lru(3);
+        assertEquals(Arrays.asList(1, 2, 3), IntStreamEx.of(1, 2, 3, 1).boxed().distinct(filter).toList());
+        // 1 was refreshed by the duplicate, so 2 is evicted
+        assertEquals(Arrays.asList(4, 2), IntStreamEx.of(4, 1, 3, 2).boxed().distinct(filter).toList());
+        assertEquals(3, filter.size());
+        assertFalse(filter.add(1));
+        assertTrue(filter.add(4));
+
+        DistinctFilter<Integer> segmented = DistinctFilter.lru(100, 4);
+        assertEquals(1000, IntStreamEx.range(1000).boxed().distinct(segmented).count());
+        assertEquals(100, segmented.size());
+        assertFalse(segmented.add(999));
+        assertTrue(segmented.add(0));
+    }
+
+    @Test
+    public void testExpire() {
+        AtomicLong time = new AtomicLong();
+        DistinctFilter<String> filter = DistinctFilter.expireAfter(10, time::get);
+        assertEquals(Arrays.asList("a", "b"), StreamEx.of("a", "b", "a").distinct(filter).toList());
+        time.set(5);
+        // duplicates don't prolong the period
+        assertEquals(Arrays.asList("c"), StreamEx.of("a", "c").distinct(filter).toList());
+        time.set(10);
+        assertEquals(1, filter.size());
+        assertEquals(Arrays.asList("a", "b"), StreamEx.of("a", "b", "c").distinct(filter).toList());
+        time.set(100);
+        assertEquals(0, filter.size());
+    }
+
+    @Test
+    public void testParallel() {
+        List<Supplier<DistinctFilter<Object>>> filters = Arrays.asList(DistinctFilter::unbounded,
+            () -> DistinctFilter.lru(10000, 8), () -> DistinctFilter.expireAfter(1, TimeUnit.HOURS));
+        List<Integer> input = IntStreamEx.range(10000).map(i -> i % 3000).boxed().toList();
+        for (Supplier<DistinctFilter<Object>> supplier : filters) {
+            DistinctFilter<Object> filter = supplier.get();
+            List<Integer> result = StreamEx.of(input).parallel().distinct(filter).toList();
+            Collections.sort(result);
+            assertEquals(IntStreamEx.range(3000).boxed().toList(), result);
+            assertEquals(0, StreamEx.of(input).parallel().distinct(filter).count());
+        }
+    }
+}
@@ -17,9 +17,15 @@ package one.util.streamex;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 
 import one.util.streamex.DistinctSpliterator;
 
@@ -60,4 +66,115 @@ public class DistinctSpliteratorTest {
         ds.forEachRemaining(result::add);
         assertEquals(StreamEx.of(null, "b", "c").toSet(), result);
     }
+
+    @Test
+    public void testSpliteratorPrimitive() {
+        checkSpliterator("DistinctInt3", Arrays.asList(1), () -> new DistinctSpliterator.OfInt(IntStream.of(1,
+            2, 3, 1, 2, 4, 1).spliterator(), 3));
+        checkSpliterator("DistinctInt34", Arrays.asList(0), () -> new DistinctSpliterator.OfInt(IntStream.range(0,
+            100).map(x -> x % 3).spliterator(), 34));
+        checkSpliterator("DistinctLong34", Arrays.asList(0L), () -> new DistinctSpliterator.OfLong(LongStream.range(
+            0, 100).map(x -> x % 3).spliterator(), 34));
+
+        assertEquals(Spliterator.DISTINCT | Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL,
+            new DistinctSpliterator.OfInt(IntStream.of(1, 2, 1).spliterator(), 2).characteristics());
+        assertEquals(3, new DistinctSpliterator.OfLong(LongStream.of(1, 2, 1).spliterator(), 2).estimateSize());
+    }
+
+    @Test
+    public void testAdvanceSplitPrimitive() {
+        DistinctSpliterator.OfInt ds = new DistinctSpliterator.OfInt(IntStream.of(1, 2, 1, 3, 2, 3, 4, 4, 5)
+                .spliterator(), 2);
+        Set<Integer> result = new HashSet<>();
+        assertTrue(ds.tryAdvance((int x) -> result.add(x)));
+        Spliterator.OfInt prefix = ds.trySplit();
+        prefix.forEachRemaining((int x) -> result.add(x));
+        ds.forEachRemaining((int x) -> result.add(x));
+        assertEquals(StreamEx.of(1, 2, 3, 4).toSet(), result);
+        assertNull(ds.trySplit());
+    }
+
+    @Test
+    public void testParallelSized() {
+        int[] input = IntStreamEx.range(10000).map(x -> x % 3000).toArray();
+        Set<Integer> expected = IntStreamEx.range(1000).boxed().toSet();
+        // the occurrences of every element are spread across the splits
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expected, StreamSupport.intStream(new DistinctSpliterator.OfInt(IntStreamEx.of(input)
+                    .spliterator(), 4), true).boxed().collect(Collectors.toSet()));
+            assertEquals(1000, StreamSupport.longStream(new DistinctSpliterator.OfLong(IntStreamEx.of(input)
+                    .asLongStream().spliterator(), 4), true).count());
+            assertEquals(StreamEx.of(expected).map(String::valueOf).toSet(), StreamSupport.stream(
+                new DistinctSpliterator<>(IntStreamEx.of(input).mapToObj(String::valueOf).spliterator(), 4), true)
+                    .collect(Collectors.toSet()));
+            assertEquals(3000, StreamSupport.intStream(new DistinctSpliterator.OfInt(IntStreamEx.of(input)
+                    .spliterator(), 3), true).count());
+        }
+        // sequential order is the order of reaching the threshold
+        assertEquals(IntStreamEx.range(1000).boxed().toList(), StreamSupport.intStream(new DistinctSpliterator.OfInt(
+            IntStreamEx.of(input).spliterator(), 4), false).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testParallelPrimitiveManyKeys() {
+        // the shared table starts small and is resized while the splits are counting
+        long[] input = LongStreamEx.range(200000).map(x -> (x * 0x9E3779B9L) % 50000 - 25000).toArray();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(50000, StreamSupport.longStream(new DistinctSpliterator.OfLong(LongStreamEx.of(input)
+                    .spliterator(), 4), true).count());
+            assertEquals(0, StreamSupport.longStream(new DistinctSpliterator.OfLong(LongStreamEx.of(input)
+                    .spliterator(), 5), true).count());
+            assertEquals(50000, StreamSupport.intStream(new DistinctSpliterator.OfInt(LongStreamEx.of(input)
+                    .mapToInt(x -> (int) x).spliterator(), 2), true).count());
+        }
+    }
+
+    @Test
+    public void testConcurrentCounterTable() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            for (long atLeast : new long[] { 1, 3, 8 }) {
+                ConcurrentCounterTable table = new ConcurrentCounterTable(atLeast, 0);
+                table.put(Long.MIN_VALUE, atLeast - 1);
+                // every thread increments every key once, so each key reaches the threshold exactly once
+                long reached = pool.submit(() -> IntStreamEx.range(8).parallel().mapToLong(
+                    t -> LongStreamEx.range(-10000, 10000).append(Long.MIN_VALUE, Long.MAX_VALUE).filter(
+                        table::increment).count()).sum()).get();
+                assertEquals(20002, reached);
+                assertFalse(table.increment(0));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSplitIsLazy() {
+        AtomicInteger counter = new AtomicInteger();
+        DistinctSpliterator.OfInt ds = new DistinctSpliterator.OfInt(IntStream.range(0, 1000).parallel().map(
+            x -> x % 10).peek(x -> counter.incrementAndGet()).spliterator(), 2);
+        Spliterator.OfInt prefix = ds.trySplit();
+        assertNotNull(prefix);
+        assertNotNull(prefix.trySplit());
+        assertEquals(0, counter.get());
+        assertTrue(prefix.tryAdvance((int x) -> assertEquals(0, x)));
+        assertEquals(11, counter.get());
+    }
+
+    @Test
+    public void testParallelUnknownSize() {
+        List<Integer> input = IntStreamEx.range(100000).map(x -> x % 1000).boxed().toList();
+        for (int n : new int[] { 2, 50, 100 }) {
+            List<Integer> result = StreamEx.of(input.iterator()).parallel().distinct(n).toList();
+            assertEquals(1000, result.size());
+            assertEquals(IntStreamEx.range(1000).boxed().toSet(), new HashSet<>(result));
+            assertEquals(1000, IntStreamEx.of(IntStreamEx.of(input).iterator()).parallel().distinct(n).count());
+            assertEquals(1000, LongStreamEx.of(LongStreamEx.range(100000).map(x -> x % 1000).iterator()).parallel().distinct(n).count());
+        }
+        assertEquals(0, StreamEx.of(input.iterator()).parallel().distinct(101).count());
+        List<String> withNulls = StreamEx.of(input).map(x -> x % 10 == 0 ? null : String.valueOf(x)).toList();
+        Set<String> expected = new HashSet<>(withNulls);
+        assertEquals(expected, StreamEx.of(withNulls.iterator()).parallel().distinct(100).toSet());
+        assertEquals(expected.size(), StreamEx.of(withNulls.iterator()).parallel().distinct(100).count());
+    }
 }
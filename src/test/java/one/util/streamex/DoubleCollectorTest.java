@@ -17,8 +17,10 @@ package one.util.streamex;
 
 import static org.junit.Assert.*;
 
+import java.util.Comparator;
 import java.util.Map;
 import java.util.OptionalDouble;
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -175,4 +177,25 @@ public class DoubleCollectorTest {
         assertArrayEquals(expected, DoubleStreamEx.of(1.0, 1.5, 2.7, 3.0).parallel().collect(
             DoubleCollector.toBooleanArray(x -> Math.floor(x) == x)));
     }
+
+    @Test
+    public void testLeastGreatest() {
+        double[] data = new Random(1).doubles(10000, -1, 1).toArray();
+        data[10] = Double.NaN;
+        data[20] = Double.NEGATIVE_INFINITY;
+        data[30] = -0.0;
+        data[40] = 0.0;
+        for (int n : new int[] { 0, 1, 10, 1500, 10000, 20000, Integer.MAX_VALUE }) {
+            double[] least = DoubleStreamEx.of(data).sorted().limit(n).toArray();
+            double[] greatest = DoubleStreamEx.of(data).boxed().sorted(Comparator.reverseOrder()).limit(n)
+                    .mapToDouble(x -> x).toArray();
+            assertArrayEquals(least, DoubleStreamEx.of(data).collect(DoubleCollector.least(n)), 0.0);
+            assertArrayEquals(least, DoubleStreamEx.of(data).parallel().collect(DoubleCollector.least(n)), 0.0);
+            assertArrayEquals(greatest, DoubleStreamEx.of(data).collect(DoubleCollector.greatest(n)), 0.0);
+            assertArrayEquals(greatest, DoubleStreamEx.of(data).parallel().collect(DoubleCollector.greatest(n)),
+                0.0);
+        }
+        assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(DoubleStreamEx.of(0.0, -0.0, 1.0)
+                .collect(DoubleCollector.least(1))[0]));
+    }
 }
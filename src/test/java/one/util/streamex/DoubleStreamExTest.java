@@ -27,6 +27,7 @@ import java.util.PrimitiveIterator.OfDouble;
 import java.util.Random;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.DoubleBinaryOperator;
@@ -299,6 +300,53 @@ public class DoubleStreamExTest {
         maxFns.forEach(fn -> assertEquals(120, fn.apply(s.get().parallel()).getAsDouble(), 0.0));
     }
 
+    @Test
+    public void testWindow() {
+        assertArrayEquals(new double[] { 6, 9, 12 }, DoubleStreamEx.of(1, 2, 3, 4, 5).windowSum(3).toArray(), 0.0);
+        assertArrayEquals(new double[] { 1, 2, 3 }, DoubleStreamEx.of(1, 2, 3, 4, 5).windowMin(3).toArray(), 0.0);
+        assertArrayEquals(new double[] { 3, 4, 5 }, DoubleStreamEx.of(1, 2, 3, 4, 5).windowMax(3).toArray(), 0.0);
+        assertArrayEquals(new double[] { 2, 3, 4 }, DoubleStreamEx.of(1, 2, 3, 4, 5).windowAverage(3).toArray(), 0.0);
+        assertEquals(0, DoubleStreamEx.of(1, 2, 3).windowSum(4).count());
+        assertEquals(0, DoubleStreamEx.empty().windowMax(1).count());
+        double[] special = { Double.POSITIVE_INFINITY, 1, Double.NaN, 2, 3, -0.0, 0.0 };
+        assertArrayEquals(new double[] { Double.POSITIVE_INFINITY, Double.NaN, Double.NaN, 5, 3, 0.0 }, DoubleStreamEx
+                .of(special).windowSum(2).toArray(), 0.0);
+        assertArrayEquals(new double[] { 1, Double.NaN, Double.NaN, 2, -0.0, -0.0 }, DoubleStreamEx.of(special)
+                .windowMin(2).toArray(), 0.0);
+        assertArrayEquals(new double[] { Double.POSITIVE_INFINITY, Double.NaN, Double.NaN, 3, 3, 0.0 }, DoubleStreamEx
+                .of(special).windowMax(2).toArray(), 0.0);
+        assertArrayEquals(new double[] { 2e-3, 2e-3 }, DoubleStreamEx.of(1e20, 1e-3, 1e-3, 1e-3).windowSum(2).skip(1)
+                .toArray(), 0.0);
+        withRandom(r -> {
+            double[] data = r.doubles(1000, -1, 1).toArray();
+            for (int width : new int[] { 1, 2, 3, 10, 100, 1000, 1001 }) {
+                int w = width;
+                int n = Math.max(0, data.length - w + 1);
+                double[] sums = IntStreamEx.range(n).mapToDouble(i -> DoubleStreamEx.of(data, i, i + w).sum()).toArray();
+                double[] mins = IntStreamEx.range(n).mapToDouble(i -> DoubleStreamEx.of(data, i, i + w).min().getAsDouble()).toArray();
+                double[] maxs = IntStreamEx.range(n).mapToDouble(i -> DoubleStreamEx.of(data, i, i + w).max().getAsDouble()).toArray();
+                String msg = "width = " + w;
+                withMessage(msg, () -> {
+                    assertArrayEquals(sums, DoubleStreamEx.of(data).windowSum(w).toArray(), 1e-9);
+                    assertArrayEquals(sums, DoubleStreamEx.of(data).parallel().windowSum(w).toArray(), 1e-9);
+                    assertArrayEquals(sums, DoubleStreamEx.of(data).parallel().filter(x -> true).windowSum(w).toArray(), 1e-9);
+                    assertArrayEquals(mins, DoubleStreamEx.of(data).parallel().windowMin(w).toArray(), 0.0);
+                    assertArrayEquals(maxs, DoubleStreamEx.of(data).parallel().windowMax(w).toArray(), 0.0);
+                    assertEquals(n, DoubleStreamEx.of(data).windowMin(w).spliterator().getExactSizeIfKnown());
+                });
+                checkSpliterator(msg, DoubleStreamEx.of(mins).boxed().toList(), () -> DoubleStreamEx.of(data).windowMin(w)
+                        .spliterator());
+                checkSpliterator(msg, DoubleStreamEx.of(maxs).boxed().toList(), () -> DoubleStreamEx.of(data).windowMax(w)
+                        .spliterator());
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowIllegalWidth() {
+        DoubleStreamEx.of(1, 2, 3).windowSum(0);
+    }
+
     @Test
     public void testPairMap() {
         assertEquals(0, DoubleStreamEx.of().pairMap(Double::sum).count());
@@ -330,6 +378,25 @@ public class DoubleStreamExTest {
                 .isPresent());
     }
 
+    @Test
+    public void testPairMapArray() {
+        withRandom(r -> {
+            double[] data = r.doubles(1000).toArray();
+            double[] expected = DoubleStreamEx.of(data).boxed().pairMap((a, b) -> b - a).mapToDouble(x -> x).toArray();
+            assertArrayEquals(expected, DoubleStreamEx.of(data).pairMap((a, b) -> b - a).toArray(), 0.0);
+            assertArrayEquals(expected, DoubleStreamEx.of(data).parallel().pairMap((a, b) -> b - a).toArray(), 0.0);
+            assertArrayEquals(Arrays.copyOfRange(expected, 10, 99), DoubleStreamEx.of(data, 10, 100).parallel().pairMap(
+                (a, b) -> b - a).toArray(), 0.0);
+            assertEquals(999, DoubleStreamEx.of(data).pairMap((a, b) -> b - a).spliterator().getExactSizeIfKnown());
+            checkSpliterator("pairMap", DoubleStreamEx.of(expected).boxed().toList(), () -> DoubleStreamEx.of(data).pairMap(
+                (a, b) -> b - a).spliterator());
+        });
+        double[] data = { 1, 2, 4 };
+        assertEquals(0, DoubleStreamEx.of(data, 1, 1).pairMap((a, b) -> b - a).count());
+        assertEquals(0, DoubleStreamEx.of(data, 1, 2).pairMap((a, b) -> b - a).count());
+        assertArrayEquals(new double[] { 2 }, DoubleStreamEx.of(data, 1, 3).pairMap((a, b) -> b - a).toArray(), 0.0);
+    }
+
     @Test
     public void testToFloatArray() {
         float[] expected = new float[10000];
@@ -500,4 +567,49 @@ public class DoubleStreamExTest {
         assertEquals(OptionalDouble.of(10), DoubleStreamEx.of(1, 2, 3, 4, 10).prefix(Double::sum).findFirst(x -> x > 7));
         assertEquals(OptionalDouble.empty(), DoubleStreamEx.of(1, 2, 3, 4, 10).prefix(Double::sum).findFirst(x -> x > 20));
     }
+
+    @Test
+    public void testPrefixArray() {
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            withRandom(r -> {
+                double[] data = r.ints(100000, -1000, 1000).asDoubleStream().toArray();
+                double[] expected = data.clone();
+                Arrays.parallelPrefix(expected, Double::sum);
+                assertArrayEquals(expected, DoubleStreamEx.of(data).prefix(Double::sum).toArray(), 0.0);
+                assertArrayEquals(expected, DoubleStreamEx.of(data).parallel().prefix(Double::sum).toArray(), 0.0);
+                assertArrayEquals(expected, DoubleStreamEx.of(data).parallel(pool).prefix(Double::sum).toArray(), 0.0);
+                double[] sub = Arrays.copyOfRange(data, 100, 90000);
+                Arrays.parallelPrefix(sub, Double::sum);
+                assertArrayEquals(sub, DoubleStreamEx.of(data, 100, 90000).parallel().prefix(Double::sum).toArray(), 0.0);
+                assertArrayEquals(data, DoubleStreamEx.of(data).parallel().prefix((a, b) -> b).toArray(), 0.0);
+                assertTrue(DoubleStreamEx.of(data).parallel().prefix((a, b) -> a).allMatch(x -> x == data[0]));
+                checkSpliterator("prefix", DoubleStreamEx.of(expected, 0, 5000).boxed().toList(), () -> DoubleStreamEx.of(data,
+                    0, 5000).prefix(Double::sum).spliterator());
+            });
+        } finally {
+            pool.shutdown();
+        }
+        try {
+            DoubleStreamEx.of(new double[100000]).parallel().prefix((a, b) -> {
+                throw new IllegalStateException();
+            }).toArray();
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testToArrayParallel() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            double[] expected = IntStreamEx.range(0, 100000).asDoubleStream().filter(x -> x % 3 != 0).toArray();
+            assertArrayEquals(expected, IntStreamEx.range(0, 100000).asDoubleStream().parallel().filter(x -> x % 3 != 0).toArray(), 0.0);
+            assertArrayEquals(expected, IntStreamEx.range(0, 100000).asDoubleStream().parallel(pool).filter(x -> x % 3 != 0).toArray(), 0.0);
+            assertArrayEquals(expected, DoubleStreamEx.of(IntStreamEx.range(0, 100000).asDoubleStream().toArray()).parallel().filter(x -> x % 3 != 0).toArray(), 0.0);
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
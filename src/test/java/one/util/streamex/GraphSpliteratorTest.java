@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author Tagir Valeev
+ */
+public class GraphSpliteratorTest {
+    @Test
+    public void testBreadthFirst() {
+        List<Integer> expected = StreamEx.ofGraphBreadthFirst(1, i -> i > 3000 ? null : Stream.of(i * 2, i * 3, i
+            / 5)).toList();
+        assertEquals(1, (int) expected.get(0));
+        assertEquals(expected.size(), StreamEx.of(expected).distinct().count());
+        checkSpliterator("bfs", expected, () -> new GraphSpliterator<>(1, i -> i > 3000 ? null : Stream.of(i * 2,
+            i * 3, i / 5), DistinctFilter.unbounded()));
+    }
+
+    @Test
+    public void testDepthFirst() {
+        List<Integer> expected = StreamEx.ofGraph(1, i -> i > 3000 ? null : Stream.of(i * 2, i * 3, i / 5)).toList();
+        assertEquals(1, (int) expected.get(0));
+        assertEquals(2, (int) expected.get(1));
+        assertEquals(expected.size(), StreamEx.of(expected).distinct().count());
+        checkSpliterator("dfs", expected, () -> new GraphSpliterator.DepthFirst<>(1, i -> i > 3000 ? null : Stream
+                .of(i * 2, i * 3, i / 5), DistinctFilter.unbounded()));
+    }
+
+    @Test
+    public void testSingle() {
+        checkSpliterator("single", Collections.singletonList("x"), () -> new GraphSpliterator<String>("x", x -> null, DistinctFilter
+                .unbounded()));
+        checkSpliterator("singleDfs", Collections.singletonList("x"), () -> new GraphSpliterator.DepthFirst<String>(
+            "x", x -> null, DistinctFilter.unbounded()));
+    }
+}
@@ -17,11 +17,17 @@ package one.util.streamex;
 
 import static one.util.streamex.TestHelpers.*;
 import static org.junit.Assert.*;
+import static java.util.Arrays.asList;
 
+import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.IntSummaryStatistics;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -191,6 +197,45 @@ public class IntCollectorTest {
         assertEquals("{2, 5, 8}", mapBitSet.get(2).toString());
     }
 
+    @Test
+    public void testGroupingByInt() {
+        List<IntUnaryOperator> classifiers = asList(i -> i % 3, i -> i / 7, i -> -i, i -> i * 1000003,
+            i -> i % 2 == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE, i -> i < 1000 ? i : i * 100);
+        withRandom(r -> {
+            int[] input = r.ints(5000, -2000, 2000).toArray();
+            for (IntUnaryOperator classifier : classifiers) {
+                Map<Integer, Long> expected = IntStreamEx.of(input).boxed().collect(
+                    Collectors.groupingBy(classifier::applyAsInt, Collectors.counting()));
+                Map<Integer, List<Integer>> expectedLists = IntStreamEx.of(input).boxed().groupingBy(
+                    classifier::applyAsInt);
+                for (boolean parallel : new boolean[] { false, true }) {
+                    IntStreamEx stream = parallel ? IntStreamEx.of(input).parallel() : IntStreamEx.of(input);
+                    assertEquals(expected, stream.collect(IntCollector.groupingByInt(classifier, IntCollector
+                            .counting())));
+                    stream = parallel ? IntStreamEx.of(input).parallel() : IntStreamEx.of(input);
+                    assertEquals(expectedLists, stream.collect(IntCollector.groupingByInt(classifier, IntCollector
+                            .of(Collectors.toList()))));
+                }
+            }
+        });
+
+        Map<Integer, int[]> map = IntStreamEx.of(5, 3, 5, 1, 3, 5).collect(
+            IntCollector.groupingByInt(i -> i, IntCollector.toArray()));
+        assertEquals(asList(5, 3, 1), new ArrayList<>(map.keySet()));
+        assertArrayEquals(new int[] { 5, 5, 5 }, map.get(5));
+        assertTrue(map.containsKey(1));
+        assertFalse(map.containsKey(2));
+        assertFalse(map.containsKey(1L));
+        assertNull(map.get("1"));
+        assertArrayEquals(new int[] { 1 }, map.put(1, new int[] { 2 }));
+        assertNull(map.put(2, new int[0]));
+        assertEquals(4, map.size());
+        map.entrySet().forEach(e -> e.setValue(new int[] { e.getKey() }));
+        assertArrayEquals(new int[] { 3 }, map.get(3));
+        assertEquals(Collections.emptyMap(), IntStreamEx.empty().collect(
+            IntCollector.groupingByInt(i -> i, IntCollector.counting())));
+    }
+
     @Test
     public void testByDigit() {
         withRandom(r -> {
@@ -241,4 +286,36 @@ public class IntCollectorTest {
         assertArrayEquals(expected, IntStreamEx.of(-1, 2, 3, -4).parallel().collect(
             IntCollector.toBooleanArray(x -> x < 0)));
     }
+
+    @Test
+    public void testLeastGreatest() {
+        int[] data = new Random(1).ints(10000, -5000, 5000).toArray();
+        for (int n : new int[] { 0, 1, 10, 1500, 10000, 20000, Integer.MAX_VALUE }) {
+            int[] least = IntStreamEx.of(data).sorted().limit(n).toArray();
+            int[] greatest = IntStreamEx.of(data).boxed().sorted(Comparator.reverseOrder()).limit(n).mapToInt(
+                x -> x).toArray();
+            assertArrayEquals(least, IntStreamEx.of(data).collect(IntCollector.least(n)));
+            assertArrayEquals(least, IntStreamEx.of(data).parallel().collect(IntCollector.least(n)));
+            assertArrayEquals(greatest, IntStreamEx.of(data).collect(IntCollector.greatest(n)));
+            assertArrayEquals(greatest, IntStreamEx.of(data).parallel().collect(IntCollector.greatest(n)));
+        }
+        assertArrayEquals(new int[] { Integer.MAX_VALUE, 0 }, IntStreamEx.of(0, Integer.MIN_VALUE,
+            Integer.MAX_VALUE).collect(IntCollector.greatest(2)));
+        assertArrayEquals(new int[0], IntStreamEx.empty().collect(IntCollector.least(10)));
+    }
+
+    @Test
+    public void testApproxDistinctCount() {
+        assertEquals(0L, (long) IntStreamEx.empty().collect(IntCollector.approxDistinctCount(12)));
+        for (int n : new int[] { 1, 10, 1000, 100000 }) {
+            int[] data = new Random(n).ints(n * 3L, 0, n).toArray();
+            long exact = IntStreamEx.of(data).distinct().count();
+            long approx = IntStreamEx.of(data).collect(IntCollector.approxDistinctCount(12));
+            assertEquals(exact, approx, Math.max(1, exact * 4 * 1.04 / 64));
+            assertEquals(approx, (long) IntStreamEx.of(data).parallel().collect(IntCollector
+                    .approxDistinctCount(12)));
+            assertEquals(approx, (long) IntStreamEx.of(data).boxed().collect(MoreCollectors.approxDistinctCount(
+                x -> x, 12)));
+        }
+    }
 }
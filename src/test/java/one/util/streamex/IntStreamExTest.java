@@ -16,8 +16,10 @@
 package one.util.streamex;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -34,6 +36,7 @@ import java.util.Scanner;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
@@ -421,6 +424,25 @@ public class IntStreamExTest {
         assertArrayEquals(new int[] { 1, 2 }, IntStreamEx.of(1, 2, 3).remove(x -> x > 2).toArray());
     }
 
+    @Test
+    public void testDistinctAtLeast() {
+        assertArrayEquals(new int[0], IntStreamEx.of(1, 2, 3).distinct(2).toArray());
+        assertArrayEquals(new int[] { 1, 2, 3 }, IntStreamEx.of(1, 2, 1, 3, 2).distinct(1).toArray());
+        assertArrayEquals(new int[] { 1, 2 }, IntStreamEx.of(1, 2, 1, 3, 2).distinct(2).toArray());
+        assertArrayEquals(new int[] { 2, 1 }, IntStreamEx.of(1, 2, 2, 3, 1, 4).distinct(2).toArray());
+        assertArrayEquals(new int[0], IntStreamEx.range(0, 10).distinct(2).toArray());
+        assertArrayEquals(new int[0], IntStreamEx.range(0, 10).parallel().distinct(2).toArray());
+        int[] input = IntStreamEx.range(0, 10000).map(x -> x % 3000).toArray();
+        int[] expected = IntStreamEx.range(0, 1000).toArray();
+        assertArrayEquals(expected, IntStreamEx.of(input).distinct(4).toArray());
+        assertArrayEquals(expected, IntStreamEx.of(input).parallel().distinct(4).sorted().toArray());
+        assertEquals(3000, IntStreamEx.of(input).parallel().distinct(3).count());
+        assertEquals(0, IntStreamEx.of(input).parallel().distinct(5).count());
+        // unknown size source
+        assertEquals(IntStreamEx.of(input).boxed().distinct(3).toSet(), IntStreamEx.of(IntStreamEx.of(input).iterator()).parallel()
+                .distinct(3).boxed().toSet());
+    }
+
     @Test
     public void testSort() {
         assertArrayEquals(new int[] { 0, 3, 6, 1, 4, 7, 2, 5, 8 }, IntStreamEx.range(0, 9).sortedByInt(
@@ -435,6 +457,26 @@ public class IntStreamExTest {
             1000, -10, Integer.MIN_VALUE, Integer.MAX_VALUE).reverseSorted().toArray());
     }
 
+    @Test
+    public void testRadixSorted() {
+        assertArrayEquals(new int[] { Integer.MIN_VALUE, -10, 0, 1, 1000, Integer.MAX_VALUE }, IntStreamEx.of(0, 1,
+            1000, -10, Integer.MIN_VALUE, Integer.MAX_VALUE).radixSorted().toArray());
+        withRandom(r -> {
+            for (int size : new int[] { 0, 100, 10000, 100000 }) {
+                int[] data = r.ints(size).toArray();
+                int[] narrow = r.ints(size, -1000, 1000).toArray();
+                for (int[] input : Arrays.asList(data, narrow)) {
+                    int[] expected = input.clone();
+                    Arrays.sort(expected);
+                    assertArrayEquals(expected, IntStreamEx.of(input).radixSorted().toArray());
+                    assertArrayEquals(expected, IntStreamEx.of(input).parallel().radixSorted().toArray());
+                    assertArrayEquals(expected, IntStreamEx.of(input).parallel().radixSorted().boxed()
+                            .mapToInt(x -> x).toArray());
+                }
+            }
+        });
+    }
+
     @Test
     public void testToString() {
         assertEquals("LOWERCASE", IntStreamEx.ofChars("lowercase").map(c -> Character.toUpperCase((char) c))
@@ -494,6 +536,95 @@ public class IntStreamExTest {
         return s.pairMap((a, b) -> a);
     }
 
+    @Test
+    public void testCollapse() {
+        assertArrayEquals(new int[] { 1, 5, 9, 13 }, IntStreamEx.of(1, 2, 3, 4, 5, 6, 7).collapse(
+            (a, b) -> a % 2 == 0 && b == a + 1, (a, b) -> a + b).toArray());
+        assertArrayEquals(new int[0], IntStreamEx.empty().collapse((a, b) -> true, (a, b) -> a + b).toArray());
+        assertEquals(57, IntStreamEx.range(1, 100).collapse((a, b) -> a / 10 == b / 10, Math::max).limit(3)
+                .sum());
+        withRandom(r -> {
+            int[] data = r.ints(1000, 0, 10).toArray();
+            int[] expected = IntStreamEx.of(data).boxed().collapse((a, b) -> a <= b, Integer::sum).mapToInt(
+                x -> x).toArray();
+            assertArrayEquals(expected, IntStreamEx.of(data).collapse((a, b) -> a <= b, Integer::sum).toArray());
+            assertArrayEquals(expected, IntStreamEx.of(data).parallel().collapse((a, b) -> a <= b, Integer::sum)
+                    .toArray());
+            checkSpliterator("collapse", IntStreamEx.of(expected).boxed().toList(), () -> IntStreamEx.of(data)
+                    .collapse((a, b) -> a <= b, Integer::sum).spliterator());
+        });
+    }
+
+    @Test
+    public void testRunLengths() {
+        assertEquals("1=2,2=1,1=3", IntStreamEx.of(1, 1, 2, 1, 1, 1).runLengths().join("=").joining(","));
+        assertEquals(0, IntStreamEx.empty().runLengths().count());
+        withRandom(r -> {
+            int[] data = r.ints(1000, 0, 10).toArray();
+            List<Map.Entry<Integer, Long>> expected = IntStreamEx.of(data).boxed().runLengths().toList();
+            assertEquals(expected, IntStreamEx.of(data).runLengths().toList());
+            assertEquals(expected, IntStreamEx.of(data).parallel().runLengths().toList());
+            checkSpliterator("runLengths", expected, () -> IntStreamEx.of(data).runLengths().spliterator());
+        });
+    }
+
+    @Test
+    public void testGroupRuns() {
+        assertEquals("[1, 2, 3]|[5]|[7, 8]", IntStreamEx.of(1, 2, 3, 5, 7, 8).groupRuns((a, b) -> b == a + 1).map(
+            Arrays::toString).joining("|"));
+        assertEquals(0, IntStreamEx.empty().groupRuns((a, b) -> true).count());
+        withRandom(r -> {
+            int[] data = r.ints(1000, 0, 10).toArray();
+            List<List<Integer>> expected = IntStreamEx.of(data).boxed().groupRuns((a, b) -> a <= b).toList();
+            assertEquals(expected, IntStreamEx.of(data).groupRuns((a, b) -> a <= b).map(
+                a -> IntStreamEx.of(a).boxed().toList()).toList());
+            assertEquals(expected, IntStreamEx.of(data).parallel().groupRuns((a, b) -> a <= b).map(
+                a -> IntStreamEx.of(a).boxed().toList()).toList());
+            checkSpliterator("groupRuns", expected, () -> IntStreamEx.of(data).groupRuns((a, b) -> a <= b).map(
+                a -> IntStreamEx.of(a).boxed().toList()).spliterator());
+        });
+        assertEquals(Collections.singletonList(10000), IntStreamEx.range(10000).parallel()
+                .groupRuns((a, b) -> a < b).map(a -> a.length).toList());
+    }
+
+    @Test
+    public void testWindow() {
+        assertArrayEquals(new int[] { 6, 9, 12 }, IntStreamEx.of(1, 2, 3, 4, 5).windowSum(3).toArray());
+        assertArrayEquals(new int[] { 1, 2, 3 }, IntStreamEx.of(1, 2, 3, 4, 5).windowMin(3).toArray());
+        assertArrayEquals(new int[] { 3, 4, 5 }, IntStreamEx.of(1, 2, 3, 4, 5).windowMax(3).toArray());
+        assertArrayEquals(new double[] { 2, 3, 4 }, IntStreamEx.of(1, 2, 3, 4, 5).windowAverage(3).toArray(), 0.0);
+        assertEquals(0, IntStreamEx.of(1, 2, 3).windowSum(4).count());
+        assertEquals(0, IntStreamEx.empty().windowMax(1).count());
+        withRandom(r -> {
+            int[] data = r.ints(1000, -1000, 1000).toArray();
+            for (int width : new int[] { 1, 2, 3, 10, 100, 1000, 1001 }) {
+                int w = width;
+                int n = Math.max(0, data.length - w + 1);
+                int[] sums = IntStreamEx.range(n).map(i -> IntStreamEx.of(data, i, i + w).sum()).toArray();
+                int[] mins = IntStreamEx.range(n).map(i -> IntStreamEx.of(data, i, i + w).min().getAsInt()).toArray();
+                int[] maxs = IntStreamEx.range(n).map(i -> IntStreamEx.of(data, i, i + w).max().getAsInt()).toArray();
+                String msg = "width = " + w;
+                withMessage(msg, () -> {
+                    assertArrayEquals(sums, IntStreamEx.of(data).windowSum(w).toArray());
+                    assertArrayEquals(sums, IntStreamEx.of(data).parallel().windowSum(w).toArray());
+                    assertArrayEquals(sums, IntStreamEx.of(data).parallel().filter(x -> true).windowSum(w).toArray());
+                    assertArrayEquals(mins, IntStreamEx.of(data).parallel().windowMin(w).toArray());
+                    assertArrayEquals(maxs, IntStreamEx.of(data).parallel().windowMax(w).toArray());
+                    assertEquals(n, IntStreamEx.of(data).windowMin(w).spliterator().getExactSizeIfKnown());
+                });
+                checkSpliterator(msg, IntStreamEx.of(mins).boxed().toList(), () -> IntStreamEx.of(data).windowMin(w)
+                        .spliterator());
+                checkSpliterator(msg, IntStreamEx.of(maxs).boxed().toList(), () -> IntStreamEx.of(data).windowMax(w)
+                        .spliterator());
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowIllegalWidth() {
+        IntStreamEx.of(1, 2, 3).windowSum(0);
+    }
+
     @Test
     public void testPairMap() {
         assertEquals(0, IntStreamEx.range(0).pairMap(Integer::sum).count());
@@ -530,6 +661,25 @@ public class IntStreamExTest {
         assertFalse(IntStreamEx.range(1000).greater(2000).parallel().pairMap((a, b) -> a).findFirst().isPresent());
     }
 
+    @Test
+    public void testPairMapArray() {
+        withRandom(r -> {
+            int[] data = r.ints(1000, 0, 1000000).toArray();
+            int[] expected = IntStreamEx.of(data).boxed().pairMap((a, b) -> b - a).mapToInt(x -> x).toArray();
+            assertArrayEquals(expected, IntStreamEx.of(data).pairMap((a, b) -> b - a).toArray());
+            assertArrayEquals(expected, IntStreamEx.of(data).parallel().pairMap((a, b) -> b - a).toArray());
+            assertArrayEquals(Arrays.copyOfRange(expected, 10, 99), IntStreamEx.of(data, 10, 100).parallel().pairMap(
+                (a, b) -> b - a).toArray());
+            assertEquals(999, IntStreamEx.of(data).pairMap((a, b) -> b - a).spliterator().getExactSizeIfKnown());
+            checkSpliterator("pairMap", IntStreamEx.of(expected).boxed().toList(), () -> IntStreamEx.of(data).pairMap(
+                (a, b) -> b - a).spliterator());
+        });
+        int[] data = { 1, 2, 4 };
+        assertEquals(0, IntStreamEx.of(data, 1, 1).pairMap((a, b) -> b - a).count());
+        assertEquals(0, IntStreamEx.of(data, 1, 2).pairMap((a, b) -> b - a).count());
+        assertArrayEquals(new int[] { 2 }, IntStreamEx.of(data, 1, 3).pairMap((a, b) -> b - a).toArray());
+    }
+
     @Test
     public void testToByteArray() {
         byte[] expected = new byte[10000];
@@ -766,6 +916,31 @@ public class IntStreamExTest {
         try(IntStream s = IntStreamEx.of(new ByteArrayInputStream(data))) {
             assertEquals(278, s.sum());
         }
+        byte[] big = new byte[100000];
+        new Random(1).nextBytes(big);
+        int[] expected = IntStreamEx.of(big).map(b -> b & 0xFF).toArray();
+        InputStream slow = new ByteArrayInputStream(big) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1000));
+            }
+        };
+        assertArrayEquals(expected, IntStreamEx.of(slow).toArray());
+        PrimitiveIterator.OfInt it = IntStreamEx.of(new ByteArrayInputStream(big)).iterator();
+        assertArrayEquals(expected, IntStreamEx.generate(it::nextInt).limit(big.length).toArray());
+        assertFalse(it.hasNext());
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("test");
+            }
+        };
+        try {
+            IntStreamEx.of(failing).count();
+            fail("No exception");
+        } catch (UncheckedIOException e) {
+            assertEquals("test", e.getCause().getMessage());
+        }
     }
     
     @Test
@@ -786,10 +961,110 @@ public class IntStreamExTest {
         assertTrue(flag.get());
     }
 
+    @Test
+    public void testAsInputStreamBulk() throws IOException {
+        InputStream is = IntStreamEx.range(1000).asByteInputStream();
+        assertEquals(1000, is.available());
+        byte[] data = new byte[10];
+        assertEquals(5, is.read(data, 2, 5));
+        assertArrayEquals(new byte[] { 0, 0, 0, 1, 2, 3, 4, 0, 0, 0 }, data);
+        assertEquals(0, is.read(data, 0, 0));
+        assertEquals(995, is.available());
+        assertEquals(990, is.skip(990));
+        assertEquals(5, is.read(data));
+        assertArrayEquals(new byte[] { (byte) 995, (byte) 996, (byte) 997, (byte) 998, (byte) 999 }, Arrays
+                .copyOf(data, 5));
+        assertEquals(0, is.skip(10));
+        assertEquals(-1, is.read(data));
+        assertEquals(0, is.available());
+        assertEquals(0, IntStreamEx.range(1000).filter(x -> x > 0).asByteInputStream().available());
+
+        byte[] big = new byte[100000];
+        new Random(1).nextBytes(big);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = IntStreamEx.of(new ByteArrayInputStream(big)).asByteInputStream()) {
+            byte[] buf = new byte[4096];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+        }
+        assertArrayEquals(big, out.toByteArray());
+    }
+
+    @Test
+    public void testAsInputStreamChunks() throws IOException {
+        int size = 20000;
+        for (Supplier<IntStreamEx> supplier : Arrays.<Supplier<IntStreamEx>> asList(() -> IntStreamEx.range(size),
+            () -> IntStreamEx.range(size).filter(x -> true), () -> IntStreamEx.of(IntStreamEx.range(size)
+                    .iterator()))) {
+            InputStream is = supplier.get().asByteInputStream();
+            assertEquals(0, is.read());
+            assertEquals(8190, is.skip(8190));
+            assertEquals(8191 % 256, is.read());
+            byte[] data = new byte[10000];
+            assertEquals(10000, is.read(data));
+            for (int i = 0; i < data.length; i++) {
+                assertEquals((byte) (8192 + i), data[i]);
+            }
+            assertEquals(1000, is.skip(1000));
+            assertEquals((19192 % 256), is.read());
+            assertEquals(807, is.skip(1000));
+            assertEquals(-1, is.read());
+            assertEquals(-1, is.read(data));
+            assertEquals(0, is.skip(1));
+        }
+    }
+
     @Test
     public void testPrefix() {
         assertArrayEquals(new int[] { 1, 3, 6, 10, 20 }, IntStreamEx.of(1, 2, 3, 4, 10).prefix(Integer::sum).toArray());
         assertEquals(OptionalInt.of(10), IntStreamEx.of(1, 2, 3, 4, 10).prefix(Integer::sum).findFirst(x -> x > 7));
         assertEquals(OptionalInt.empty(), IntStreamEx.of(1, 2, 3, 4, 10).prefix(Integer::sum).findFirst(x -> x > 20));
     }
+
+    @Test
+    public void testPrefixArray() {
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            withRandom(r -> {
+                int[] data = r.ints(100000, -1000, 1000).toArray();
+                int[] expected = data.clone();
+                Arrays.parallelPrefix(expected, Integer::sum);
+                assertArrayEquals(expected, IntStreamEx.of(data).prefix(Integer::sum).toArray());
+                assertArrayEquals(expected, IntStreamEx.of(data).parallel().prefix(Integer::sum).toArray());
+                assertArrayEquals(expected, IntStreamEx.of(data).parallel(pool).prefix(Integer::sum).toArray());
+                int[] sub = Arrays.copyOfRange(data, 100, 90000);
+                Arrays.parallelPrefix(sub, Integer::sum);
+                assertArrayEquals(sub, IntStreamEx.of(data, 100, 90000).parallel().prefix(Integer::sum).toArray());
+                assertArrayEquals(data, IntStreamEx.of(data).parallel().prefix((a, b) -> b).toArray());
+                assertTrue(IntStreamEx.of(data).parallel().prefix((a, b) -> a).allMatch(x -> x == data[0]));
+                checkSpliterator("prefix", IntStreamEx.of(expected, 0, 5000).boxed().toList(), () -> IntStreamEx.of(data,
+                    0, 5000).prefix(Integer::sum).spliterator());
+            });
+        } finally {
+            pool.shutdown();
+        }
+        try {
+            IntStreamEx.of(new int[100000]).parallel().prefix((a, b) -> {
+                throw new IllegalStateException();
+            }).toArray();
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testToArrayParallel() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            int[] expected = IntStreamEx.range(0, 100000).filter(x -> x % 3 != 0).toArray();
+            assertArrayEquals(expected, IntStreamEx.range(0, 100000).parallel().filter(x -> x % 3 != 0).toArray());
+            assertArrayEquals(expected, IntStreamEx.range(0, 100000).parallel(pool).filter(x -> x % 3 != 0).toArray());
+            assertArrayEquals(expected, IntStreamEx.of(IntStreamEx.range(0, 100000).toArray()).parallel().filter(x -> x % 3 != 0).toArray());
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
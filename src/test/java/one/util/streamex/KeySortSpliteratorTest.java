@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Test;
+
+import static one.util.streamex.StreamExInternals.*;
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author Tagir Valeev
+ */
+public class KeySortSpliteratorTest {
+    @Test
+    public void testSpliterator() {
+        List<String> input = Arrays.asList("ccc", "a", "bb", "d", "eee", "ff", "", "g");
+        List<String> expected = Arrays.asList("", "a", "d", "g", "bb", "ff", "ccc", "eee");
+        checkSpliterator("ByInt", expected, () -> new KeySortSpliterator<>(input.spliterator(), String::length,
+                true, false));
+        checkSpliterator("ByLong", expected, () -> new KeySortSpliterator<>(input.spliterator(), String::length,
+                false, false));
+        checkSpliterator("ByDouble", expected, () -> new KeySortSpliterator<>(input.spliterator(),
+                s -> sortableBits(s.length()), false, false));
+        checkSpliterator("Empty", Arrays.<String> asList(), () -> new KeySortSpliterator<>(Arrays.<String> asList()
+                .spliterator(), String::length, true, false));
+
+        assertEquals(Spliterator.ORDERED | Spliterator.SIZED, new KeySortSpliterator<>(input.spliterator(),
+            String::length, true, false).characteristics());
+        assertEquals(8, new KeySortSpliterator<>(input.spliterator(), String::length, true, false).estimateSize());
+    }
+
+    @Test
+    public void testStability() {
+        withRandom(r -> {
+            for (int size : new int[] { 0, 1, 31, 32, 33, 100, 300 }) {
+                List<long[]> input = IntStreamEx.range(size).mapToObj(i -> new long[] { r.nextInt(50) - 25, i })
+                        .toList();
+                List<long[]> expected = StreamEx.of(input).sorted(Comparator.comparingLong(a -> a[0])).toList();
+                checkSpliterator("Stability" + size, expected, () -> new KeySortSpliterator<>(input.spliterator(),
+                        a -> a[0], true, false));
+                checkSpliterator("Stability" + size, expected, () -> new KeySortSpliterator<>(input.spliterator(),
+                        a -> a[0] * 1_000_000_000_000L, false, false));
+                checkSpliterator("RadixStability" + size, expected, () -> new KeySortSpliterator<>(input
+                        .spliterator(), a -> a[0], true, true));
+                checkSpliterator("RadixStability" + size, expected, () -> new KeySortSpliterator<>(input
+                        .spliterator(), a -> a[0] * 1_000_000_000_000L, false, true));
+            }
+        });
+    }
+
+    @Test
+    public void testLarge() {
+        // radix sort is used starting from RadixSort.THRESHOLD elements
+        withRandom(r -> {
+            int size = 30000;
+            List<long[]> input = IntStreamEx.range(size).mapToObj(i -> new long[] { r.nextInt(20000) - 10000, i })
+                    .toList();
+            List<long[]> expected = StreamEx.of(input).sorted(Comparator.comparing(a -> a[0])).toList();
+            List<Supplier<Spliterator<long[]>>> suppliers = Arrays.asList(
+                () -> new KeySortSpliterator<>(input.spliterator(), a -> a[0], true, false),
+                () -> new KeySortSpliterator<>(input.spliterator(), a -> a[0] * 1_000_000_000_000L, false, false),
+                () -> new KeySortSpliterator<>(input.spliterator(), a -> a[0], true, true),
+                () -> new KeySortSpliterator<>(input.spliterator(), a -> a[0] * 1_000_000_000_000L, false, true));
+            for (Supplier<Spliterator<long[]>> supplier : suppliers) {
+                assertEquals(expected, StreamSupport.stream(supplier.get(), false).collect(Collectors.toList()));
+                assertEquals(expected, StreamSupport.stream(supplier.get(), true).collect(Collectors.toList()));
+            }
+        });
+    }
+
+    @Test
+    public void testSortIndices() {
+        withRandom(r -> {
+            long[] keys = r.longs(10000).toArray();
+            int[] order = KeySortSpliterator.sortIndices(keys);
+            long[] sorted = keys.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(sorted, IntStreamEx.of(order).mapToLong(i -> keys[i]).toArray());
+        });
+    }
+}
@@ -21,6 +21,7 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -32,6 +33,8 @@ import static org.junit.Assert.*;
  * @author Tagir Valeev
  */
 public class LimiterTest {
+    private static final ForkJoinPool POOL = new ForkJoinPool(8);
+
     @Test
     public void testLimiter() {
         Comparator<String> cmp = Comparator.nullsFirst(Comparator.comparingInt(String::length));
@@ -73,5 +76,40 @@ public class LimiterTest {
         assertEquals("Mismatch (sequential), " + msg + ", limit=" + limit, subList, actual);
         actual = input.parallelStream().collect(MoreCollectors.least(comp, limit));
         assertEquals("Mismatch (parallel), " + msg + ", limit=" + limit, subList, actual);
+        actual = StreamEx.of(input).parallel(POOL).collect(MoreCollectors.least(comp, limit));
+        assertEquals("Mismatch (parallel shared bound), " + msg + ", limit=" + limit, subList, actual);
+    }
+
+    @Test
+    public void testPutAll() {
+        Comparator<Integer> cmp = Comparator.comparingInt(x -> x / 10);
+        Limiter<Integer> left = new Limiter<>(5, cmp);
+        Limiter<Integer> right = new Limiter<>(5, cmp);
+        IntStreamEx.of(35, 12, 18, 90, 11).boxed().forEach(left::put);
+        IntStreamEx.of(13, 10, 41, 99, 19, 5).boxed().forEach(right::put);
+        Limiter<Integer> merged = left.putAll(right);
+        merged.sort();
+        assertEquals(Arrays.asList(5, 12, 18, 11, 13), new ArrayList<>(merged));
+
+        // right side is completely worse than left
+        left = new Limiter<>(2, cmp);
+        right = new Limiter<>(2, cmp);
+        IntStreamEx.of(1, 2, 3).boxed().forEach(left::put);
+        IntStreamEx.of(4, 5).boxed().forEach(right::put);
+        assertSame(left, left.putAll(right));
+        left.sort();
+        assertEquals(Arrays.asList(1, 2), new ArrayList<>(left));
+
+        // left side is completely worse than right
+        left = new Limiter<>(2, cmp);
+        right = new Limiter<>(2, cmp);
+        IntStreamEx.of(20, 30).boxed().forEach(left::put);
+        IntStreamEx.of(1, 2, 3).boxed().forEach(right::put);
+        merged = left.putAll(right);
+        assertSame(right, merged);
+        merged.sort();
+        assertEquals(Arrays.asList(1, 2), new ArrayList<>(merged));
+
+        assertSame(right, new Limiter<>(2, cmp).putAll(right));
     }
 }
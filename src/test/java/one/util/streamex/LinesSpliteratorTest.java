@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author Tagir Valeev
+ */
+public class LinesSpliteratorTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private void checkLines(String content, Charset charset) throws IOException {
+        checkLines(content, charset, 1, 3, 1 << 20);
+    }
+
+    // every mapped window occupies an address space area until garbage collected,
+    // so tiny windows are used for short inputs only
+    private void checkLines(String content, Charset charset, int... windowSizes) throws IOException {
+        Path path = tmp.newFile().toPath();
+        Files.write(path, content.getBytes(charset));
+        List<String> expected = new BufferedReader(new StringReader(content)).lines().collect(Collectors.toList());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (int windowSize : windowSizes) {
+                checkSpliterator(content, expected, () -> new LinesSpliterator(channel, charset, 0, size,
+                        windowSize));
+            }
+        }
+        assertEquals(expected, StreamEx.ofLines(path, charset).toList());
+        assertEquals(expected, StreamEx.ofLines(path, charset).parallel().toList());
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        checkLines("a", StandardCharsets.UTF_8);
+        checkLines("\n", StandardCharsets.UTF_8);
+        checkLines("\r\n\r\n", StandardCharsets.UTF_8);
+        checkLines("\r\r\n\n\r", StandardCharsets.UTF_8);
+        checkLines("foo\nbar\r\nbaz\rqux\n", StandardCharsets.UTF_8);
+        checkLines("фыв\r\n€😀\n\nlast", StandardCharsets.UTF_8);
+        checkLines("café\r\nnaïve\nÿ", StandardCharsets.ISO_8859_1);
+        checkLines("plain\rascii\r\n", StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testRandomLines() throws IOException {
+        Random r = new Random(1);
+        String[] parts = { "\n", "\r", "\r\n", "", "x", "é", "€", "line" };
+        for (int len : new int[] { 10, 100 }) {
+            String content = IntStreamEx.of(r, len, 0, parts.length).elements(parts).joining();
+            checkLines(content, StandardCharsets.UTF_8);
+        }
+        String content = IntStreamEx.of(r, 5000, 0, parts.length).elements(parts).joining();
+        checkLines(content, StandardCharsets.UTF_8, 1 << 10, 1 << 20);
+    }
+
+    @Test
+    public void testSupported() {
+        assertTrue(LinesSpliterator.isSupported(StandardCharsets.UTF_8));
+        assertTrue(LinesSpliterator.isSupported(StandardCharsets.ISO_8859_1));
+        assertTrue(LinesSpliterator.isSupported(StandardCharsets.US_ASCII));
+        assertFalse(LinesSpliterator.isSupported(StandardCharsets.UTF_16));
+        assertFalse(LinesSpliterator.isSupported(StandardCharsets.UTF_16LE));
+    }
+}
@@ -17,11 +17,17 @@ package one.util.streamex;
 
 import static one.util.streamex.TestHelpers.*;
 import static org.junit.Assert.*;
+import static java.util.Arrays.asList;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.LongSummaryStatistics;
 import java.util.Map;
 import java.util.OptionalLong;
+import java.util.Random;
+import java.util.function.LongUnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 
@@ -152,6 +158,29 @@ public class LongCollectorTest {
         }
     }
 
+    @Test
+    public void testGroupingByLong() {
+        List<LongUnaryOperator> classifiers = asList(i -> i % 3, i -> i / 7, i -> -i, i -> i * 1000000007L,
+            i -> i % 2 == 0 ? Long.MIN_VALUE : Long.MAX_VALUE, i -> i % 2 == 0 ? i - Long.MAX_VALUE : i
+                + Long.MAX_VALUE);
+        withRandom(r -> {
+            long[] input = r.longs(5000, -2000, 2000).toArray();
+            for (LongUnaryOperator classifier : classifiers) {
+                Map<Long, Long> expected = LongStreamEx.of(input).boxed().collect(
+                    Collectors.groupingBy(classifier::applyAsLong, Collectors.counting()));
+                assertEquals(expected, LongStreamEx.of(input).collect(
+                    LongCollector.groupingByLong(classifier, LongCollector.counting())));
+                assertEquals(expected, LongStreamEx.of(input).parallel().collect(
+                    LongCollector.groupingByLong(classifier, LongCollector.counting())));
+            }
+        });
+        Map<Long, long[]> map = LongStreamEx.of(5, 3, 5, 1).collect(
+            LongCollector.groupingByLong(i -> i, LongCollector.toArray()));
+        assertEquals(asList(5L, 3L, 1L), new ArrayList<>(map.keySet()));
+        assertArrayEquals(new long[] { 5, 5 }, map.get(5L));
+        assertNull(map.get(5));
+    }
+
     @Test
     public void testAsCollector() {
         assertEquals(10000499500l, (long) LongStream.range(10000000, 10001000).boxed().collect(LongCollector.summing()));
@@ -187,4 +216,35 @@ public class LongCollectorTest {
             Long.MAX_VALUE).parallel().collect(
             LongCollector.toBooleanArray(x -> x < Integer.MIN_VALUE || x > Integer.MAX_VALUE)));
     }
+
+    @Test
+    public void testLeastGreatest() {
+        long[] data = new Random(1).longs(10000).toArray();
+        for (int n : new int[] { 0, 1, 10, 1500, 10000, 20000, Integer.MAX_VALUE }) {
+            long[] least = LongStreamEx.of(data).sorted().limit(n).toArray();
+            long[] greatest = LongStreamEx.of(data).boxed().sorted(Comparator.reverseOrder()).limit(n).mapToLong(
+                x -> x).toArray();
+            assertArrayEquals(least, LongStreamEx.of(data).collect(LongCollector.least(n)));
+            assertArrayEquals(least, LongStreamEx.of(data).parallel().collect(LongCollector.least(n)));
+            assertArrayEquals(greatest, LongStreamEx.of(data).collect(LongCollector.greatest(n)));
+            assertArrayEquals(greatest, LongStreamEx.of(data).parallel().collect(LongCollector.greatest(n)));
+        }
+        assertArrayEquals(new long[] { Long.MIN_VALUE, 0 }, LongStreamEx.of(0, Long.MAX_VALUE, Long.MIN_VALUE)
+                .collect(LongCollector.least(2)));
+    }
+
+    @Test
+    public void testApproxDistinctCount() {
+        assertEquals(0L, (long) LongStreamEx.empty().collect(LongCollector.approxDistinctCount(12)));
+        for (int n : new int[] { 1, 10, 1000, 100000 }) {
+            long[] data = new Random(n).longs(n * 3L, 0, n).toArray();
+            long exact = LongStreamEx.of(data).distinct().count();
+            long approx = LongStreamEx.of(data).collect(LongCollector.approxDistinctCount(12));
+            assertEquals(exact, approx, Math.max(1, exact * 4 * 1.04 / 64));
+            assertEquals(approx, (long) LongStreamEx.of(data).parallel().collect(LongCollector
+                    .approxDistinctCount(12)));
+            assertEquals(approx, (long) LongStreamEx.of(data).boxed().collect(MoreCollectors.approxDistinctCount(
+                x -> x, 12)));
+        }
+    }
 }
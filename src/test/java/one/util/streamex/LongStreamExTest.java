@@ -18,6 +18,7 @@ package one.util.streamex;
 import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.OptionalLong;
@@ -26,6 +27,7 @@ import java.util.PrimitiveIterator.OfLong;
 import java.util.Random;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
@@ -356,6 +358,25 @@ public class LongStreamExTest {
         assertArrayEquals(new long[] { 1, 2 }, LongStreamEx.of(1, 2, 3).remove(x -> x > 2).toArray());
     }
 
+    @Test
+    public void testDistinctAtLeast() {
+        assertArrayEquals(new long[0], LongStreamEx.of(1, 2, 3).distinct(2).toArray());
+        assertArrayEquals(new long[] { 1, 2, 3 }, LongStreamEx.of(1, 2, 1, 3, 2).distinct(1).toArray());
+        assertArrayEquals(new long[] { 1, 2 }, LongStreamEx.of(1, 2, 1, 3, 2).distinct(2).toArray());
+        assertArrayEquals(new long[] { 2, 1 }, LongStreamEx.of(1, 2, 2, 3, 1, 4).distinct(2).toArray());
+        assertArrayEquals(new long[0], LongStreamEx.range(0, 10).distinct(2).toArray());
+        assertArrayEquals(new long[0], LongStreamEx.range(0, 10).parallel().distinct(2).toArray());
+        long[] input = LongStreamEx.range(0, 10000).map(x -> x % 3000).toArray();
+        long[] expected = LongStreamEx.range(0, 1000).toArray();
+        assertArrayEquals(expected, LongStreamEx.of(input).distinct(4).toArray());
+        assertArrayEquals(expected, LongStreamEx.of(input).parallel().distinct(4).sorted().toArray());
+        assertEquals(3000, LongStreamEx.of(input).parallel().distinct(3).count());
+        assertEquals(0, LongStreamEx.of(input).parallel().distinct(5).count());
+        // unknown size source
+        assertEquals(LongStreamEx.of(input).boxed().distinct(3).toSet(), LongStreamEx.of(LongStreamEx.of(input).iterator()).parallel()
+                .distinct(3).boxed().toSet());
+    }
+
     @Test
     public void testSort() {
         assertArrayEquals(new long[] { 0, 3, 6, 1, 4, 7, 2, 5, 8 }, LongStreamEx.range(0, 9).sortedByLong(
@@ -373,6 +394,26 @@ public class LongStreamExTest {
             -10, Long.MIN_VALUE, Long.MAX_VALUE).sortedByDouble(x -> 1.0 / x).toArray());
     }
 
+    @Test
+    public void testRadixSorted() {
+        assertArrayEquals(new long[] { Long.MIN_VALUE, -10, 0, 1, 1000, Long.MAX_VALUE }, LongStreamEx.of(0, 1,
+            1000, -10, Long.MIN_VALUE, Long.MAX_VALUE).radixSorted().toArray());
+        withRandom(r -> {
+            for (int size : new int[] { 0, 100, 10000, 100000 }) {
+                long[] data = r.longs(size).toArray();
+                long[] narrow = r.longs(size, -1000, 1000).toArray();
+                for (long[] input : Arrays.asList(data, narrow)) {
+                    long[] expected = input.clone();
+                    Arrays.sort(expected);
+                    assertArrayEquals(expected, LongStreamEx.of(input).radixSorted().toArray());
+                    assertArrayEquals(expected, LongStreamEx.of(input).parallel().radixSorted().toArray());
+                    assertArrayEquals(expected, LongStreamEx.of(input).parallel().radixSorted().boxed()
+                            .mapToLong(x -> x).toArray());
+                }
+            }
+        });
+    }
+
     @SafeVarargs
     private final void checkEmpty(Function<LongStreamEx, OptionalLong>... fns) {
         int i = 0;
@@ -418,6 +459,95 @@ public class LongStreamExTest {
         maxFns.forEach(fn -> assertEquals(120, fn.apply(s.get().parallel()).getAsLong()));
     }
 
+    @Test
+    public void testCollapse() {
+        assertArrayEquals(new long[] { 1, 5, 9, 13 }, LongStreamEx.of(1, 2, 3, 4, 5, 6, 7).collapse(
+            (a, b) -> a % 2 == 0 && b == a + 1, (a, b) -> a + b).toArray());
+        assertArrayEquals(new long[0], LongStreamEx.empty().collapse((a, b) -> true, (a, b) -> a + b).toArray());
+        assertEquals(57, LongStreamEx.range(1, 100).collapse((a, b) -> a / 10 == b / 10, Math::max).limit(3)
+                .sum());
+        withRandom(r -> {
+            long[] data = r.longs(1000, 0, 10).toArray();
+            long[] expected = LongStreamEx.of(data).boxed().collapse((a, b) -> a <= b, Long::sum).mapToLong(
+                x -> x).toArray();
+            assertArrayEquals(expected, LongStreamEx.of(data).collapse((a, b) -> a <= b, Long::sum).toArray());
+            assertArrayEquals(expected, LongStreamEx.of(data).parallel().collapse((a, b) -> a <= b, Long::sum)
+                    .toArray());
+            checkSpliterator("collapse", LongStreamEx.of(expected).boxed().toList(), () -> LongStreamEx.of(data)
+                    .collapse((a, b) -> a <= b, Long::sum).spliterator());
+        });
+    }
+
+    @Test
+    public void testRunLengths() {
+        assertEquals("1=2,2=1,1=3", LongStreamEx.of(1, 1, 2, 1, 1, 1).runLengths().join("=").joining(","));
+        assertEquals(0, LongStreamEx.empty().runLengths().count());
+        withRandom(r -> {
+            long[] data = r.longs(1000, 0, 10).toArray();
+            List<Map.Entry<Long, Long>> expected = LongStreamEx.of(data).boxed().runLengths().toList();
+            assertEquals(expected, LongStreamEx.of(data).runLengths().toList());
+            assertEquals(expected, LongStreamEx.of(data).parallel().runLengths().toList());
+            checkSpliterator("runLengths", expected, () -> LongStreamEx.of(data).runLengths().spliterator());
+        });
+    }
+
+    @Test
+    public void testGroupRuns() {
+        assertEquals("[1, 2, 3]|[5]|[7, 8]", LongStreamEx.of(1, 2, 3, 5, 7, 8).groupRuns((a, b) -> b == a + 1).map(
+            Arrays::toString).joining("|"));
+        assertEquals(0, LongStreamEx.empty().groupRuns((a, b) -> true).count());
+        withRandom(r -> {
+            long[] data = r.longs(1000, 0, 10).toArray();
+            List<List<Long>> expected = LongStreamEx.of(data).boxed().groupRuns((a, b) -> a <= b).toList();
+            assertEquals(expected, LongStreamEx.of(data).groupRuns((a, b) -> a <= b).map(
+                a -> LongStreamEx.of(a).boxed().toList()).toList());
+            assertEquals(expected, LongStreamEx.of(data).parallel().groupRuns((a, b) -> a <= b).map(
+                a -> LongStreamEx.of(a).boxed().toList()).toList());
+            checkSpliterator("groupRuns", expected, () -> LongStreamEx.of(data).groupRuns((a, b) -> a <= b).map(
+                a -> LongStreamEx.of(a).boxed().toList()).spliterator());
+        });
+        assertEquals(Collections.singletonList(10000), IntStreamEx.range(10000).parallel().mapToLong(x -> x)
+                .groupRuns((a, b) -> a < b).map(a -> a.length).toList());
+    }
+
+    @Test
+    public void testWindow() {
+        assertArrayEquals(new long[] { 6, 9, 12 }, LongStreamEx.of(1, 2, 3, 4, 5).windowSum(3).toArray());
+        assertArrayEquals(new long[] { 1, 2, 3 }, LongStreamEx.of(1, 2, 3, 4, 5).windowMin(3).toArray());
+        assertArrayEquals(new long[] { 3, 4, 5 }, LongStreamEx.of(1, 2, 3, 4, 5).windowMax(3).toArray());
+        assertArrayEquals(new double[] { 2, 3, 4 }, LongStreamEx.of(1, 2, 3, 4, 5).windowAverage(3).toArray(), 0.0);
+        assertEquals(0, LongStreamEx.of(1, 2, 3).windowSum(4).count());
+        assertEquals(0, LongStreamEx.empty().windowMax(1).count());
+        withRandom(r -> {
+            long[] data = r.longs(1000, -1000, 1000).toArray();
+            for (int width : new int[] { 1, 2, 3, 10, 100, 1000, 1001 }) {
+                int w = width;
+                int n = Math.max(0, data.length - w + 1);
+                long[] sums = IntStreamEx.range(n).mapToLong(i -> LongStreamEx.of(data, i, i + w).sum()).toArray();
+                long[] mins = IntStreamEx.range(n).mapToLong(i -> LongStreamEx.of(data, i, i + w).min().getAsLong()).toArray();
+                long[] maxs = IntStreamEx.range(n).mapToLong(i -> LongStreamEx.of(data, i, i + w).max().getAsLong()).toArray();
+                String msg = "width = " + w;
+                withMessage(msg, () -> {
+                    assertArrayEquals(sums, LongStreamEx.of(data).windowSum(w).toArray());
+                    assertArrayEquals(sums, LongStreamEx.of(data).parallel().windowSum(w).toArray());
+                    assertArrayEquals(sums, LongStreamEx.of(data).parallel().filter(x -> true).windowSum(w).toArray());
+                    assertArrayEquals(mins, LongStreamEx.of(data).parallel().windowMin(w).toArray());
+                    assertArrayEquals(maxs, LongStreamEx.of(data).parallel().windowMax(w).toArray());
+                    assertEquals(n, LongStreamEx.of(data).windowMin(w).spliterator().getExactSizeIfKnown());
+                });
+                checkSpliterator(msg, LongStreamEx.of(mins).boxed().toList(), () -> LongStreamEx.of(data).windowMin(w)
+                        .spliterator());
+                checkSpliterator(msg, LongStreamEx.of(maxs).boxed().toList(), () -> LongStreamEx.of(data).windowMax(w)
+                        .spliterator());
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowIllegalWidth() {
+        LongStreamEx.of(1, 2, 3).windowSum(0);
+    }
+
     @Test
     public void testPairMap() {
         assertEquals(0, LongStreamEx.range(0).pairMap(Long::sum).count());
@@ -437,6 +567,25 @@ public class LongStreamExTest {
         assertFalse(LongStreamEx.range(1000).greater(2000).parallel().pairMap((a, b) -> a).findFirst().isPresent());
     }
 
+    @Test
+    public void testPairMapArray() {
+        withRandom(r -> {
+            long[] data = r.longs(1000, 0, 1000000).toArray();
+            long[] expected = LongStreamEx.of(data).boxed().pairMap((a, b) -> b - a).mapToLong(x -> x).toArray();
+            assertArrayEquals(expected, LongStreamEx.of(data).pairMap((a, b) -> b - a).toArray());
+            assertArrayEquals(expected, LongStreamEx.of(data).parallel().pairMap((a, b) -> b - a).toArray());
+            assertArrayEquals(Arrays.copyOfRange(expected, 10, 99), LongStreamEx.of(data, 10, 100).parallel().pairMap(
+                (a, b) -> b - a).toArray());
+            assertEquals(999, LongStreamEx.of(data).pairMap((a, b) -> b - a).spliterator().getExactSizeIfKnown());
+            checkSpliterator("pairMap", LongStreamEx.of(expected).boxed().toList(), () -> LongStreamEx.of(data).pairMap(
+                (a, b) -> b - a).spliterator());
+        });
+        long[] data = { 1, 2, 4 };
+        assertEquals(0, LongStreamEx.of(data, 1, 1).pairMap((a, b) -> b - a).count());
+        assertEquals(0, LongStreamEx.of(data, 1, 2).pairMap((a, b) -> b - a).count());
+        assertArrayEquals(new long[] { 2 }, LongStreamEx.of(data, 1, 3).pairMap((a, b) -> b - a).toArray());
+    }
+
     @Test
     public void testJoining() {
         assertEquals("0,1,2,3,4,5,6,7,8,9", LongStreamEx.range(10).joining(","));
@@ -596,4 +745,49 @@ public class LongStreamExTest {
         assertEquals(OptionalLong.of(10), LongStreamEx.of(1, 2, 3, 4, 10).prefix(Long::sum).findFirst(x -> x > 7));
         assertEquals(OptionalLong.empty(), LongStreamEx.of(1, 2, 3, 4, 10).prefix(Long::sum).findFirst(x -> x > 20));
     }
+
+    @Test
+    public void testPrefixArray() {
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            withRandom(r -> {
+                long[] data = r.longs(100000, -1000, 1000).toArray();
+                long[] expected = data.clone();
+                Arrays.parallelPrefix(expected, Long::sum);
+                assertArrayEquals(expected, LongStreamEx.of(data).prefix(Long::sum).toArray());
+                assertArrayEquals(expected, LongStreamEx.of(data).parallel().prefix(Long::sum).toArray());
+                assertArrayEquals(expected, LongStreamEx.of(data).parallel(pool).prefix(Long::sum).toArray());
+                long[] sub = Arrays.copyOfRange(data, 100, 90000);
+                Arrays.parallelPrefix(sub, Long::sum);
+                assertArrayEquals(sub, LongStreamEx.of(data, 100, 90000).parallel().prefix(Long::sum).toArray());
+                assertArrayEquals(data, LongStreamEx.of(data).parallel().prefix((a, b) -> b).toArray());
+                assertTrue(LongStreamEx.of(data).parallel().prefix((a, b) -> a).allMatch(x -> x == data[0]));
+                checkSpliterator("prefix", LongStreamEx.of(expected, 0, 5000).boxed().toList(), () -> LongStreamEx.of(data,
+                    0, 5000).prefix(Long::sum).spliterator());
+            });
+        } finally {
+            pool.shutdown();
+        }
+        try {
+            LongStreamEx.of(new long[100000]).parallel().prefix((a, b) -> {
+                throw new IllegalStateException();
+            }).toArray();
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testToArrayParallel() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            long[] expected = LongStreamEx.range(0, 100000).filter(x -> x % 3 != 0).toArray();
+            assertArrayEquals(expected, LongStreamEx.range(0, 100000).parallel().filter(x -> x % 3 != 0).toArray());
+            assertArrayEquals(expected, LongStreamEx.range(0, 100000).parallel(pool).filter(x -> x % 3 != 0).toArray());
+            assertArrayEquals(expected, LongStreamEx.of(LongStreamEx.range(0, 100000).toArray()).parallel().filter(x -> x % 3 != 0).toArray());
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
@@ -31,13 +31,18 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
@@ -110,6 +115,48 @@ public class MoreCollectorsTest {
         });
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testApproxDistinctCountLowPrecision() {
+        MoreCollectors.approxDistinctCount(Function.identity(), 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testApproxDistinctCountHighPrecision() {
+        MoreCollectors.approxDistinctCount(Function.identity(), 19);
+    }
+
+    @Test
+    public void testApproxDistinctCount() {
+        assertEquals(0L, (long) StreamEx.empty().collect(MoreCollectors.approxDistinctCount(x -> x, 10)));
+        assertEquals(1L, (long) StreamEx.of("a", "a", "a").collect(MoreCollectors.approxDistinctCount(x -> x, 10)));
+        assertEquals(1L, (long) StreamEx.of(null, null).collect(MoreCollectors.approxDistinctCount(x -> x, 10)));
+        for (int precision : new int[] { 4, 8, 12, 16 }) {
+            // four standard errors
+            double bound = 4 * 1.04 / Math.sqrt(1 << precision);
+            for (int n : new int[] { 10, 100, 1000, 10000, 100000, 400000 }) {
+                String msg = "precision = " + precision + ", n = " + n;
+                Collector<Object, ?, Long> collector = MoreCollectors.approxDistinctCount(x -> x, precision);
+                long ints = IntStreamEx.range(n * 2).boxed().collect(Collectors.mapping(i -> i / 2, collector));
+                long strings = IntStreamEx.range(n).mapToObj(i -> "key" + i).collect(collector);
+                long objects = IntStreamEx.range(n).mapToObj(i -> asList(i, "val")).collect(collector);
+                assertEquals(msg, n, ints, n * bound);
+                assertEquals(msg, n, strings, n * bound);
+                assertEquals(msg, n, objects, n * bound);
+                // register-wise max merging doesn't depend on splitting
+                assertEquals(msg, ints, (long) IntStreamEx.range(n * 2).parallel().boxed().map(i -> i / 2).collect(
+                    collector));
+            }
+        }
+        List<String> input = asList("a", "bb", "c", "cc", "eee", "bb", "bc", "ddd");
+        streamEx(input::stream, supplier -> {
+            Map<String, Long> result = supplier.get().groupingBy(s -> s.substring(0, 1), HashMap::new,
+                MoreCollectors.approxDistinctCount(String::length, 8));
+            assertEquals(1L, (long) result.get("a"));
+            assertEquals(1L, (long) result.get("b"));
+            assertEquals(2L, (long) result.get("c"));
+        });
+    }
+
     @Test
     public void testDistinctBy() {
         List<String> input = asList("a", "bb", "c", "cc", "eee", "bb", "bc", "ddd", "ca", "ce", "cf", "ded", "dump");
@@ -198,6 +245,32 @@ public class MoreCollectorsTest {
         checkCollectorEmpty("last", Optional.empty(), MoreCollectors.last());
     }
 
+    @Test
+    public void testFirstLastCancellation() {
+        AtomicInteger counter = new AtomicInteger();
+        Supplier<Spliterator<Integer>> source = () -> Spliterators.spliterator(IntStreamEx.range(1000).boxed().peek(
+            x -> counter.incrementAndGet()).iterator(), 1000, Spliterator.ORDERED);
+        List<Function<StreamEx<Integer>, StreamEx<Integer>>> pipelines = asList(Function.identity(), s -> s.map(
+            x -> x), s -> s.filter(x -> true), s -> s.flatMap(StreamEx::of));
+        for (Function<StreamEx<Integer>, StreamEx<Integer>> pipeline : pipelines) {
+            counter.set(0);
+            assertEquals(asList(0, 1, 2), pipeline.apply(StreamEx.of(source.get())).collect(MoreCollectors.head(3)));
+            assertEquals(3, counter.get());
+            counter.set(0);
+            assertEquals(Optional.of(0), pipeline.apply(StreamEx.of(source.get())).collect(MoreCollectors.first()));
+            assertEquals(1, counter.get());
+            counter.set(0);
+            assertEquals(Optional.empty(), pipeline.apply(StreamEx.of(source.get())).collect(MoreCollectors.onlyOne()));
+            assertEquals(2, counter.get());
+            counter.set(0);
+            assertEquals(Optional.empty(), pipeline.apply(StreamEx.of(source.get()).limit(0)).collect(
+                MoreCollectors.first()));
+            assertEquals(0, counter.get());
+        }
+        assertEquals(Optional.of(1), StreamEx.of(1, 2).flatMap(x -> StreamEx.iterate(x, y -> y + 1)).collect(
+            MoreCollectors.first()));
+    }
+
     @Test
     public void testHeadParallel() {
         List<Integer> expected = IntStreamEx.range(0, 2000, 2).boxed().toList();
@@ -306,6 +379,19 @@ public class MoreCollectorsTest {
         checkCollector("groupingByEnum", expected, () -> Stream.of(TimeUnit.SECONDS, TimeUnit.DAYS, TimeUnit.DAYS,
             TimeUnit.NANOSECONDS), MoreCollectors.groupingByEnum(TimeUnit.class, Function.identity(), Collectors
                 .counting()));
+
+        TimeUnit[] units = TimeUnit.values();
+        Supplier<Stream<Integer>> input = () -> IntStreamEx.range(100).boxed();
+        EnumMap<TimeUnit, Optional<Integer>> expectedFirst = new EnumMap<>(TimeUnit.class);
+        for (TimeUnit tu : units)
+            expectedFirst.put(tu, Optional.of(tu.ordinal()));
+        checkShortCircuitCollector("groupingByEnumFirst", expectedFirst, units.length, input, MoreCollectors
+                .groupingByEnum(TimeUnit.class, i -> units[i % units.length], MoreCollectors.first()));
+        EnumMap<TimeUnit, List<Integer>> expectedHead = new EnumMap<>(TimeUnit.class);
+        for (TimeUnit tu : units)
+            expectedHead.put(tu, asList(tu.ordinal(), tu.ordinal() + units.length));
+        checkShortCircuitCollector("groupingByEnumHead", expectedHead, units.length * 2, input, MoreCollectors
+                .groupingByEnum(TimeUnit.class, i -> units[i % units.length], MoreCollectors.head(2)));
     }
 
     @Test(expected = IllegalStateException.class)
@@ -357,6 +443,24 @@ public class MoreCollectorsTest {
         assertEquals("Mary, Lucie, ...", mapJoin.get("Girl"));
         assertEquals("John, James, ...", mapJoin.get("Boy"));
         assertEquals(7, counter.get());
+
+        // map is filled in the encounter order, then the absent domain keys follow
+        Collector<Integer, ?, Map<Integer, Long>> counting = MoreCollectors.groupingBy(i -> i % 10, IntStreamEx
+                .range(10).boxed().toCollection(LinkedHashSet::new), LinkedHashMap::new, Collectors.counting());
+        for (StreamExSupplier<Integer> supplier : streamEx(() -> Stream.of(5, 3, 15, 7, 3))) {
+            Map<Integer, Long> result = supplier.get().collect(counting);
+            assertEquals(supplier.toString(), asList(5, 3, 7, 0, 1, 2, 4, 6, 8, 9), new ArrayList<>(result.keySet()));
+            assertEquals(supplier.toString(), asList(2L, 2L, 1L, 0L, 0L, 0L, 0L, 0L, 0L, 0L), new ArrayList<>(result
+                    .values()));
+        }
+
+        // domain membership is checked via Set.contains
+        Set<String> domain = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        domain.addAll(asList("A", "B"));
+        Map<String, Long> caseInsensitive = StreamEx.of("a", "b", "A").collect(
+            MoreCollectors.groupingBy(Function.identity(), domain, () -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER),
+                Collectors.counting()));
+        assertEquals(EntryStream.of("a", 2L, "b", 1L).toMap(), caseInsensitive);
     }
 
     @Test
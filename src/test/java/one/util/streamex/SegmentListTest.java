@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Tagir Valeev
+ */
+public class SegmentListTest {
+    private static SegmentList.OfInt list(int from, int to) {
+        SegmentList.OfInt list = new SegmentList.OfInt();
+        for (int i = from; i < to; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Test
+    public void testAdd() {
+        for (int size : new int[] { 0, 1, 127, 128, 129, 100000 }) {
+            assertArrayEquals(IntStream.range(0, size).toArray(), list(0, size).toArray());
+        }
+    }
+
+    @Test
+    public void testAddAll() {
+        int[] bounds = { 0, 0, 10, 138, 138, 5000, 5001, 70000 };
+        SegmentList.OfInt list = new SegmentList.OfInt();
+        for (int i = 1; i < bounds.length; i++) {
+            list.addAll(list(bounds[i - 1], bounds[i]));
+            list.add(-1);
+            list.addAll(new SegmentList.OfInt());
+        }
+        int[] expected = IntStreamEx.range(1, bounds.length).flatMap(
+            i -> IntStreamEx.range(bounds[i - 1], bounds[i]).append(-1)).toArray();
+        assertArrayEquals(expected, list.toArray());
+    }
+
+    @Test
+    public void testPrimitives() {
+        SegmentList.OfByte bytes = new SegmentList.OfByte();
+        SegmentList.OfChar chars = new SegmentList.OfChar();
+        SegmentList.OfShort shorts = new SegmentList.OfShort();
+        SegmentList.OfLong longs = new SegmentList.OfLong();
+        SegmentList.OfDouble doubles = new SegmentList.OfDouble();
+        SegmentList.OfFloat floats = new SegmentList.OfFloat();
+        for (int i = 0; i < 1000; i++) {
+            bytes.add(i);
+            chars.add(i);
+            shorts.add(i);
+            longs.add(i);
+            doubles.add(i);
+            floats.add(i);
+        }
+        assertArrayEquals(IntStreamEx.range(1000).toByteArray(), bytes.toArray());
+        assertArrayEquals(IntStreamEx.range(1000).toCharArray(), chars.toArray());
+        assertArrayEquals(IntStreamEx.range(1000).toShortArray(), shorts.toArray());
+        assertArrayEquals(LongStreamEx.range(1000).toArray(), longs.toArray());
+        assertArrayEquals(IntStreamEx.range(1000).asDoubleStream().toArray(), doubles.toArray(), 0.0);
+        assertArrayEquals(IntStreamEx.range(1000).asDoubleStream().toFloatArray(), floats.toArray(), 0.0f);
+    }
+}
@@ -48,9 +48,15 @@ import java.util.SortedMap;
 import java.util.Spliterator;
 import java.util.TreeSet;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -526,6 +532,40 @@ public class StreamExTest {
         assertEquals(asList("a", "cc", "bbb"), StreamEx.of(data).sortedByLong(String::length).toList());
         assertEquals(asList("a", "cc", "bbb"), StreamEx.of(data).sortedByDouble(String::length).toList());
         assertEquals(asList("a", "cc", "bbb"), StreamEx.of(data).sortedBy(s -> s.length()).toList());
+
+        withRandom(r -> {
+            List<String> input = IntStreamEx.of(r, 1000, 0, 100).mapToObj(String::valueOf).toList();
+            List<String> expected = StreamEx.of(input).sorted(Comparator.comparingInt(String::length)).toList();
+            List<String> expectedReverse = StreamEx.of(input).sorted(
+                Comparator.comparingInt((String s) -> -s.length())).toList();
+            streamEx(input::stream, supplier -> {
+                assertEquals(supplier.toString(), expected, supplier.get().sortedByInt(String::length).toList());
+                assertEquals(supplier.toString(), expected, supplier.get().sortedByLong(String::length).toList());
+                assertEquals(supplier.toString(), expected, supplier.get().sortedByDouble(String::length).toList());
+                assertEquals(supplier.toString(), expected, supplier.get().sortedBy(String::length).toList());
+                assertEquals(supplier.toString(), expectedReverse, supplier.get().sortedByInt(s -> -s.length())
+                        .toList());
+                assertEquals(supplier.toString(), expectedReverse, supplier.get().sortedByDouble(
+                    s -> -(double) s.length()).toList());
+            });
+            AtomicInteger calls = new AtomicInteger();
+            StreamEx.of(input).sortedBy(s -> calls.incrementAndGet()).toList();
+            StreamEx.of(input).sortedByInt(s -> calls.incrementAndGet()).toList();
+            StreamEx.of(input).sortedByLong(s -> calls.incrementAndGet()).toList();
+            StreamEx.of(input).sortedByDouble(s -> calls.incrementAndGet()).toList();
+            assertEquals(input.size() * 4, calls.get());
+        });
+        withRandom(r -> {
+            List<Integer> input = IntStreamEx.of(r, 20000, -1000, 1000).boxed().toList();
+            List<Integer> expected = StreamEx.of(input).sorted(Comparator.comparingInt(x -> x / 10)).toList();
+            streamEx(input::stream, supplier -> {
+                assertEquals(supplier.toString(), expected, supplier.get().radixSortedByInt(x -> x / 10).toList());
+                assertEquals(supplier.toString(), expected, supplier.get().radixSortedByLong(x -> x / 10 * (1L << 40))
+                        .toList());
+            });
+        });
+        assertEquals(asList(Double.NEGATIVE_INFINITY, -0.0, 0.0, 1.0, Double.NaN), DoubleStreamEx.of(1.0, 0.0,
+            Double.NaN, -0.0, Double.NEGATIVE_INFINITY).boxed().sortedByDouble(x -> x).toList());
     }
 
     @Test
@@ -991,6 +1031,85 @@ public class StreamExTest {
             s -> s.equals("x") ? IntStreamEx.range(1000000).mapToObj(String::valueOf) : null).parallel().count());
     }
 
+    private static Stream<Integer> graphNeighbors(int i, int n) {
+        return i % 7 == 6 ? null : Stream.of((i * 2 + 1) % n, (i * 3 + 2) % n, i / 2);
+    }
+
+    private static void dfs(int node, int n, Set<Integer> visited, List<Integer> result) {
+        if (!visited.add(node))
+            return;
+        result.add(node);
+        Stream<Integer> neighbors = graphNeighbors(node, n);
+        if (neighbors != null)
+            neighbors.forEach(next -> dfs(next, n, visited, result));
+    }
+
+    @Test
+    public void testOfGraph() {
+        for (int n : new int[] { 1, 10, 100, 1000 }) {
+            List<Integer> expected = new ArrayList<>();
+            dfs(0, n, new HashSet<>(), expected);
+            streamEx(() -> StreamEx.ofGraph(0, i -> graphNeighbors(i, n)), s -> {
+                assertEquals(expected, s.get().toList());
+                if (expected.size() > 10)
+                    assertEquals(expected.get(10), s.get().skip(10).findFirst().get());
+            });
+        }
+        // long paths: no recursion
+        assertEquals(1000000, StreamEx.ofGraph(0, i -> i == 999999 ? null : Stream.of(i + 1)).count());
+        assertEquals(1000000, StreamEx.ofGraph(0, i -> i == 999999 ? null : Stream.of(i + 1)).parallel().count());
+        int n = 1000000;
+        Function<Integer, Stream<Integer>> neighbors = i -> Stream.of((2 * i + 1) % n, (3 * i + 2) % n, i / 2);
+        long reachable = StreamEx.ofGraphBreadthFirst(0, neighbors).count();
+        assertEquals(reachable, StreamEx.ofGraph(0, neighbors).count());
+        assertEquals(StreamEx.ofGraph(0, neighbors).toList(), StreamEx.ofGraph(0, neighbors).parallel().toList());
+        // diamonds chain: 2^20 paths, but 61 nodes
+        assertEquals(61, StreamEx.ofGraph(0, i -> i >= 60 ? null : i % 3 == 0 ? Stream.of(i + 1, i + 2)
+                : Stream.of(i + 3 - i % 3)).count());
+        DistinctFilter<Integer> visited = DistinctFilter.unbounded();
+        visited.add(2);
+        assertEquals(Arrays.asList(0, 1, 3, 4, 5), StreamEx.ofGraph(0, i -> i > 3 ? null : Stream.of(i + 1, i + 2),
+            visited).toList());
+        assertEquals(Collections.emptyList(), StreamEx.ofGraph(1, i -> Stream.of(i + 1), visited).toList());
+        assertEquals(Arrays.asList(7, 6), StreamEx.ofGraph(7, i -> Stream.of(i - 1), visited).toList());
+        // the filter is not touched until the traversal
+        DistinctFilter<Integer> lazy = DistinctFilter.unbounded();
+        StreamEx.ofGraph(0, i -> Stream.of(i + 1), lazy);
+        StreamEx.ofGraphBreadthFirst(0, i -> Stream.of(i + 1), lazy);
+        assertEquals(Arrays.asList(0, 1, 2), StreamEx.ofGraph(0, i -> i == 2 ? null : Stream.of(i + 1), lazy)
+                .toList());
+        assertEquals(Collections.emptyList(), StreamEx.ofGraphBreadthFirst(0, i -> Stream.of(i + 1), lazy).toList());
+    }
+
+    @Test
+    public void testOfGraphBreadthFirst() {
+        for (int n : new int[] { 1, 10, 100, 1000, 100000 }) {
+            List<Integer> expected = new ArrayList<>();
+            Set<Integer> seen = new HashSet<>();
+            Queue<Integer> queue = new ArrayDeque<>();
+            queue.add(0);
+            seen.add(0);
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                expected.add(node);
+                Stream<Integer> neighbors = graphNeighbors(node, n);
+                if (neighbors != null)
+                    neighbors.filter(seen::add).forEach(queue::add);
+            }
+            streamEx(() -> StreamEx.ofGraphBreadthFirst(0, i -> graphNeighbors(i, n)), s -> assertEquals(expected, s
+                    .get().toList()));
+        }
+        assertEquals(Arrays.asList("", "a", "b", "aa", "ab", "bb"), StreamEx.ofGraphBreadthFirst("", str -> str
+                .length() == 2 ? null : Stream.of("a", "b").map(str::concat).map(x -> x.startsWith("ba") ? "ab" : x))
+                .toList());
+        // long path: no recursion
+        assertEquals(1000000, StreamEx.ofGraphBreadthFirst(0, i -> i == 999999 ? null : Stream.of(i + 1)).parallel()
+                .count());
+        DistinctFilter<Integer> visited = DistinctFilter.unbounded();
+        assertEquals(4, StreamEx.ofGraphBreadthFirst(0, i -> Stream.of((i + 1) % 4), visited).count());
+        assertEquals(0, StreamEx.ofGraphBreadthFirst(2, i -> Stream.of((i + 1) % 4), visited).count());
+    }
+
     @Test
     public void testOfTreeClose() {
         CompositeNode r = CompositeNode.createTestData();
@@ -1690,6 +1809,140 @@ public class StreamExTest {
             s.get().mapLastOrElse("|- "::concat, "\\- "::concat).joining("\n")));
     }
     
+    @Test(expected = IllegalArgumentException.class)
+    public void testMapAsyncIllegalMaxInFlight() {
+        StreamEx.of(1, 2, 3).mapAsync(CompletableFuture::completedFuture, 0);
+    }
+
+    @Test
+    public void testAsync() throws InterruptedException {
+        List<Integer> input = IntStreamEx.range(10000).boxed().toList();
+        List<Integer> expected = StreamEx.of(input).map(x -> x * 2).toList();
+        for (int bufferSize : new int[] { 1, 2, 3, 16, 1000, 20000 }) {
+            assertEquals(input, StreamEx.of(input).async(bufferSize).toList());
+            assertEquals(expected, StreamEx.of(input.iterator()).map(x -> x * 2).async(bufferSize).toList());
+            assertEquals(expected, StreamEx.of(input).async(bufferSize).parallel().map(x -> x * 2).toList());
+            List<Integer> list = new ArrayList<>();
+            StreamEx.of(input).async(bufferSize).forEach(list::add);
+            assertEquals(input, list);
+            assertEquals(asList(0, 1, 2), StreamEx.of(input).async(bufferSize).limit(3).toList());
+        }
+        assertEquals(asList(1, null, 3), StreamEx.of(1, null, 3).async(1).toList());
+        assertEquals(Collections.emptyList(), StreamEx.empty().async(10).toList());
+        Thread current = Thread.currentThread();
+        assertFalse(StreamEx.of(1, 2, 3).map(x -> Thread.currentThread()).async(2).toSet().contains(current));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals(asList("abc", "def"), StreamEx.of("a", "d").map(x -> x + (char) (x.charAt(0) + 1)).async(1,
+                executor).map(x -> x + (char) (x.charAt(0) + 2)).toList());
+        } finally {
+            executor.shutdown();
+        }
+
+        CountDownLatch finished = new CountDownLatch(1);
+        try (StreamEx<Integer> stream = StreamEx.iterate(0, x -> x + 1).async(16, r -> new Thread(() -> {
+            r.run();
+            finished.countDown();
+        }).start())) {
+            assertEquals(asList(0, 1, 2), stream.limit(3).toList());
+        }
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAsyncException() {
+        List<Integer> consumed = new ArrayList<>();
+        try {
+            IntStreamEx.range(1000).boxed().peek(x -> {
+                if (x == 500)
+                    throw new IllegalStateException("x = " + x);
+            }).async(16).forEach(consumed::add);
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            assertEquals("x = 500", e.getMessage());
+        }
+        assertEquals(IntStreamEx.range(500).boxed().toList(), consumed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAsyncIllegalBufferSize() {
+        StreamEx.of(1, 2, 3).async(0);
+    }
+
+    @Test
+    public void testMapAsync() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Integer> input = IntStreamEx.range(200).boxed().toList();
+            List<String> expected = StreamEx.of(input).map(String::valueOf).toList();
+            for (int maxInFlight : new int[] { 1, 3, 8, 1000 }) {
+                AtomicInteger active = new AtomicInteger();
+                AtomicInteger maxActive = new AtomicInteger();
+                streamEx(input::stream, s -> {
+                    List<String> result = s.get().mapAsync(x -> {
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        try {
+                            // the elements complete out of order
+                            Thread.sleep(x % 3);
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        active.decrementAndGet();
+                        return String.valueOf(x);
+                    }, maxInFlight, executor).toList();
+                    assertEquals(expected, result);
+                });
+                assertTrue(maxActive.get() <= maxInFlight);
+            }
+
+            // the upstream is pulled lazily
+            AtomicInteger pulled = new AtomicInteger();
+            assertEquals(asList(0, 2), StreamEx.iterate(0, x -> x + 1).peek(x -> pulled.incrementAndGet()).mapAsync(
+                x -> CompletableFuture.supplyAsync(() -> x * 2, executor), 4).limit(2).toList());
+            assertTrue(pulled.get() <= 5);
+
+            // unconsumed futures are cancelled on close
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            try (StreamEx<Integer> stream = StreamEx.of(1, 2, 3, 4).mapAsync(x -> {
+                CompletableFuture<Integer> future = x == 1 ? CompletableFuture.completedFuture(x)
+                        : new CompletableFuture<>();
+                futures.add(future);
+                return future;
+            }, 3)) {
+                assertEquals(Optional.of(1), stream.findFirst());
+            }
+            assertEquals(3, futures.size());
+            assertFalse(futures.get(0).isCancelled());
+            assertTrue(futures.get(1).isCancelled());
+            assertTrue(futures.get(2).isCancelled());
+            
+            AtomicInteger closed = new AtomicInteger();
+            StreamEx.of(1, 2).onClose(closed::incrementAndGet).mapAsync(CompletableFuture::completedFuture, 2)
+                    .onClose(closed::incrementAndGet).close();
+            assertEquals(2, closed.get());
+
+            // exceptions are rethrown
+            CompletableFuture<String> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("fail"));
+            try {
+                StreamEx.of(1, 2).mapAsync(x -> x == 1 ? CompletableFuture.completedFuture("a") : failed, 2).toList();
+                fail("no exception");
+            } catch (IllegalStateException e) {
+                assertEquals("fail", e.getMessage());
+            }
+            CompletableFuture<String> failedChecked = new CompletableFuture<>();
+            failedChecked.completeExceptionally(new IOException("fail"));
+            try {
+                StreamEx.of(1).mapAsync(x -> failedChecked, 2).toList();
+                fail("no exception");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof IOException);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testPeekFirst() {
         List<String> input = asList("A", "B", "C", "D");
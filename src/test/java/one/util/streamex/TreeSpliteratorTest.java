@@ -18,11 +18,13 @@ package one.util.streamex;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Spliterator;
 import java.util.stream.Stream;
 
 import org.junit.Test;
 
 import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
 
 /**
  * @author Tagir Valeev
@@ -45,4 +47,42 @@ public class TreeSpliteratorTest {
         checkSpliterator("tree", expected, () -> new TreeSpliterator.Depth<String>("", (depth, s) -> depth == 2 ? null
                 : Stream.of("a", "b", "c").map(s::concat)));
     }
+
+    @Test
+    public void testSkewedTree() {
+        // single child of the root, the deep nodes have many children
+        List<String> expected = StreamEx.ofTree("", s -> s.length() == 5 ? null : s.isEmpty() ? Stream.of("x")
+                : Stream.of("a", "b", "c").map(s::concat)).toList();
+        assertEquals(1 + 1 + 3 + 9 + 27 + 81, expected.size());
+        checkSpliterator("skewed", expected, () -> new TreeSpliterator.Plain<String>("", s -> s.length() == 5 ? null
+                : s.isEmpty() ? Stream.of("x") : Stream.of("a", "b", "c").map(s::concat)));
+
+        Spliterator<String> spliterator = new TreeSpliterator.Plain<>("", s -> s.length() == 5 ? null
+                : s.isEmpty() ? Stream.of("x") : Stream.of("a", "b", "c").map(s::concat));
+        assertNotNull(spliterator.trySplit()); // root
+        assertTrue(spliterator.tryAdvance(s -> assertEquals("x", s)));
+        assertTrue(spliterator.tryAdvance(s -> assertEquals("xa", s)));
+        // the only first-level node is consumed, but its subtrees still split
+        Spliterator<String> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(expected, StreamEx.of("", "x", "xa").append(StreamEx.of(prefix)).append(StreamEx.of(
+            spliterator)).toList());
+    }
+
+    @Test
+    public void testLinkedListTree() {
+        List<Integer> expected = IntStreamEx.rangeClosed(0, 1000).boxed().toList();
+        checkSpliterator("list", expected, () -> new TreeSpliterator.Plain<Integer>(0, i -> i == 1000 ? null
+                : Stream.of(i + 1)));
+        assertEquals(expected, StreamEx.ofTree(0, i -> i == 1000 ? null : Stream.of(i + 1)).parallel().toList());
+    }
+
+    @Test
+    public void testDepthSkewedTree() {
+        List<Entry<Integer, String>> expected = EntryStream.ofTree("", (depth, s) -> depth == 5 ? null
+                : depth == 0 ? Stream.of("x") : Stream.of("a", "b").map(s::concat)).toList();
+        checkSpliterator("depth", expected, () -> new TreeSpliterator.Depth<String>("", (depth, s) -> depth == 5
+                ? null : depth == 0 ? Stream.of("x") : Stream.of("a", "b").map(s::concat)));
+        expected.forEach(e -> assertEquals(e.toString(), (int) e.getKey(), e.getValue().length()));
+    }
 }